@@ -0,0 +1,115 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.exception.InsufficientBalanceException;
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.util.IDGenerator;
+import com.hdfcbank.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Account's compare-and-set balance updates against the synchronized methods they replaced, across
+// contention levels: every op is a 1-paisa deposit or withdrawal on one of 'accounts' accounts, so
+// accounts=1 is a single hot account and 4096 is nearly uncontended. The account* benchmarks call
+// the account directly; service goes through BankServiceImpl, which still holds the account monitor.
+// Run with -t 1, 4 and 16 (or through BenchmarkRunner) to see contention.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountConcurrencyBenchmark {
+    @State(Scope.Benchmark)
+    public static class Accounts {
+        @Param({"1", "16", "4096"})
+        int accounts;
+        MonitorAccount[] monitor;
+        Account[] cas;
+
+        @Setup
+        public void setUp() {
+            Customer c = Fixtures.detachedCustomer();
+            monitor = new MonitorAccount[accounts];
+            cas = new Account[accounts];
+            for (int i = 0; i < accounts; i++) {
+                monitor[i] = new MonitorAccount(Fixtures.BIG_BALANCE);
+                cas[i] = Account.of(IDGenerator.generateAccountId(), c, AccountType.SAVINGS, Fixtures.BIG_BALANCE);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Service {
+        @Param({"1", "16", "4096"})
+        int accounts;
+        BankServiceImpl bank;
+        String[] ids;
+
+        @Setup
+        public void setUp() {
+            bank = new BankServiceImpl();
+            ids = Fixtures.open(bank, accounts, AccountType.SAVINGS, Fixtures.BIG_BALANCE);
+        }
+    }
+
+    @Benchmark
+    public long accountMonitor(Accounts a) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        MonitorAccount acc = a.monitor[rnd.nextInt(a.accounts)];
+        if (rnd.nextBoolean()) acc.deposit(1);
+        else acc.withdraw(1);
+        return acc.getBalance();
+    }
+
+    @Benchmark
+    public long accountCas(Accounts a) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        Account acc = a.cas[rnd.nextInt(a.accounts)];
+        if (rnd.nextBoolean()) acc.deposit(1);
+        else acc.withdraw(1);
+        return acc.getBalance();
+    }
+
+    @Benchmark
+    public void service(Service s) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String id = s.ids[rnd.nextInt(s.accounts)];
+        if (rnd.nextBoolean()) s.bank.deposit(id, 1);
+        else s.bank.withdraw(id, 1);
+    }
+
+    // The savings account as it was before the CAS state: synchronized methods on a volatile long
+    static final class MonitorAccount {
+        private static final long MIN_BAL = Money.ofRupees(1000);
+        private volatile long balance;
+
+        MonitorAccount(long balance) {
+            this.balance = balance;
+        }
+
+        synchronized void deposit(long amount) {
+            balance += amount;
+        }
+
+        synchronized void withdraw(long amt) {
+            if (balance - amt < MIN_BAL) throw new InsufficientBalanceException("Insufficient balance in Savings.");
+            balance -= amt;
+        }
+
+        long getBalance() { return balance; }
+    }
+}
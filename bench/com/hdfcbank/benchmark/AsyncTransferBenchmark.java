@@ -0,0 +1,93 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.service.AsyncBankService;
+import com.hdfcbank.service.AsyncBankServiceImpl;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.util.LatencyHistogram;
+import com.hdfcbank.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Fires IN_FLIGHT transfers at once through AsyncBankService (all in flight together, one virtual
+// thread each) and waits for them all; the score is the time per transfer. With storage=journal
+// every transfer also waits for its group-commit fsync. End-to-end completion latency of each
+// transfer is printed per iteration.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncTransferBenchmark {
+    private static final int IN_FLIGHT = 100_000;
+
+    @Param({"memory", "journal"})
+    String storage;
+    @Param("10000")
+    int accounts;
+
+    private Path dir;
+    private BankServiceImpl bank;
+    private AsyncBankService async;
+    private String[] ids;
+    private LatencyHistogram latency;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("async-bench");
+        bank = storage.equals("journal") ? BankServiceImpl.recover(dir.resolve("bank.journal")) : new BankServiceImpl();
+        ids = Fixtures.open(bank, accounts, AccountType.CURRENT, Money.ofRupees(1_000_000));
+        async = new AsyncBankServiceImpl(bank);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetLatency() {
+        latency = new LatencyHistogram();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IN_FLIGHT)
+    public void burst() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[IN_FLIGHT];
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            long submitted = System.nanoTime();
+            int a = rnd.nextInt(accounts);
+            int b = rnd.nextInt(accounts - 1);
+            futures[i] = async.transfer(ids[a], ids[b >= a ? b + 1 : b], 1)
+                    .whenComplete((ok, e) -> latency.record(System.nanoTime() - submitted));
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.println("  " + latency.summary());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        bank.close();
+        Fixtures.delete(dir);
+    }
+}
@@ -0,0 +1,237 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.model.StatementQuery;
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.util.IDGenerator;
+import com.hdfcbank.util.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of every BankService hot path. Everything runs in memory (no journal), so the numbers
+// are about the bank's own code rather than the disk. Thread counts come from JMH (-t), or from
+// BenchmarkRunner, which sweeps them and compares the JSON against a baseline.
+// A 10,000,000-row ledger (-p ledgerSize=10000000) needs roughly 2GB of heap (-jvmArgs -Xmx3g).
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BankServiceBenchmarks {
+    private static final int ACCOUNTS = 1024;
+    private static final int PAGE = 50;
+
+    // Rebuilt every iteration: registerCustomer and createAccount grow it without bound
+    @State(Scope.Benchmark)
+    public static class Fresh {
+        BankServiceImpl bank;
+        String customerId;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            bank = new BankServiceImpl();
+            customerId = bank.registerCustomer("Bench", "bench@example.com", "9876543210", "1990-01-01").getCustomerId();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Accounts {
+        BankServiceImpl bank;
+        String[] ids;
+
+        @Setup
+        public void setUp() {
+            bank = new BankServiceImpl();
+            ids = Fixtures.open(bank, ACCOUNTS);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Postings {
+        BankServiceImpl bank;
+        String[] ids;
+
+        @Setup
+        public void setUp() {
+            bank = new BankServiceImpl();
+            ids = Fixtures.open(bank, ACCOUNTS);
+        }
+    }
+
+    // Every thread moves money within its own pair of accounts: no two threads share a monitor
+    @State(Scope.Thread)
+    public static class OwnPair {
+        String[] ids;
+
+        @Setup
+        public void setUp(Postings shared) {
+            ids = Fixtures.open(shared.bank, 2);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Ledger {
+        @Param({"10000", "1000000"})
+        int ledgerSize;
+        BankServiceImpl bank;
+        String id;
+        String[] cursors;
+
+        // One account whose ledger is filled directly through the store; going through deposit()
+        // would spend most of the setup time on balance updates nobody looks at
+        @Setup
+        public void setUp() {
+            bank = new BankServiceImpl();
+            id = Fixtures.open(bank, 1)[0];
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < ledgerSize; i++) {
+                bank.getStore().append(new Transaction(IDGenerator.nextTxnNumber(), id, TransactionType.DEPOSIT, 1, now));
+            }
+            List<Transaction> all = bank.getTransactions(id);
+            cursors = new String[Math.min(ledgerSize, 4096)];
+            for (int i = 0; i < cursors.length; i++) cursors[i] = all.get((int) ((long) i * ledgerSize / cursors.length)).getTxnId();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Customers {
+        BankServiceImpl bank;
+        String[] ids = new String[ACCOUNTS];
+        String[] emails = new String[ACCOUNTS];
+
+        @Setup
+        public void setUp() {
+            bank = new BankServiceImpl();
+            for (int i = 0; i < ACCOUNTS; i++) {
+                emails[i] = "bench" + i + "@example.com";
+                ids[i] = bank.registerCustomer("Bench", emails[i], "9876543210", "1990-01-01").getCustomerId();
+                bank.createAccount(ids[i], AccountType.SAVINGS, Fixtures.BIG_BALANCE);
+                bank.createAccount(ids[i], AccountType.CURRENT, Fixtures.BIG_BALANCE);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Inputs {
+        String[] accountIds = new String[1024];
+        String[] emails = {"rahul@example.com", "priya.patel@mail.co.in", "not-an-email", "amit_k@bank.org"};
+        String[] phones = {"9876543210", "9123456780", "12345", "6000000000"};
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < accountIds.length; i++) accountIds[i] = "ACC" + (2000 + i);
+        }
+    }
+
+    @Benchmark
+    public String registerCustomer(Fresh f) {
+        return f.bank.registerCustomer("Bench", "bench@example.com", "9876543210", "1990-01-01").getCustomerId();
+    }
+
+    @Benchmark
+    public String createAccount(Fresh f) {
+        return f.bank.createAccount(f.customerId, AccountType.CURRENT, 0).getAccountId();
+    }
+
+    @Benchmark
+    public void deposit(Postings p) {
+        p.bank.deposit(p.ids[ThreadLocalRandom.current().nextInt(ACCOUNTS)], 1);
+    }
+
+    @Benchmark
+    public void withdraw(Postings p) {
+        p.bank.withdraw(p.ids[ThreadLocalRandom.current().nextInt(ACCOUNTS)], 1);
+    }
+
+    @Benchmark
+    public void transferUncontended(Postings p, OwnPair pair) {
+        boolean forward = ThreadLocalRandom.current().nextBoolean();
+        p.bank.transfer(pair.ids[forward ? 0 : 1], pair.ids[forward ? 1 : 0], 1);
+    }
+
+    // Every thread hammers the same two accounts in both directions
+    @Benchmark
+    public void transferHotPair(Postings p) {
+        boolean forward = ThreadLocalRandom.current().nextBoolean();
+        p.bank.transfer(p.ids[forward ? 0 : 1], p.ids[forward ? 1 : 0], 1);
+    }
+
+    @Benchmark
+    public void transferRandom(Postings p) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int a = rnd.nextInt(ACCOUNTS);
+        int b = rnd.nextInt(ACCOUNTS - 1);
+        p.bank.transfer(p.ids[a], p.ids[b >= a ? b + 1 : b], 1);
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactions(Ledger l) {
+        return l.bank.getTransactions(l.id);
+    }
+
+    // A page of PAGE rows ending at a random point in the history
+    @Benchmark
+    public List<Transaction> getTransactionsPage(Ledger l) {
+        return l.bank.getTransactions(l.id, l.cursors[ThreadLocalRandom.current().nextInt(l.cursors.length)], PAGE);
+    }
+
+    // The first PAGE entries of a lazily read statement; cost should not depend on ledgerSize
+    @Benchmark
+    public long statementPage(Ledger l) {
+        return l.bank.statement(l.id, StatementQuery.all()).limit(PAGE).mapToLong(Transaction::getAmount).sum();
+    }
+
+    // One lock-free probe of the store's account map
+    @Benchmark
+    public long getAccount(Accounts a) {
+        return a.bank.getAccount(a.ids[ThreadLocalRandom.current().nextInt(ACCOUNTS)]).getBalance();
+    }
+
+    // What a channel does on login: the customer's accounts from the index
+    @Benchmark
+    public int getCustomerAccounts(Customers c) {
+        return c.bank.getCustomerAccounts(c.ids[ThreadLocalRandom.current().nextInt(ACCOUNTS)]).size();
+    }
+
+    @Benchmark
+    public int findCustomersByEmail(Customers c) {
+        return c.bank.findCustomersByEmail(c.emails[ThreadLocalRandom.current().nextInt(ACCOUNTS)]).size();
+    }
+
+    @Benchmark
+    public String generateTxnId() {
+        return IDGenerator.generateTxnId();
+    }
+
+    @Benchmark
+    public long accountNumber(Inputs in) {
+        return IDGenerator.accountNumber(in.accountIds[ThreadLocalRandom.current().nextInt(in.accountIds.length)]);
+    }
+
+    @Benchmark
+    public boolean isValidEmail(Inputs in) {
+        return Validator.isValidEmail(in.emails[ThreadLocalRandom.current().nextInt(in.emails.length)]);
+    }
+
+    @Benchmark
+    public boolean isValidPhone(Inputs in) {
+        return Validator.isValidPhone(in.phones[ThreadLocalRandom.current().nextInt(in.phones.length)]);
+    }
+}
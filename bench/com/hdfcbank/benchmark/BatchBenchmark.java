@@ -0,0 +1,110 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.model.Instruction;
+import com.hdfcbank.model.InstructionResult;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Posts the same salary/bill-payment style file through a loop of single calls and through
+// submitBatch, in memory and with a journal. Each invocation starts from freshly opened accounts;
+// the score is the time per instruction.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+    private static final int SIZE = 100_000;
+
+    @Param({"memory", "journal"})
+    String storage;
+    @Param("10000")
+    int accounts;
+
+    private Path dir;
+    private BankServiceImpl bank;
+    private List<Instruction> file;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("batch-bench");
+        bank = storage.equals("journal") ? BankServiceImpl.recover(dir.resolve("bank.journal")) : new BankServiceImpl();
+        file = instructions(SIZE, Fixtures.open(bank, accounts, AccountType.SAVINGS, Money.ofRupees(2_000)));
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+        bank.close();
+        Fixtures.delete(dir);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int loop() {
+        int rejected = 0;
+        for (Instruction in : file) {
+            try {
+                switch (in.getType()) {
+                    case DEPOSIT -> bank.deposit(in.getAccountId(), in.getAmount());
+                    case WITHDRAW -> bank.withdraw(in.getAccountId(), in.getAmount());
+                    case TRANSFER -> bank.transfer(in.getAccountId(), in.getCounterpartyId(), in.getAmount());
+                }
+            } catch (RuntimeException e) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int batch() {
+        int rejected = 0;
+        for (InstructionResult r : bank.submitBatch(file)) if (!r.isSuccess()) rejected++;
+        return rejected;
+    }
+
+    // Fixed seed so both modes see the same file: credits, bill debits (some bouncing) and transfers
+    private static List<Instruction> instructions(int size, String[] ids) {
+        Random rnd = new Random(42);
+        List<Instruction> file = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int a = rnd.nextInt(ids.length);
+            String acc = ids[a];
+            long amount = Money.ofRupees(1 + rnd.nextInt(500));
+            switch (rnd.nextInt(3)) {
+                case 0 -> file.add(Instruction.deposit(acc, amount));
+                case 1 -> file.add(Instruction.withdraw(acc, amount));
+                default -> {
+                    int b = rnd.nextInt(ids.length - 1);
+                    file.add(Instruction.transfer(acc, ids[b >= a ? b + 1 : b], amount));
+                }
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,121 @@
+package com.hdfcbank.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Runs the JMH benchmarks matching --include once per thread count and writes every result to one
+// JMH JSON file, so two runs can be diffed. Given --baseline (a JSON file from an earlier run, this
+// runner's or plain java -jar benchmarks.jar -rf json) every result is compared against it, and drops
+// larger than --tolerance percent that are also outside both error bars are reported as
+// regressions; the exit status is 1 if any are found.
+// Usage: java -cp benchmarks.jar com.hdfcbank.benchmark.BenchmarkRunner [--include BankServiceBenchmarks]
+//            [--threads 1,4,16] [--json bank-benchmarks.json] [--baseline file] [--tolerance 10]
+//            [--param name=v1,v2 ...]
+public class BenchmarkRunner {
+    private static final Pattern BENCHMARK = Pattern.compile("\"benchmark\" : \"([^\"]+)\"");
+    private static final Pattern THREADS = Pattern.compile("\"threads\" : (\\d+)");
+    private static final Pattern PARAMS = Pattern.compile("\"params\" : \\{([^}]*)}");
+    private static final Pattern PARAM = Pattern.compile("\"([^\"]+)\" : \"([^\"]*)\"");
+    private static final Pattern SCORE = Pattern.compile(
+            "\"primaryMetric\" : \\{\\s*\"score\" : ([^,\\s]+),\\s*\"scoreError\" : ([^,\\s]+),");
+
+    public static void main(String[] args) throws Exception {
+        String include = BankServiceBenchmarks.class.getSimpleName();
+        List<Integer> threadCounts = List.of(1, 4, 16);
+        Path json = Path.of("bank-benchmarks.json");
+        Path baseline = null;
+        double tolerance = 10;
+        Map<String, String[]> params = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--include" -> include = args[i + 1];
+                case "--threads" -> threadCounts = parseInts(args[i + 1]);
+                case "--json" -> json = Path.of(args[i + 1]);
+                case "--baseline" -> baseline = Path.of(args[i + 1]);
+                case "--tolerance" -> tolerance = Double.parseDouble(args[i + 1]);
+                case "--param" -> {
+                    String[] kv = args[i + 1].split("=", 2);
+                    params.put(kv[0], kv[1].split(","));
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        List<RunResult> results = new ArrayList<>();
+        for (int threads : threadCounts) {
+            ChainedOptionsBuilder options = new OptionsBuilder().include(include).threads(threads).shouldFailOnError(true);
+            params.forEach(options::param);
+            results.addAll(new Runner(options.build()).run());
+        }
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, json.toString()).writeOut(results);
+        System.out.println("Results written to " + json.toAbsolutePath());
+        if (baseline != null && regressions(results, Files.readString(baseline), tolerance) > 0) System.exit(1);
+    }
+
+    private static int regressions(List<RunResult> results, String baselineJson, double tolerance) {
+        Map<String, double[]> baseline = readScores(baselineJson);
+        int regressions = 0;
+        System.out.printf("%nAgainst baseline (tolerance %.1f%%):%n", tolerance);
+        for (RunResult r : results) {
+            Map<String, String> params = new TreeMap<>();
+            for (String k : r.getParams().getParamsKeys()) params.put(k, r.getParams().getParam(k));
+            String key = key(r.getParams().getBenchmark(), params, r.getParams().getThreads());
+            double[] base = baseline.get(key);
+            if (base == null) continue;
+            double score = r.getPrimaryResult().getScore();
+            double error = r.getPrimaryResult().getScoreError();
+            if (Double.isNaN(error)) error = 0;
+            double change = 100 * (score / base[0] - 1);
+            boolean regressed = change < -tolerance && score + error < base[0] - base[1];
+            if (regressed) regressions++;
+            System.out.printf("%-100s %+8.1f%%%s%n", key, change, regressed ? "  REGRESSION" : "");
+        }
+        System.out.println(regressions + " regression(s)");
+        return regressions;
+    }
+
+    // Benchmark key -> {score, error} from a JMH JSON result file
+    static Map<String, double[]> readScores(String json) {
+        Map<String, double[]> scores = new LinkedHashMap<>();
+        for (String entry : json.split("\"jmhVersion\"")) {
+            Matcher name = BENCHMARK.matcher(entry);
+            Matcher threads = THREADS.matcher(entry);
+            Matcher score = SCORE.matcher(entry);
+            if (!name.find() || !threads.find() || !score.find()) continue;
+            Map<String, String> params = new TreeMap<>();
+            Matcher block = PARAMS.matcher(entry);
+            if (block.find()) {
+                Matcher p = PARAM.matcher(block.group(1));
+                while (p.find()) params.put(p.group(1), p.group(2));
+            }
+            double error = score.group(2).startsWith("\"") ? 0 : Double.parseDouble(score.group(2));
+            scores.put(key(name.group(1), params, Integer.parseInt(threads.group(1))),
+                    new double[] {Double.parseDouble(score.group(1)), error});
+        }
+        return scores;
+    }
+
+    private static String key(String benchmark, Map<String, String> params, int threads) {
+        return benchmark + (params.isEmpty() ? "" : " " + params) + " threads=" + threads;
+    }
+
+    private static List<Integer> parseInts(String csv) {
+        List<Integer> values = new ArrayList<>();
+        for (String s : csv.split(",")) values.add(Integer.parseInt(s.trim()));
+        return values;
+    }
+}
@@ -0,0 +1,111 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.service.CustomerImport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Imports a generated onboarding CSV with a known share of bad rows into an empty bank, in memory or
+// journaled; the score is the time per import (rows/sec = rows / score). Run with -prof gc for the
+// allocation the pipeline needs. 10,000,000 rows (-p rows=10000000) produce a ~700MB file and need
+// roughly -Xmx8g for the customers themselves; the pipeline's own buffers stay at 2 * parallelism
+// chunks of 4MB.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BulkImportBenchmark {
+    static final int BAD_EVERY = 97;
+
+    @Param("1000000")
+    int rows;
+    @Param({"memory", "journal"})
+    String storage;
+    @Param("0") // 0: one worker per core
+    int parallelism;
+
+    private Path dir;
+    private Path csv;
+    private BankServiceImpl bank;
+
+    @Setup
+    public void generate() throws IOException {
+        dir = Files.createTempDirectory("import-bench");
+        csv = dir.resolve("customers.csv");
+        generate(csv, rows);
+    }
+
+    @Setup(Level.Invocation)
+    public void openBank() throws IOException {
+        Files.deleteIfExists(dir.resolve("bank.journal"));
+        bank = storage.equals("journal") ? BankServiceImpl.recover(dir.resolve("bank.journal")) : new BankServiceImpl();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeBank() throws IOException {
+        bank.close();
+        bank = null;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Fixtures.delete(dir);
+    }
+
+    @Benchmark
+    public CustomerImport.Summary importFile() throws IOException {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new CustomerImport(bank, workers).run(csv, dir.resolve("rejects.csv"));
+    }
+
+    // Every BAD_EVERY-th row has one of several defects; good rows open an account with ₹1000.
+    // Returns the number of bad rows.
+    static long generate(Path csv, int rows) throws IOException {
+        Random rnd = new Random(1);
+        long bad = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(csv)) {
+            out.write(CustomerImport.HEADER);
+            out.write('\n');
+            for (int i = 0; i < rows; i++) {
+                String name = i % 10 == 0 ? "\"Kumar, Amit " + i + "\"" : "Customer " + i;
+                String email = "customer" + i + "@example.com";
+                String phone = "9" + String.format("%09d", rnd.nextInt(1_000_000_000));
+                String dob = String.format("%04d-%02d-%02d", 1950 + rnd.nextInt(50), 1 + rnd.nextInt(12), 1 + rnd.nextInt(28));
+                String type = (i & 1) == 0 ? "SAVINGS" : "current";
+                String balance = "1000.00";
+                if (i % BAD_EVERY == 0) {
+                    bad++;
+                    switch (i / BAD_EVERY % 4) {
+                        case 0 -> email = "customer" + i + "@example";
+                        case 1 -> phone = "12345";
+                        case 2 -> dob = "1990-02-30";
+                        default -> type = "FIXED";
+                    }
+                }
+                out.write(String.join(",", name, email, phone, dob, type, balance));
+                out.write('\n');
+            }
+        }
+        return bad;
+    }
+}
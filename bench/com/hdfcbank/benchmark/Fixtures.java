@@ -0,0 +1,54 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.util.IDGenerator;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+// Setup shared by the benchmark states: banks and accounts to run against, temp directories for
+// journaled runs and heap readings for the footprint reports
+final class Fixtures {
+    static final long BIG_BALANCE = 1_000_000_000_000L; // enough that no withdrawal ever bounces
+
+    private Fixtures() {
+    }
+
+    // n accounts with 'balance' each, every one with its own customer
+    static String[] open(BankServiceImpl bank, int n, AccountType type, long balance) {
+        String[] ids = new String[n];
+        for (int i = 0; i < n; i++) {
+            Customer c = bank.registerCustomer("Bench " + i, "bench" + i + "@example.com", "9876543210", "1990-01-01");
+            ids[i] = bank.createAccount(c.getCustomerId(), type, balance).getAccountId();
+        }
+        return ids;
+    }
+
+    static String[] open(BankServiceImpl bank, int n) {
+        return open(bank, n, AccountType.CURRENT, BIG_BALANCE);
+    }
+
+    // A customer that lives in no bank, for accounts built directly
+    static Customer detachedCustomer() {
+        return new Customer(IDGenerator.generateCustomerId(), "Bench", "bench@example.com", "9876543210",
+                LocalDate.of(1990, 1, 1));
+    }
+
+    static long settledHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    static void delete(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) return;
+        try (var files = Files.list(dir)) {
+            for (Path p : files.toList()) Files.delete(p);
+        }
+        Files.delete(dir);
+    }
+}
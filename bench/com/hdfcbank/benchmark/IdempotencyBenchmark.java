@@ -0,0 +1,83 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.model.Receipt;
+import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.store.BankStore;
+import com.hdfcbank.store.IdempotencyCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cost of idempotency keys on the transfer path, in memory, with the cache holding millions of
+// keys: plain transfers, keyed transfers with fresh keys (the cache is full, so each one also
+// evicts) and replays of known keys. The heap each cached key costs is printed after setup.
+// 4,000,000 keys need roughly 1.5GB of heap.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class IdempotencyBenchmark {
+    private static final int ACCOUNTS = 1024;
+
+    @Param({"1000000", "4000000"})
+    int keys;
+
+    private BankServiceImpl bank;
+    private String[] ids;
+    private final AtomicLong nextKey = new AtomicLong();
+
+    // A bank whose cache is full of 'keys' seeded transfer keys, seed-k for the k-th account pair
+    @Setup
+    public void setUp() {
+        long heapBefore = Fixtures.settledHeap();
+        BankStore store = new BankStore();
+        store.configureIdempotency(keys, Duration.ofHours(24));
+        bank = new BankServiceImpl(store);
+        ids = Fixtures.open(bank, ACCOUNTS);
+        IdempotencyCache cache = store.idempotency();
+        long now = System.currentTimeMillis();
+        LocalDateTime postedAt = LocalDateTime.now();
+        for (int k = 0; k < keys; k++) {
+            cache.restore("seed-" + k, new Receipt("TXN" + k, TransactionType.TRANSFER, ids[k % ACCOUNTS],
+                    ids[(k + 1) % ACCOUNTS], 1, postedAt, false), now);
+        }
+        System.out.printf("%n%,d cached keys: %.0f heap bytes per key%n", cache.size(),
+                (double) (Fixtures.settledHeap() - heapBefore) / keys);
+    }
+
+    @Benchmark
+    public void plain() {
+        int a = ThreadLocalRandom.current().nextInt(ACCOUNTS);
+        bank.transfer(ids[a], ids[(a + 1) % ACCOUNTS], 1);
+    }
+
+    @Benchmark
+    public Receipt freshKey() {
+        int a = ThreadLocalRandom.current().nextInt(ACCOUNTS);
+        return bank.transfer(ids[a], ids[(a + 1) % ACCOUNTS], 1, "run-" + nextKey.getAndIncrement());
+    }
+
+    // The newer half of the seeded keys, which fresh keys have not evicted yet
+    @Benchmark
+    public Receipt replay() {
+        int k = keys - 1 - ThreadLocalRandom.current().nextInt(keys / 2);
+        return bank.transfer(ids[k % ACCOUNTS], ids[(k + 1) % ACCOUNTS], 1, "seed-" + k);
+    }
+}
@@ -0,0 +1,59 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.service.BankService;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.service.InstrumentedBankService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// In-memory transfer throughput of a bare BankServiceImpl against the same bank wrapped in
+// InstrumentedBankService. Several forks per side keep JIT and GC drift from favouring either;
+// the instrumented run prints its metrics at the end.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+@State(Scope.Benchmark)
+public class InstrumentationOverheadBenchmark {
+    @Param({"plain", "instrumented"})
+    String service;
+    @Param("1024")
+    int accounts;
+
+    private BankService bank;
+    private String[] ids;
+
+    @Setup
+    public void setUp() {
+        BankServiceImpl plain = new BankServiceImpl();
+        ids = Fixtures.open(plain, accounts);
+        bank = service.equals("instrumented") ? new InstrumentedBankService(plain) : plain;
+    }
+
+    @TearDown
+    public void report() {
+        if (bank instanceof InstrumentedBankService instrumented) System.out.println(instrumented.getMetrics().snapshot().format());
+    }
+
+    @Benchmark
+    public void transfer() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int a = rnd.nextInt(accounts);
+        int b = rnd.nextInt(accounts - 1);
+        bank.transfer(ids[a], ids[b >= a ? b + 1 : b], 1);
+    }
+}
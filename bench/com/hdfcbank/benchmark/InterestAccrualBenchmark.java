@@ -0,0 +1,108 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.InterestRun;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.store.BankStore;
+import com.hdfcbank.util.IDGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.YearMonth;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Month-end interest over a large book: how long a pass takes on its own, and in the underLoad
+// group, what it costs transfer traffic running at the same time (compare the group's transfer
+// score with transfer alone). Every pass accrues the month after the previous one, so each one
+// credits every account. 10,000,000 accounts (-p accounts=10000000) need about 4GB of heap.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 4)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class InterestAccrualBenchmark {
+    private static final YearMonth FIRST = YearMonth.of(2024, 1);
+
+    @Param("1000000")
+    int accounts;
+    @Param("0") // 0: one worker per core
+    int parallelism;
+
+    private BankServiceImpl bank;
+    private String[] ids;
+    private final AtomicInteger months = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        bank = new BankServiceImpl();
+        ids = populate(bank.getStore(), accounts);
+    }
+
+    @Benchmark
+    public InterestRun accrue() {
+        return accrueNextMonth();
+    }
+
+    @Benchmark
+    public void transfer() {
+        transferOnce();
+    }
+
+    @Benchmark
+    @Group("underLoad")
+    @GroupThreads(1)
+    public InterestRun underLoadAccrue() {
+        return accrueNextMonth();
+    }
+
+    @Benchmark
+    @Group("underLoad")
+    @GroupThreads(3)
+    public void underLoadTransfer() {
+        transferOnce();
+    }
+
+    private InterestRun accrueNextMonth() {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return bank.accrueInterest(FIRST.plusMonths(months.getAndIncrement()), workers);
+    }
+
+    private void transferOnce() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int a = rnd.nextInt(ids.length);
+        int b = rnd.nextInt(ids.length - 1);
+        bank.transfer(ids[a], ids[b >= a ? b + 1 : b], 1);
+    }
+
+    // Accounts go straight into the store; building them through createAccount would spend the
+    // setup time on records nobody looks at. Half savings, half current.
+    private static String[] populate(BankStore store, int n) {
+        Customer c = Fixtures.detachedCustomer();
+        store.addCustomer(c);
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String[] ids = new String[n];
+        for (int i = 0; i < n; i++) {
+            AccountType type = (i & 1) == 0 ? AccountType.SAVINGS : AccountType.CURRENT;
+            Account acc = Account.of(IDGenerator.generateAccountId(), c, type, 1_000_000 + rnd.nextLong(100_000_000));
+            store.addAccount(acc);
+            ids[i] = acc.getAccountId();
+        }
+        return ids;
+    }
+}
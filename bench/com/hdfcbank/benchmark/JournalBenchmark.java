@@ -0,0 +1,112 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.model.Instruction;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Durable deposit throughput with group commit (many threads, so each fsync covers many records;
+// the syncs it took are printed at the end), and how long a restart takes to replay a journal of
+// 'postings' deposits.
+@Fork(1)
+public class JournalBenchmark {
+    @State(Scope.Benchmark)
+    public static class Journaled {
+        @Param("1000")
+        int accounts;
+        Path dir;
+        BankServiceImpl bank;
+        String[] ids;
+        long syncsBefore;
+
+        @Setup
+        public void setUp() throws IOException {
+            dir = Files.createTempDirectory("journal-bench");
+            bank = BankServiceImpl.recover(dir.resolve("bank.journal"));
+            ids = Fixtures.open(bank, accounts, AccountType.CURRENT, Money.ofRupees(100));
+            syncsBefore = bank.getJournal().syncCount();
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            long postings = bank.getStore().transactionCount();
+            System.out.printf("%n%,d durable deposits took %,d fsyncs%n", postings, bank.getJournal().syncCount() - syncsBefore);
+            bank.close();
+            Fixtures.delete(dir);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Written {
+        @Param("1000000")
+        int postings;
+        Path dir;
+        Path journal;
+
+        @Setup
+        public void setUp() throws IOException {
+            dir = Files.createTempDirectory("journal-bench");
+            journal = dir.resolve("bank.journal");
+            try (BankServiceImpl bank = BankServiceImpl.recover(journal)) {
+                String[] ids = Fixtures.open(bank, 1000, AccountType.CURRENT, Money.ofRupees(100));
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                // In batches, which wait for one fsync each rather than one per deposit
+                List<Instruction> batch = new ArrayList<>();
+                for (int i = 0; i < postings; i++) {
+                    batch.add(Instruction.deposit(ids[rnd.nextInt(ids.length)], 1));
+                    if (batch.size() == 10_000 || i == postings - 1) {
+                        bank.submitBatch(batch);
+                        batch.clear();
+                    }
+                }
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            Fixtures.delete(dir);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 2, time = 1)
+    @Measurement(iterations = 5, time = 2)
+    @Threads(64)
+    public void durableDeposit(Journaled j) {
+        j.bank.deposit(j.ids[ThreadLocalRandom.current().nextInt(j.accounts)], 1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public long recover(Written w) throws IOException {
+        try (BankServiceImpl recovered = BankServiceImpl.recover(w.journal)) {
+            return recovered.getStore().transactionCount();
+        }
+    }
+}
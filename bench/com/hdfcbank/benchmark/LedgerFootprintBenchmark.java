@@ -0,0 +1,122 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.store.AccountLedger;
+import com.hdfcbank.store.BankStore;
+import com.hdfcbank.util.IDGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// The columnar off-heap ledger next to the same rows kept as Transaction objects (what the ledger
+// used to hold): heap and off-heap bytes per row and the full GC time with each history resident
+// are printed after setup; the scores are a full scan of every account and a latest(50) page.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class LedgerFootprintBenchmark {
+    private static final int PAGE = 50;
+
+    @Param({"columnar", "objects"})
+    String layout;
+    @Param("1000000")
+    int rows;
+    @Param("1000")
+    int accounts;
+
+    private BankStore store;
+    private String[] ids;
+    private List<List<Transaction>> objects;
+
+    @Setup
+    public void setUp() {
+        long heapBefore = Fixtures.settledHeap();
+        long directBefore = directBytes();
+        store = new BankStore();
+        Customer c = Fixtures.detachedCustomer();
+        store.addCustomer(c);
+        ids = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            Account acc = Account.of(IDGenerator.generateAccountId(), c, AccountType.CURRENT, 0);
+            store.addAccount(acc);
+            ids[i] = acc.getAccountId();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (layout.equals("columnar")) {
+            for (int i = 0; i < rows; i++) {
+                store.append(new Transaction(IDGenerator.nextTxnNumber(), ids[i % accounts], TransactionType.DEPOSIT, i, now));
+            }
+        } else {
+            objects = new ArrayList<>(accounts);
+            for (int i = 0; i < accounts; i++) objects.add(new ArrayList<>());
+            for (int i = 0; i < rows; i++) {
+                objects.get(i % accounts).add(new Transaction(IDGenerator.nextTxnNumber(), ids[i % accounts],
+                        TransactionType.DEPOSIT, i, LocalDateTime.now()));
+            }
+        }
+        long heap = Fixtures.settledHeap() - heapBefore;
+        long direct = directBytes() - directBefore;
+        long start = System.nanoTime();
+        System.gc();
+        long gcMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%n%s: %.1f heap B/row, %.1f off-heap B/row, full GC %dms%n", layout, (double) heap / rows,
+                (double) direct / rows, gcMillis);
+    }
+
+    @Benchmark
+    public long scanAll() {
+        long total = 0;
+        if (objects != null) {
+            for (List<Transaction> ledger : objects) {
+                for (Transaction txn : ledger) total += txn.getAmount();
+            }
+            return total;
+        }
+        long[] sum = new long[1];
+        for (String id : ids) {
+            AccountLedger ledger = store.getLedger(id);
+            ledger.scan(0, ledger.size(), (txn, type, amount, time) -> sum[0] += amount);
+        }
+        return sum[0];
+    }
+
+    @Benchmark
+    public List<Transaction> latestPage() {
+        int i = ThreadLocalRandom.current().nextInt(accounts);
+        if (objects != null) {
+            List<Transaction> ledger = objects.get(i);
+            return new ArrayList<>(ledger.subList(Math.max(0, ledger.size() - PAGE), ledger.size()));
+        }
+        return store.getLedger(ids[i]).latest(PAGE);
+    }
+
+    private static long directBytes() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) return pool.getMemoryUsed();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+// A deposit/withdraw/interest loop on long paise, double rupees and BigDecimal rupees: time per op
+// (and with -prof gc, bytes allocated per op). Each returns the final balance, so the drift of
+// double from the exact result can be read off a single call.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+    private static final int OPS = 100_000;
+
+    // Every op deposits 0.10, withdraws 0.07 and every 1000th op credits 4.5% interest on 0.03
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public long paise() {
+        long balance = Money.ofRupees(1000);
+        for (int i = 0; i < OPS; i++) {
+            balance += 10;
+            balance -= 7;
+            if (i % 1000 == 0) balance += Money.percentOf(3, 450);
+        }
+        return balance;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public double rupeesDouble() {
+        double balance = 1000;
+        for (int i = 0; i < OPS; i++) {
+            balance += 0.10;
+            balance -= 0.07;
+            if (i % 1000 == 0) balance += Math.round(0.03 * 0.045 * 100) / 100.0;
+        }
+        return balance;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public BigDecimal rupeesBigDecimal() {
+        BigDecimal deposit = new BigDecimal("0.10");
+        BigDecimal withdrawal = new BigDecimal("0.07");
+        BigDecimal rate = new BigDecimal("0.045");
+        BigDecimal balance = new BigDecimal("1000.00");
+        for (int i = 0; i < OPS; i++) {
+            balance = balance.add(deposit).subtract(withdrawal);
+            if (i % 1000 == 0) balance = balance.add(new BigDecimal("0.03").multiply(rate).setScale(2, RoundingMode.HALF_UP));
+        }
+        return balance;
+    }
+}
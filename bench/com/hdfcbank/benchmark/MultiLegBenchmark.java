@@ -0,0 +1,85 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.model.Leg;
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.service.BankServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// In-memory throughput of 2-, 4- and 8-leg postings (half debits, half credits, over distinct
+// random accounts) next to plain transfers, on a small hot set of accounts and on a large
+// spread-out one. Scores are postings/sec.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiLegBenchmark {
+    @State(Scope.Benchmark)
+    public static class Bank {
+        @Param({"16", "4096"})
+        int accounts;
+        BankServiceImpl bank;
+        String[] ids;
+
+        @Setup
+        public void setUp() {
+            bank = new BankServiceImpl();
+            ids = Fixtures.open(bank, accounts);
+        }
+    }
+
+    // Each thread shuffles its own copy of the account indexes to draw distinct accounts
+    @State(Scope.Thread)
+    public static class Picks {
+        @Param({"2", "4", "8"})
+        int legs;
+        int[] pick;
+
+        @Setup
+        public void setUp(Bank b) {
+            pick = new int[b.accounts];
+            for (int i = 0; i < pick.length; i++) pick[i] = i;
+        }
+    }
+
+    @Benchmark
+    public void transfer(Bank b) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int a = rnd.nextInt(b.accounts);
+        int c = rnd.nextInt(b.accounts - 1);
+        b.bank.transfer(b.ids[a], b.ids[c >= a ? c + 1 : c], 1);
+    }
+
+    @Benchmark
+    public List<Transaction> post(Bank b, Picks p) {
+        return b.bank.post(balancedLegs(b.ids, p.pick, p.legs, ThreadLocalRandom.current()));
+    }
+
+    // Half the legs debit 1 paisa, half credit 1, over distinct accounts drawn by a partial shuffle
+    private static List<Leg> balancedLegs(String[] ids, int[] pick, int legs, ThreadLocalRandom rnd) {
+        List<Leg> list = new ArrayList<>(legs);
+        for (int i = 0; i < legs; i++) {
+            int j = i + rnd.nextInt(pick.length - i);
+            int tmp = pick[i];
+            pick[i] = pick[j];
+            pick[j] = tmp;
+            list.add(i < legs / 2 ? Leg.debit(ids[pick[i]], 1) : Leg.credit(ids[pick[i]], 1));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,163 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.exception.InsufficientBalanceException;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.net.BankClient;
+import com.hdfcbank.net.BankServer;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.util.LatencyHistogram;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Drives a BankServer over localhost with a mix of deposits, withdrawals, transfers and statement
+// pages, keeping 'depth' requests outstanding on each of 'connections' connections, and reports
+// ops/sec and round-trip latency percentiles. Without --port it starts its own server in-process
+// on a free port: in memory with requests run inline, or journaled with --journal. Each op's
+// latency runs from handing the request to the client until its response is parsed, so it
+// includes queueing in the pipeline.
+// Usage: NetworkLoadGenerator [--host localhost] [--port p] [--connections 8] [--depth 32]
+//                             [--accounts 1000] [--warmup 2] [--seconds 10] [--journal file]
+public class NetworkLoadGenerator {
+    private static final long OPENING_BALANCE = 1_000_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        String host = "localhost";
+        int port = -1;
+        int connections = 8;
+        int depth = 32;
+        int numAccounts = 1000;
+        double warmup = 2;
+        double seconds = 10;
+        Path journal = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--host" -> host = args[i + 1];
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                case "--connections" -> connections = Integer.parseInt(args[i + 1]);
+                case "--depth" -> depth = Integer.parseInt(args[i + 1]);
+                case "--accounts" -> numAccounts = Integer.parseInt(args[i + 1]);
+                case "--warmup" -> warmup = Double.parseDouble(args[i + 1]);
+                case "--seconds" -> seconds = Double.parseDouble(args[i + 1]);
+                case "--journal" -> journal = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        BankServiceImpl embedded = null;
+        BankServer server = null;
+        if (port < 0) {
+            if (journal != null) Files.deleteIfExists(journal);
+            embedded = journal == null ? new BankServiceImpl() : BankServiceImpl.recover(journal);
+            server = BankServer.start(embedded, 0, journal == null);
+            port = server.port();
+            System.out.println("Started in-process server on port " + port + (journal == null ? " (in memory)" : " journaling to " + journal));
+        }
+
+        List<BankClient> clients = new ArrayList<>();
+        for (int i = 0; i < connections; i++) clients.add(BankClient.connect(host, port));
+        String[] accounts = openAccounts(clients.get(0), numAccounts);
+        System.out.printf("Opened %,d accounts; %d connection(s) x %d in flight, %.0fs warm-up + %.0fs measured%n",
+                numAccounts, connections, depth, warmup, seconds);
+
+        Load load = new Load(accounts);
+        load.run(clients, depth, warmup);
+        load.reset();
+        long start = System.nanoTime();
+        load.run(clients, depth, seconds);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long ops = load.latency.getCount();
+        System.out.printf("%,d ops in %.1fs: %,.0f ops/sec (%,d bounced for insufficient balance, %,d failed)%n",
+                ops, elapsed, ops / elapsed, load.bounced.sum(), load.failed.sum());
+        System.out.println("round trip: " + load.latency.summary());
+        System.out.printf("p90=%.1fus p99.99=%.1fus%n", load.latency.valueAtPercentile(90) / 1e3,
+                load.latency.valueAtPercentile(99.99) / 1e3);
+
+        for (BankClient c : clients) c.close();
+        if (server != null) {
+            server.close();
+            embedded.close();
+        }
+        if (load.failed.sum() > 0) System.exit(1);
+    }
+
+    private static String[] openAccounts(BankClient client, int n) {
+        List<CompletableFuture<String>> opened = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            AccountType type = i % 2 == 0 ? AccountType.SAVINGS : AccountType.CURRENT;
+            opened.add(client.registerCustomer("Load " + i, "load" + i + "@example.com", "9876543210", "1990-01-01")
+                    .thenCompose(customerId -> client.createAccount(customerId, type, OPENING_BALANCE)));
+        }
+        String[] ids = new String[n];
+        for (int i = 0; i < n; i++) ids[i] = opened.get(i).join();
+        return ids;
+    }
+
+    private static final class Load {
+        final String[] accounts;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder bounced = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        volatile long deadline;
+
+        Load(String[] accounts) {
+            this.accounts = accounts;
+        }
+
+        void reset() {
+            latency.reset();
+            bounced.reset();
+            failed.reset();
+        }
+
+        void run(List<BankClient> clients, int depth, double seconds) throws InterruptedException {
+            deadline = System.nanoTime() + (long) (seconds * 1e9);
+            CountDownLatch done = new CountDownLatch(clients.size() * depth);
+            for (BankClient client : clients) {
+                for (int i = 0; i < depth; i++) next(client, done);
+            }
+            done.await();
+        }
+
+        // Issues one op and, when it completes, the next, until the deadline: a closed loop per slot
+        private void next(BankClient client, CountDownLatch done) {
+            if (System.nanoTime() >= deadline) {
+                done.countDown();
+                return;
+            }
+            long start = System.nanoTime();
+            issue(client, ThreadLocalRandom.current()).whenComplete((v, e) -> {
+                latency.record(System.nanoTime() - start);
+                if (e != null) {
+                    if (e.getCause() instanceof InsufficientBalanceException) bounced.increment();
+                    else if (failed.sum() == 0) {
+                        failed.increment();
+                        System.out.println("request failed: " + e.getCause());
+                    } else failed.increment();
+                }
+                next(client, done);
+            });
+        }
+
+        // 40% deposits, 30% withdrawals, 25% transfers, 5% statement pages
+        private CompletableFuture<?> issue(BankClient client, ThreadLocalRandom rnd) {
+            String acc = accounts[rnd.nextInt(accounts.length)];
+            int pick = rnd.nextInt(100);
+            if (pick < 40) return client.deposit(acc, 1 + rnd.nextInt(10_000));
+            if (pick < 70) return client.withdraw(acc, 1 + rnd.nextInt(10_000));
+            if (pick < 95) {
+                String to = accounts[rnd.nextInt(accounts.length)];
+                if (to.equals(acc)) return client.deposit(acc, 1);
+                return client.transfer(acc, to, 1 + rnd.nextInt(10_000));
+            }
+            return client.getTransactions(acc, null, 20);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.service.ShardedBankEngine;
+import com.hdfcbank.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Deposit/withdraw throughput of the sharded engine at 1 to 16 shards, each benchmark thread a
+// producer keeping a window of WINDOW requests in flight, and random-pair transfers (mostly
+// cross-shard, two-phase). Run with as many threads as shards (-t) to keep every shard fed.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShardScalingBenchmark {
+    private static final int WINDOW = 1024;
+
+    @Param({"1", "2", "4", "8", "16"})
+    int shards;
+    @Param("100000")
+    int accounts;
+
+    private String[] ids;
+    private ShardedBankEngine engine;
+
+    @Setup
+    public void setUp() {
+        BankServiceImpl bank = new BankServiceImpl();
+        ids = Fixtures.open(bank, accounts, AccountType.CURRENT, Money.ofRupees(1_000_000));
+        engine = new ShardedBankEngine(bank, shards);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WINDOW)
+    public void depositWithdraw() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        CompletableFuture<?>[] window = new CompletableFuture<?>[WINDOW];
+        for (int i = 0; i < WINDOW; i++) {
+            String acc = ids[rnd.nextInt(accounts)];
+            window[i] = (i & 1) == 0 ? engine.deposit(acc, 1) : engine.withdraw(acc, 1);
+        }
+        CompletableFuture.allOf(window).join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WINDOW)
+    public void transfer() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        CompletableFuture<?>[] window = new CompletableFuture<?>[WINDOW];
+        for (int i = 0; i < WINDOW; i++) {
+            int a = rnd.nextInt(accounts);
+            int b = rnd.nextInt(accounts - 1);
+            window[i] = engine.transfer(ids[a], ids[b >= a ? b + 1 : b], 1);
+        }
+        CompletableFuture.allOf(window).join();
+    }
+}
@@ -0,0 +1,137 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.model.Instruction;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Fuzzy snapshots taken while transfer traffic keeps running (the underLoad group scores both), and
+// startup time of a full journal replay against snapshot load + tail replay of the same history.
+@Fork(1)
+public class SnapshotBenchmark {
+    @State(Scope.Group)
+    public static class Live {
+        @Param("10000")
+        int accounts;
+        Path dir;
+        Path snapshot;
+        BankServiceImpl bank;
+        String[] ids;
+
+        @Setup
+        public void setUp() throws IOException {
+            dir = Files.createTempDirectory("snapshot-bench");
+            snapshot = dir.resolve("bank.snapshot");
+            bank = BankServiceImpl.recover(dir.resolve("bank.journal"), snapshot);
+            ids = Fixtures.open(bank, accounts, AccountType.CURRENT, Money.ofRupees(10_000));
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            bank.close();
+            Fixtures.delete(dir);
+        }
+    }
+
+    // A journal of 'postings' transfers; for snapshot startup a snapshot is taken halfway through,
+    // which rolls the journal back to its second half
+    @State(Scope.Benchmark)
+    public static class Written {
+        @Param("10000")
+        int accounts;
+        @Param("1000000")
+        int postings;
+        @Param({"full", "snapshot"})
+        String startup;
+        Path dir;
+        Path journal;
+        Path snapshot;
+
+        @Setup
+        public void setUp() throws IOException {
+            dir = Files.createTempDirectory("snapshot-bench");
+            journal = dir.resolve("bank.journal");
+            snapshot = dir.resolve("bank.snapshot");
+            try (BankServiceImpl bank = BankServiceImpl.recover(journal, snapshot)) {
+                String[] ids = Fixtures.open(bank, accounts, AccountType.CURRENT, Money.ofRupees(10_000));
+                Random rnd = new Random(7);
+                List<Instruction> batch = new ArrayList<>();
+                for (int i = 0; i < postings; i++) {
+                    int a = rnd.nextInt(accounts);
+                    int b = rnd.nextInt(accounts - 1);
+                    batch.add(Instruction.transfer(ids[a], ids[b >= a ? b + 1 : b], 1));
+                    if (batch.size() == 10_000 || i == postings - 1) {
+                        bank.submitBatch(batch);
+                        batch.clear();
+                    }
+                    if (i == postings / 2 && startup.equals("snapshot")) bank.snapshot(snapshot);
+                }
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            Fixtures.delete(dir);
+        }
+    }
+
+    @Benchmark
+    @Group("underLoad")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 2, time = 1)
+    @Measurement(iterations = 5, time = 2)
+    public long snapshot(Live live) throws IOException {
+        return live.bank.snapshot(live.snapshot);
+    }
+
+    @Benchmark
+    @Group("underLoad")
+    @GroupThreads(3)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 2, time = 1)
+    @Measurement(iterations = 5, time = 2)
+    public void transfer(Live live) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int a = rnd.nextInt(live.accounts);
+        int b = rnd.nextInt(live.accounts - 1);
+        live.bank.transfer(live.ids[a], live.ids[b >= a ? b + 1 : b], 1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public long recover(Written w) throws IOException {
+        try (BankServiceImpl bank = w.startup.equals("full") ? BankServiceImpl.recover(w.journal)
+                : BankServiceImpl.recover(w.journal, w.snapshot)) {
+            return bank.getStore().transactionCount();
+        }
+    }
+}
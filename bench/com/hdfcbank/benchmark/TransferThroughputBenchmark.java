@@ -0,0 +1,48 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.service.BankServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Transfers/sec with every thread moving money between random pairs of a few accounts, so
+// opposite-direction transfers on the same pair are common. Sweep the thread count with
+// BenchmarkRunner --include TransferThroughputBenchmark --threads 1,2,4,8,16,32,64,128.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransferThroughputBenchmark {
+    @Param("16")
+    int accounts;
+
+    private BankServiceImpl bank;
+    private String[] ids;
+
+    @Setup
+    public void setUp() {
+        bank = new BankServiceImpl();
+        ids = Fixtures.open(bank, accounts);
+    }
+
+    @Benchmark
+    public void transfer() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int a = rnd.nextInt(accounts);
+        int b = rnd.nextInt(accounts - 1);
+        bank.transfer(ids[a], ids[b >= a ? b + 1 : b], 1);
+    }
+}
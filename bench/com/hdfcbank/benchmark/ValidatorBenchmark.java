@@ -0,0 +1,135 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.model.CustomerApplication;
+import com.hdfcbank.util.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Validator's scanners against the regex implementation they replaced: String.matches() (a Pattern
+// compiled per call), a precompiled Pattern and the scanners, per field, per whole record, and
+// validateAll over an onboarding batch (scored per record). ValidatorTest checks both classify
+// every input alike.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidatorBenchmark {
+    private static final String EMAIL_REGEX = "^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$";
+    private static final String PHONE_REGEX = "^[6-9]\\d{9}$";
+    private static final Pattern EMAIL = Pattern.compile(EMAIL_REGEX);
+    private static final Pattern PHONE = Pattern.compile(PHONE_REGEX);
+    private static final int BATCH = 100_000;
+
+    private final String[] emails = {"rahul@example.com", "priya.patel@mail.co.in", "not-an-email", "amit_k@bank.org"};
+    private final String[] phones = {"9876543210", "9123456780", "12345", "6000000000"};
+    private List<CustomerApplication> batch;
+
+    // Mostly valid records with the odd bad field, like a real onboarding file
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(7);
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            boolean bad = rnd.nextInt(20) == 0;
+            batch.add(CustomerApplication.of("Customer " + i,
+                    bad && rnd.nextBoolean() ? "customer" + i + "@example" : "customer" + i + "@example.com",
+                    (bad ? "5" : "9") + String.format("%09d", rnd.nextInt(1_000_000_000)),
+                    String.format("%04d-%02d-%02d", 1950 + rnd.nextInt(50), 1 + rnd.nextInt(12), 1 + rnd.nextInt(28))));
+        }
+    }
+
+    @Benchmark
+    public boolean emailStringMatches() {
+        return email().matches(EMAIL_REGEX);
+    }
+
+    @Benchmark
+    public boolean emailPrecompiled() {
+        return EMAIL.matcher(email()).matches();
+    }
+
+    @Benchmark
+    public boolean emailScanner() {
+        return Validator.isValidEmail(email());
+    }
+
+    @Benchmark
+    public boolean phoneStringMatches() {
+        return phone().matches(PHONE_REGEX);
+    }
+
+    @Benchmark
+    public boolean phonePrecompiled() {
+        return PHONE.matcher(phone()).matches();
+    }
+
+    @Benchmark
+    public boolean phoneScanner() {
+        return Validator.isValidPhone(phone());
+    }
+
+    // One op = a whole record: the old path (matches() twice plus LocalDate.parse) against check()
+    @Benchmark
+    public int recordRegex() {
+        CustomerApplication a = record();
+        int errors = 0;
+        if (a.getName() == null || a.getName().isBlank()) errors |= Validator.NAME;
+        if (!a.getEmail().matches(EMAIL_REGEX)) errors |= Validator.EMAIL;
+        if (!a.getPhone().matches(PHONE_REGEX)) errors |= Validator.PHONE;
+        if (!legacyDob(a.getDob())) errors |= Validator.DOB;
+        return errors;
+    }
+
+    @Benchmark
+    public int recordScanner() {
+        return Validator.check(record());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int validateAll() {
+        return Validator.validateAll(batch).length;
+    }
+
+    private String email() {
+        return emails[ThreadLocalRandom.current().nextInt(emails.length)];
+    }
+
+    private String phone() {
+        return phones[ThreadLocalRandom.current().nextInt(phones.length)];
+    }
+
+    private CustomerApplication record() {
+        return batch.get(ThreadLocalRandom.current().nextInt(BATCH));
+    }
+
+    // What registerCustomer accepted before, narrowed to the new rules: parses, past, from 1900 on
+    private static boolean legacyDob(String dob) {
+        try {
+            LocalDate d = LocalDate.parse(dob);
+            return d.getYear() >= 1900 && !d.isAfter(LocalDate.now());
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
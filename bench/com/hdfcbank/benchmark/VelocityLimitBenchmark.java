@@ -0,0 +1,89 @@
+package com.hdfcbank.benchmark;
+
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.store.VelocityLimiter;
+import com.hdfcbank.util.IDGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of per-account velocity limits on the debit path: the limiter's check alone, and
+// withdrawals and transfers with limits off and on (set high enough never to trip).
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VelocityLimitBenchmark {
+    // Accounts that exist only for the limiter, not in any bank
+    @State(Scope.Benchmark)
+    public static class Limiter {
+        @Param({"1", "4096", "262144"})
+        int accounts;
+        VelocityLimiter limiter;
+        Account[] accs;
+
+        @Setup
+        public void setUp() {
+            limiter = generous();
+            Customer owner = Fixtures.detachedCustomer();
+            accs = new Account[accounts];
+            for (int i = 0; i < accounts; i++) accs[i] = Account.of(IDGenerator.accountId(1_000 + i), owner, AccountType.CURRENT, 0);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Bank {
+        @Param({"4096", "262144"})
+        int accounts;
+        @Param({"off", "on"})
+        String limits;
+        BankServiceImpl bank;
+        String[] ids;
+
+        @Setup
+        public void setUp() {
+            bank = new BankServiceImpl();
+            if (limits.equals("on")) bank.getStore().limitVelocity(generous());
+            ids = Fixtures.open(bank, accounts);
+        }
+    }
+
+    @Benchmark
+    public long admit(Limiter l) {
+        return l.limiter.admit(l.accs[ThreadLocalRandom.current().nextInt(l.accounts)], 1);
+    }
+
+    @Benchmark
+    public void withdraw(Bank b) {
+        b.bank.withdraw(b.ids[ThreadLocalRandom.current().nextInt(b.accounts)], 1);
+    }
+
+    @Benchmark
+    public void transfer(Bank b) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int a = rnd.nextInt(b.accounts);
+        int c = rnd.nextInt(b.accounts - 1);
+        b.bank.transfer(b.ids[a], b.ids[c >= a ? c + 1 : c], 1);
+    }
+
+    // Limits no run reaches: 65,535 debits and ~28 lakh crore rupees per account per millisecond
+    private static VelocityLimiter generous() {
+        return new VelocityLimiter(Duration.ofMillis(1), VelocityLimiter.MAX_DEBITS, VelocityLimiter.MAX_AMOUNT);
+    }
+}
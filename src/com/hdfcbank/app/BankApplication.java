@@ -4,19 +4,54 @@ import com.hdfcbank.exception.InsufficientBalanceException;
 import com.hdfcbank.exception.InvalidAccountException;
 import com.hdfcbank.model.*;
 import com.hdfcbank.model.enums.AccountType;
-import com.hdfcbank.service.BankService;
+import com.hdfcbank.net.BankServer;
 import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.service.CustomerImport;
+import com.hdfcbank.service.InstrumentedBankService;
+import com.hdfcbank.service.StatementCsv;
+import com.hdfcbank.util.Money;
 import com.hdfcbank.util.Validator;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 public class BankApplication {
     private static final Scanner sc = new Scanner(System.in);
-    private static final BankServiceImpl bankService = new BankServiceImpl();
-
-    public static void main(String[] args) {
+    private static final String JOURNAL_FILE = System.getProperty("hdfcbank.journal", "bank.journal");
+    private static final String SNAPSHOT_FILE = System.getProperty("hdfcbank.snapshot", "bank.snapshot");
+    private static final long SNAPSHOT_SECONDS = Long.getLong("hdfcbank.snapshotSeconds", 60);
+    // Per-account debit velocity limits; off unless a window is given
+    private static final long VELOCITY_SECONDS = Long.getLong("hdfcbank.velocitySeconds", 0);
+    private static final int VELOCITY_DEBITS = Integer.getInteger("hdfcbank.velocityDebits", 0);
+    private static final long VELOCITY_PAISE = Long.getLong("hdfcbank.velocityPaise", 0);
+    private static final int HISTORY_PAGE = 20;
+    private static final BankServiceImpl bank = openBank();
+    private static final InstrumentedBankService bankService = new InstrumentedBankService(bank);
+
+    // With "--serve [port] [bind-address]" the bank runs headless behind BankServer instead of the
+    // console menu. It listens on loopback unless given an address, e.g. 0.0.0.0 for every interface.
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--serve")) {
+            serve(args.length > 1 ? Integer.parseInt(args[1]) : BankServer.DEFAULT_PORT,
+                    args.length > 2 ? InetAddress.getByName(args[2]) : InetAddress.getLoopbackAddress());
+            return;
+        }
         int choice;
+        ScheduledExecutorService snapshots = startSnapshots();
 
         System.out.println("=== HDFC Mini Bank - Java Training Project ===");
         System.out.println("Welcome to the Banking Application!");
@@ -31,6 +66,13 @@ public class BankApplication {
             System.out.println("6. View Transaction History");
             System.out.println("7. Demo Mode (Complete Flow)");
             System.out.println("8. Simulate Concurrent Transfers");
+            System.out.println("9. View Metrics");
+            System.out.println("10. Export Statement (CSV)");
+            System.out.println("11. Post Month-End Interest");
+            System.out.println("12. View Customer Portfolio");
+            System.out.println("13. Find Customer (email/phone)");
+            System.out.println("14. Bulk Import Customers (CSV)");
+            System.out.println("15. Balance As Of Date");
             System.out.println("0. Exit");
             System.out.print("Enter option: ");
 
@@ -47,7 +89,19 @@ public class BankApplication {
                     case 6 -> showTransactions();
                     case 7 -> demoMode();
                     case 8 -> simulateConcurrentTransfers();
-                    case 0 -> System.out.println("Thank you for banking with us!");
+                    case 9 -> showMetrics();
+                    case 10 -> exportStatement();
+                    case 11 -> postInterest();
+                    case 12 -> showPortfolio();
+                    case 13 -> findCustomer();
+                    case 14 -> bulkImport();
+                    case 15 -> balanceAsOf();
+                    case 0 -> {
+                        snapshots.shutdownNow();
+                        bank.snapshot(Path.of(SNAPSHOT_FILE));
+                        bank.close();
+                        System.out.println("Thank you for banking with us!");
+                    }
                     default -> System.out.println("Invalid option! Please try again.");
                 }
             } catch (Exception e) {
@@ -56,6 +110,54 @@ public class BankApplication {
         } while (choice != 0);
     }
 
+    private static void serve(int port, InetAddress bindAddress) throws IOException, InterruptedException {
+        ScheduledExecutorService snapshots = startSnapshots();
+        BankServer server = BankServer.start(bankService, bindAddress, port, false);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+                snapshots.shutdownNow();
+                bank.snapshot(Path.of(SNAPSHOT_FILE));
+                bank.close();
+            } catch (IOException e) {
+                System.out.println("⚠ Shutdown snapshot failed: " + e.getMessage());
+            }
+            showMetrics();
+        }, "shutdown"));
+        System.out.println("Serving on " + server.address().getHostAddress() + ":" + server.port() + " (Ctrl+C to stop)");
+        server.awaitClose();
+    }
+
+    private static BankServiceImpl openBank() {
+        try {
+            BankServiceImpl service = BankServiceImpl.recover(Path.of(JOURNAL_FILE), Path.of(SNAPSHOT_FILE));
+            if (VELOCITY_SECONDS > 0) {
+                service.getStore().limitVelocity(Duration.ofSeconds(VELOCITY_SECONDS), VELOCITY_DEBITS, VELOCITY_PAISE);
+            }
+            System.out.println("Recovered " + service.getStore().customerCount() + " customers and "
+                    + service.getStore().accountCount() + " accounts from " + SNAPSHOT_FILE + " + " + JOURNAL_FILE);
+            return service;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal " + JOURNAL_FILE, e);
+        }
+    }
+
+    private static ScheduledExecutorService startSnapshots() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                bank.snapshot(Path.of(SNAPSHOT_FILE));
+            } catch (IOException e) {
+                System.out.println("⚠ Snapshot failed: " + e.getMessage());
+            }
+        }, SNAPSHOT_SECONDS, SNAPSHOT_SECONDS, TimeUnit.SECONDS);
+        return scheduler;
+    }
+
     private static void registerCustomer() {
         System.out.println("\n=== Register New Customer ===");
         System.out.print("Enter Customer Name: ");
@@ -88,11 +190,11 @@ public class BankApplication {
         AccountType accType = (type == 1) ? AccountType.SAVINGS : AccountType.CURRENT;
 
         System.out.print("Enter Initial Balance: ");
-        double bal = Double.parseDouble(sc.nextLine());
+        long bal = Money.parse(sc.nextLine());
 
         Account acc = bankService.createAccount(custId, accType, bal);
         System.out.println("✓ Account Created: " + acc);
-        System.out.println("Interest Rate: " + (acc.calculateInterest()/acc.getBalance()*100) + "%");
+        System.out.println("Annual Interest: ₹" + Money.format(acc.calculateInterest()));
     }
 
     private static void deposit() {
@@ -101,11 +203,11 @@ public class BankApplication {
         String accId = sc.nextLine();
 
         System.out.print("Enter Deposit Amount: ");
-        double amt = Double.parseDouble(sc.nextLine());
+        long amt = Money.parse(sc.nextLine());
 
         bankService.deposit(accId, amt);
         Account acc = bankService.getAccount(accId);
-        System.out.println("✓ Deposit successful. New Balance: " + acc.getBalance());
+        System.out.println("✓ Deposit successful. New Balance: " + Money.format(acc.getBalance()));
     }
 
     private static void withdraw() throws InsufficientBalanceException, InvalidAccountException {
@@ -114,11 +216,11 @@ public class BankApplication {
         String accId = sc.nextLine();
 
         System.out.print("Enter Withdraw Amount: ");
-        double amt = Double.parseDouble(sc.nextLine());
+        long amt = Money.parse(sc.nextLine());
 
         bankService.withdraw(accId, amt);
         Account acc = bankService.getAccount(accId);
-        System.out.println("✓ Withdrawal successful. New Balance: " + acc.getBalance());
+        System.out.println("✓ Withdrawal successful. New Balance: " + Money.format(acc.getBalance()));
     }
 
     private static void transfer() throws InvalidAccountException, InsufficientBalanceException {
@@ -130,12 +232,12 @@ public class BankApplication {
         String to = sc.nextLine();
 
         System.out.print("Amount: ");
-        double amt = Double.parseDouble(sc.nextLine());
+        long amt = Money.parse(sc.nextLine());
 
         bankService.transfer(from, to, amt);
         System.out.println("✓ Transfer completed successfully.");
-        System.out.println("From Account Balance: " + bankService.getAccount(from).getBalance());
-        System.out.println("To Account Balance: " + bankService.getAccount(to).getBalance());
+        System.out.println("From Account Balance: " + Money.format(bankService.getAccount(from).getBalance()));
+        System.out.println("To Account Balance: " + Money.format(bankService.getAccount(to).getBalance()));
     }
 
     private static void showTransactions() {
@@ -143,16 +245,105 @@ public class BankApplication {
         System.out.print("Enter Account ID: ");
         String accId = sc.nextLine();
 
-        List<Transaction> txns = bankService.getTransactions(accId);
-        if (txns.isEmpty()) {
-            System.out.println("No transactions found for this account.");
-        } else {
+        // Read page by page from the statement stream, so a long history is never loaded at once
+        try (Stream<Transaction> statement = bankService.statement(accId, StatementQuery.all())) {
+            Iterator<Transaction> txns = statement.iterator();
+            if (!txns.hasNext()) {
+                System.out.println("No transactions found for this account.");
+                return;
+            }
             System.out.println("Transactions for Account " + accId + ":");
             System.out.println("----------------------------------------");
-            txns.forEach(System.out::println);
+            while (true) {
+                for (int i = 0; i < HISTORY_PAGE && txns.hasNext(); i++) System.out.println(txns.next());
+                if (!txns.hasNext()) return;
+                System.out.print("Show more? (y/n): ");
+                if (!sc.nextLine().trim().equalsIgnoreCase("y")) return;
+            }
         }
     }
 
+    private static void exportStatement() throws IOException {
+        System.out.println("\n=== Export Statement (CSV) ===");
+        System.out.print("Enter Account ID: ");
+        String accId = sc.nextLine();
+        if (bankService.getAccount(accId) == null) throw new IllegalArgumentException("Invalid Account");
+
+        StatementQuery query = StatementQuery.all();
+        System.out.print("From date (yyyy-mm-dd, blank for start): ");
+        String from = sc.nextLine().trim();
+        if (!from.isEmpty()) query = query.from(LocalDate.parse(from).atStartOfDay());
+        System.out.print("To date (yyyy-mm-dd, blank for today): ");
+        String to = sc.nextLine().trim();
+        if (!to.isEmpty()) query = query.until(LocalDate.parse(to).plusDays(1).atStartOfDay());
+
+        System.out.print("Output file: ");
+        Path file = Path.of(sc.nextLine().trim());
+        long rows;
+        try (Stream<Transaction> statement = bankService.statement(accId, query);
+             Writer out = Files.newBufferedWriter(file)) {
+            rows = StatementCsv.write(statement, out);
+        }
+        System.out.println("✓ Exported " + rows + " transactions to " + file.toAbsolutePath());
+    }
+
+    private static void bulkImport() throws IOException {
+        System.out.println("\n=== Bulk Import Customers (CSV) ===");
+        System.out.println("Columns: " + CustomerImport.HEADER);
+        System.out.print("Input file: ");
+        Path csv = Path.of(sc.nextLine().trim());
+        Path rejects = Path.of(csv + ".rejects.csv");
+        CustomerImport.Summary summary = new CustomerImport(bank, Runtime.getRuntime().availableProcessors()).run(csv, rejects);
+        System.out.println("✓ " + summary);
+        if (summary.rejected() > 0) System.out.println("Rejected rows written to " + rejects.toAbsolutePath());
+    }
+
+    private static void showMetrics() {
+        System.out.println(bankService.getMetrics().snapshot().format());
+    }
+
+    private static void findCustomer() {
+        System.out.println("\n=== Find Customer ===");
+        System.out.print("Enter Email or Phone: ");
+        String key = sc.nextLine().trim();
+        List<Customer> found = key.contains("@") ? bankService.findCustomersByEmail(key) : bankService.findCustomersByPhone(key);
+        if (found.isEmpty()) System.out.println("No customer found.");
+        for (Customer c : found) {
+            System.out.println(c);
+            bankService.getCustomerAccounts(c.getCustomerId()).forEach(acc -> System.out.println("  " + acc.getType() + " " + acc));
+        }
+    }
+
+    private static void showPortfolio() {
+        System.out.println("\n=== Customer Portfolio ===");
+        System.out.print("Enter Customer ID: ");
+        Portfolio portfolio = bankService.getPortfolio(sc.nextLine());
+        if (portfolio == null) throw new IllegalArgumentException("Customer not found");
+        portfolio.getAccounts().forEach(acc -> System.out.println("  " + acc.getType() + " " + acc));
+        System.out.println(portfolio);
+        for (AccountType type : AccountType.values()) {
+            System.out.println("Bank-wide " + type + ": ₹" + Money.format(bankService.getTotalBalance(type)));
+        }
+    }
+
+    private static void balanceAsOf() {
+        System.out.println("\n=== Balance As Of Date ===");
+        System.out.print("Enter Account ID: ");
+        String accId = sc.nextLine();
+        System.out.print("Date (yyyy-mm-dd): ");
+        LocalDate date = LocalDate.parse(sc.nextLine().trim());
+        long balance = bankService.getBalanceAsOf(accId, date.plusDays(1).atStartOfDay());
+        System.out.println("Balance at end of " + date + ": ₹" + Money.format(balance));
+    }
+
+    private static void postInterest() {
+        System.out.println("\n=== Post Month-End Interest ===");
+        System.out.print("Month (yyyy-mm, blank for this month): ");
+        String month = sc.nextLine().trim();
+        YearMonth period = month.isEmpty() ? YearMonth.now() : YearMonth.parse(month);
+        System.out.println("✓ " + bank.accrueInterest(period));
+    }
+
     private static void simulateConcurrentTransfers() {
         System.out.println("\n=== Simulate Concurrent Transfers ===");
         System.out.print("Enter From Account ID: ");
@@ -162,12 +353,12 @@ public class BankApplication {
         String to = sc.nextLine();
 
         System.out.print("Enter Transfer Amount: ");
-        double amt = Double.parseDouble(sc.nextLine());
+        long amt = Money.parse(sc.nextLine());
 
         System.out.print("Enter Number of Concurrent Transfers: ");
         int numThreads = Integer.parseInt(sc.nextLine());
 
-        bankService.simulateConcurrentTransfers(from, to, amt, numThreads);
+        bank.simulateConcurrentTransfers(from, to, amt, numThreads);
     }
 
     private static void demoMode() {
@@ -184,28 +375,28 @@ public class BankApplication {
 
             // 2. Account Creation (Polymorphism)
             System.out.println("\n2. Creating accounts (demonstrating polymorphism)...");
-            Account a1 = bankService.createAccount(c1.getCustomerId(), AccountType.SAVINGS, 5000);
-            Account a2 = bankService.createAccount(c2.getCustomerId(), AccountType.CURRENT, 10000);
-            Account a3 = bankService.createAccount(c3.getCustomerId(), AccountType.SAVINGS, 15000);
+            Account a1 = bankService.createAccount(c1.getCustomerId(), AccountType.SAVINGS, Money.ofRupees(5000));
+            Account a2 = bankService.createAccount(c2.getCustomerId(), AccountType.CURRENT, Money.ofRupees(10000));
+            Account a3 = bankService.createAccount(c3.getCustomerId(), AccountType.SAVINGS, Money.ofRupees(15000));
             System.out.println("✓ Accounts created successfully");
 
             // 3. Transaction Operations
             System.out.println("\n3. Performing transactions...");
-            bankService.deposit(a1.getAccountId(), 2000);
+            bankService.deposit(a1.getAccountId(), Money.ofRupees(2000));
             System.out.println("✓ Deposit successful");
 
-            bankService.withdraw(a1.getAccountId(), 1500);
+            bankService.withdraw(a1.getAccountId(), Money.ofRupees(1500));
             System.out.println("✓ Withdrawal successful");
 
-            bankService.transfer(a1.getAccountId(), a2.getAccountId(), 1000);
+            bankService.transfer(a1.getAccountId(), a2.getAccountId(), Money.ofRupees(1000));
             System.out.println("✓ Transfer successful");
 
             // 4. Account Details (showing polymorphism)
             System.out.println("\n4. Account details (demonstrating polymorphism):");
-            System.out.println("Savings Account: ₹" + String.format("%.2f", a1.getBalance()) +
-                    " (Interest: ₹" + String.format("%.2f", a1.calculateInterest()) + ")");
-            System.out.println("Current Account: ₹" + String.format("%.2f", a2.getBalance()) +
-                    " (Interest: ₹" + String.format("%.2f", a2.calculateInterest()) + ")");
+            System.out.println("Savings Account: ₹" + Money.format(a1.getBalance()) +
+                    " (Interest: ₹" + Money.format(a1.calculateInterest()) + ")");
+            System.out.println("Current Account: ₹" + Money.format(a2.getBalance()) +
+                    " (Interest: ₹" + Money.format(a2.calculateInterest()) + ")");
 
             // 5. Java 8 Streams demonstration
             System.out.println("\n5. Transaction history (using Java 8 Streams):");
@@ -216,7 +407,7 @@ public class BankApplication {
 
             // 6. Concurrent transfers demonstration
             System.out.println("\n6. Demonstrating concurrent transfers (thread safety):");
-            bankService.simulateConcurrentTransfers(a3.getAccountId(), a1.getAccountId(), 500, 3);
+            bank.simulateConcurrentTransfers(a3.getAccountId(), a1.getAccountId(), Money.ofRupees(500), 3);
 
             // 7. Final summary
             System.out.println("\n=== Demo completed successfully! ===");
@@ -1,34 +1,135 @@
 package com.hdfcbank.model;
 
 import com.hdfcbank.exception.InsufficientBalanceException;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.util.IDGenerator;
+import com.hdfcbank.util.Money;
 
+import java.time.YearMonth;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
+// The balance lives in an immutable State (balance + version) swapped by compare-and-set, so a
+// deposit or withdrawal takes no monitor of its own: it reads the state, checks the account's
+// balance rule against it and installs the successor, retrying if another update got in first.
+// The rule check and the swap act on the same State, so a withdrawal can never take the balance
+// below minimumBalance() however updates interleave. Callers that also need a ledger entry or
+// journal record to stay in step with the balance still hold the account monitor around both.
+// A caller that is the account's only writer (a ShardedBankEngine shard) uses the *AsOwner
+// updates instead, which apply the same rule but simply store the successor state.
 public abstract class Account {
+    private static final AtomicIntegerFieldUpdater<Account> OCCUPANCY =
+            AtomicIntegerFieldUpdater.newUpdater(Account.class, "occupancy");
+    private static final AtomicReferenceFieldUpdater<Account, State> STATE =
+            AtomicReferenceFieldUpdater.newUpdater(Account.class, State.class, "state");
+    // A failed CAS first retries with spin hints, then backs off by parking for 64ns doubling up to
+    // ~8us; an update that still loses after that finishes under the monitor, so it cannot starve
+    private static final int SPINS = 8;
+    private static final int BACKOFFS = 8;
+    private static final long FIRST_BACKOFF_NANOS = 64;
+
     protected String accountId;
+    private final long accountNumber; // numeric form of accountId, the key the store indexes by
     protected Customer customer;
-    protected double balance;
+    private volatile State state;
+    private long journalLsn; // journal position of the last posting applied here, guarded by this
+    private YearMonth interestPeriod; // last month interest was posted for, guarded by this
+    private volatile int occupancy; // postings holding or queued on this monitor, while contention is counted
 
-    public Account(String accountId, Customer customer, double balance) {
+    public Account(String accountId, Customer customer, long balance) {
         this.accountId = accountId;
+        this.accountNumber = IDGenerator.accountNumber(accountId);
+        if (accountNumber < 0) throw new IllegalArgumentException("Malformed account ID: " + accountId);
         this.customer = customer;
-        this.balance = balance;
+        this.state = new State(balance, 0);
+    }
+
+    public static Account of(String accountId, Customer customer, AccountType type, long balance) {
+        return (type == AccountType.SAVINGS) ? new SavingsAccount(accountId, customer, balance)
+                : new CurrentAccount(accountId, customer, balance);
     }
 
-    public synchronized void deposit(double amount) {
-        balance += amount;
+    // Balance in paise and the number of updates applied since the account was loaded
+    public record State(long balance, long version) {}
+
+    public void deposit(long amount) {
+        update(amount, Long.MIN_VALUE, null);
     }
 
-    public abstract void withdraw(double amount) throws InsufficientBalanceException;
-    public abstract double calculateInterest();
+    public void withdraw(long amount) throws InsufficientBalanceException {
+        update(-amount, minimumBalance(), insufficientBalanceMessage());
+    }
+
+    public void depositAsOwner(long amount) {
+        set(amount, Long.MIN_VALUE, null);
+    }
+
+    public void withdrawAsOwner(long amount) throws InsufficientBalanceException {
+        set(-amount, minimumBalance(), insufficientBalanceMessage());
+    }
+
+    // Lowest balance a withdrawal may leave behind
+    protected abstract long minimumBalance();
+    protected abstract String insufficientBalanceMessage();
+
+    private void update(long delta, long floor, String shortfall) {
+        for (int attempt = 0; attempt < SPINS + BACKOFFS; attempt++) {
+            if (tryUpdate(delta, floor, shortfall)) return;
+            if (attempt < SPINS) Thread.onSpinWait();
+            else LockSupport.parkNanos(FIRST_BACKOFF_NANOS << (attempt - SPINS));
+        }
+        // Other slow-path updates queue here instead of piling onto the CAS; fast-path updates can
+        // still win the race, but each only once per retry
+        synchronized (this) {
+            while (!tryUpdate(delta, floor, shortfall)) Thread.onSpinWait();
+        }
+    }
+
+    private boolean tryUpdate(long delta, long floor, String shortfall) {
+        State s = state;
+        long next = s.balance() + delta;
+        if (next < floor) throw new InsufficientBalanceException(shortfall);
+        return STATE.compareAndSet(this, s, new State(next, s.version() + 1));
+    }
+
+    // No other writer can get in between, so an ordered store publishes the update without a CAS
+    private void set(long delta, long floor, String shortfall) {
+        State s = state;
+        long next = s.balance() + delta;
+        if (next < floor) throw new InsufficientBalanceException(shortfall);
+        STATE.lazySet(this, new State(next, s.version() + 1));
+    }
+
+    public abstract long calculateInterest();
+
+    // Interest earned this month on the current balance; accounts that pay none keep the default
+    public long calculateMonthlyInterest() {
+        return 0;
+    }
+
+    public abstract AccountType getType();
 
     public String getAccountId() { return accountId; }
-    public double getBalance() { return balance; }
+    public long getAccountNumber() { return accountNumber; }
+    public long getBalance() { return state.balance(); }
+    public long getVersion() { return state.version(); }
+    public State getState() { return state; }
     public Customer getCustomer() { return customer; }
+    public synchronized long getJournalLsn() { return journalLsn; }
+    public synchronized void setJournalLsn(long lsn) { journalLsn = lsn; }
+    public synchronized YearMonth getInterestPeriod() { return interestPeriod; }
+    public synchronized void setInterestPeriod(YearMonth period) { interestPeriod = period; }
+
+    // Called around a posting's synchronized section; arrive() is true when another posting already
+    // holds or is waiting for this account's monitor
+    public boolean arrive() { return OCCUPANCY.getAndIncrement(this) != 0; }
+    public void depart() { OCCUPANCY.decrementAndGet(this); }
 
     @Override
     public String toString() {
-        return accountId + " [" + customer.getName() + "] Balance=" + balance;
+        return accountId + " [" + customer.getName() + "] Balance=" + Money.format(getBalance());
     }
 
     @Override
@@ -1,20 +1,29 @@
 package com.hdfcbank.model;
 
-import com.hdfcbank.exception.InsufficientBalanceException;
+import com.hdfcbank.model.enums.AccountType;
 
 public class CurrentAccount extends Account {
-    public CurrentAccount(String id, Customer cust, double bal) {
+    public CurrentAccount(String id, Customer cust, long bal) {
         super(id, cust, bal);
     }
 
     @Override
-    public void withdraw(double amt) throws InsufficientBalanceException {
-        if (balance < amt) throw new InsufficientBalanceException("Insufficient balance in Current Account.");
-        balance -= amt;
+    protected long minimumBalance() {
+        return 0; // no overdraft
     }
 
     @Override
-    public double calculateInterest() {
+    protected String insufficientBalanceMessage() {
+        return "Insufficient balance in Current Account.";
+    }
+
+    @Override
+    public long calculateInterest() {
         return 0; // No interest
     }
+
+    @Override
+    public AccountType getType() {
+        return AccountType.CURRENT;
+    }
 }
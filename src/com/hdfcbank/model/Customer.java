@@ -1,10 +1,13 @@
 package com.hdfcbank.model;
 
+import com.hdfcbank.util.IDGenerator;
+
 import java.time.LocalDate;
 import java.util.Objects;
 
 public class Customer {
     private String customerId;
+    private final long customerNumber;
     private String name;
     private String email;
     private String phone;
@@ -12,6 +15,8 @@ public class Customer {
 
     public Customer(String id, String name, String email, String phone, LocalDate dob) {
         this.customerId = id;
+        this.customerNumber = IDGenerator.customerNumber(id);
+        if (customerNumber < 0) throw new IllegalArgumentException("Malformed customer ID: " + id);
         this.name = name;
         this.email = email;
         this.phone = phone;
@@ -19,7 +24,11 @@ public class Customer {
     }
 
     public String getCustomerId() { return customerId; }
+    public long getCustomerNumber() { return customerNumber; }
     public String getName() { return name; }
+    public String getEmail() { return email; }
+    public String getPhone() { return phone; }
+    public LocalDate getDob() { return dob; }
 
     @Override
     public String toString() {
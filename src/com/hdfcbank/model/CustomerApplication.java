@@ -0,0 +1,31 @@
+package com.hdfcbank.model;
+
+// The raw fields of one customer onboarding request, as typed in or read from an import file,
+// before validation
+public class CustomerApplication {
+    private final String name;
+    private final String email;
+    private final String phone;
+    private final String dob; // yyyy-mm-dd
+
+    private CustomerApplication(String name, String email, String phone, String dob) {
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.dob = dob;
+    }
+
+    public static CustomerApplication of(String name, String email, String phone, String dob) {
+        return new CustomerApplication(name, email, phone, dob);
+    }
+
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public String getPhone() { return phone; }
+    public String getDob() { return dob; }
+
+    @Override
+    public String toString() {
+        return name + " <" + email + "> " + phone + " " + dob;
+    }
+}
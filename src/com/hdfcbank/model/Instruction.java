@@ -0,0 +1,41 @@
+package com.hdfcbank.model;
+
+import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.util.Money;
+
+// One line of a posting file submitted through BankService.submitBatch
+public class Instruction {
+    private final TransactionType type;
+    private final String accountId;
+    private final String counterpartyId;
+    private final long amount; // paise
+
+    private Instruction(TransactionType type, String accountId, String counterpartyId, long amount) {
+        this.type = type;
+        this.accountId = accountId;
+        this.counterpartyId = counterpartyId;
+        this.amount = amount;
+    }
+
+    public static Instruction deposit(String accountId, long amount) {
+        return new Instruction(TransactionType.DEPOSIT, accountId, null, amount);
+    }
+
+    public static Instruction withdraw(String accountId, long amount) {
+        return new Instruction(TransactionType.WITHDRAW, accountId, null, amount);
+    }
+
+    public static Instruction transfer(String fromAcc, String toAcc, long amount) {
+        return new Instruction(TransactionType.TRANSFER, fromAcc, toAcc, amount);
+    }
+
+    public TransactionType getType() { return type; }
+    public String getAccountId() { return accountId; }
+    public String getCounterpartyId() { return counterpartyId; }
+    public long getAmount() { return amount; }
+
+    @Override
+    public String toString() {
+        return type + " " + accountId + (counterpartyId == null ? "" : " -> " + counterpartyId) + " " + Money.format(amount);
+    }
+}
@@ -0,0 +1,30 @@
+package com.hdfcbank.model;
+
+public class InstructionResult {
+    private final int index;
+    private final boolean success;
+    private final String error;
+
+    private InstructionResult(int index, boolean success, String error) {
+        this.index = index;
+        this.success = success;
+        this.error = error;
+    }
+
+    public static InstructionResult applied(int index) {
+        return new InstructionResult(index, true, null);
+    }
+
+    public static InstructionResult rejected(int index, String error) {
+        return new InstructionResult(index, false, error);
+    }
+
+    public int getIndex() { return index; }
+    public boolean isSuccess() { return success; }
+    public String getError() { return error; }
+
+    @Override
+    public String toString() {
+        return "#" + index + (success ? " applied" : " rejected: " + error);
+    }
+}
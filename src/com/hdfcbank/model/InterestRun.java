@@ -0,0 +1,36 @@
+package com.hdfcbank.model;
+
+import com.hdfcbank.util.Money;
+
+import java.time.Duration;
+import java.time.YearMonth;
+
+// Outcome of one month-end accrual pass. Accounts already paid for the period, and accounts that
+// earn nothing, are counted as skipped, so rerunning a finished period credits zero accounts.
+public class InterestRun {
+    private final YearMonth period;
+    private final long credited;
+    private final long skipped;
+    private final long totalInterest;
+    private final Duration elapsed;
+
+    public InterestRun(YearMonth period, long credited, long skipped, long totalInterest, Duration elapsed) {
+        this.period = period;
+        this.credited = credited;
+        this.skipped = skipped;
+        this.totalInterest = totalInterest;
+        this.elapsed = elapsed;
+    }
+
+    public YearMonth getPeriod() { return period; }
+    public long getCredited() { return credited; }
+    public long getSkipped() { return skipped; }
+    public long getTotalInterest() { return totalInterest; }
+    public Duration getElapsed() { return elapsed; }
+
+    @Override
+    public String toString() {
+        return "Interest for " + period + ": " + credited + " account(s) credited, " + skipped + " skipped, total ₹"
+                + Money.format(totalInterest) + " in " + elapsed.toMillis() + " ms";
+    }
+}
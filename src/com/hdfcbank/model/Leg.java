@@ -0,0 +1,34 @@
+package com.hdfcbank.model;
+
+import com.hdfcbank.util.Money;
+
+// One debit or credit of a multi-leg posting (BankService.post). A posting's debits must add up to
+// its credits, and each account may appear in only one of its legs.
+public class Leg {
+    private final String accountId;
+    private final boolean debit;
+    private final long amount; // paise
+
+    private Leg(String accountId, boolean debit, long amount) {
+        this.accountId = accountId;
+        this.debit = debit;
+        this.amount = amount;
+    }
+
+    public static Leg debit(String accountId, long amount) {
+        return new Leg(accountId, true, amount);
+    }
+
+    public static Leg credit(String accountId, long amount) {
+        return new Leg(accountId, false, amount);
+    }
+
+    public String getAccountId() { return accountId; }
+    public boolean isDebit() { return debit; }
+    public long getAmount() { return amount; }
+
+    @Override
+    public String toString() {
+        return (debit ? "DR " : "CR ") + accountId + " " + Money.format(amount);
+    }
+}
@@ -0,0 +1,38 @@
+package com.hdfcbank.model;
+
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.util.Money;
+
+import java.util.List;
+
+// A customer's accounts and balances as of one instant
+public class Portfolio {
+    private final Customer customer;
+    private final List<Account> accounts;
+    private final long[] balances; // paise, indexed by AccountType ordinal
+
+    public Portfolio(Customer customer, List<Account> accounts, long[] balances) {
+        this.customer = customer;
+        this.accounts = accounts;
+        this.balances = balances;
+    }
+
+    public Customer getCustomer() { return customer; }
+    public List<Account> getAccounts() { return accounts; }
+    public long getBalance(AccountType type) { return balances[type.ordinal()]; }
+
+    public long getTotalBalance() {
+        long total = 0;
+        for (long b : balances) total += b;
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(customer.toString()).append(": ").append(accounts.size()).append(" account(s)");
+        for (AccountType type : AccountType.values()) {
+            sb.append(", ").append(type).append(" ₹").append(Money.format(getBalance(type)));
+        }
+        return sb.append(", total ₹").append(Money.format(getTotalBalance())).toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.hdfcbank.model;
+
+import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.util.Money;
+
+import java.time.LocalDateTime;
+
+// What an idempotent posting returns. A retry with the same idempotency key gets the original
+// posting's receipt back, marked as a replay, instead of posting a second time.
+public class Receipt {
+    private final String txnId;
+    private final TransactionType type;
+    private final String accountId;
+    private final String counterpartyId; // credited account of a TRANSFER, null otherwise
+    private final long amount; // paise
+    private final LocalDateTime postedAt;
+    private final boolean replayed;
+
+    public Receipt(String txnId, TransactionType type, String accountId, String counterpartyId, long amount,
+                   LocalDateTime postedAt, boolean replayed) {
+        this.txnId = txnId;
+        this.type = type;
+        this.accountId = accountId;
+        this.counterpartyId = counterpartyId;
+        this.amount = amount;
+        this.postedAt = postedAt;
+        this.replayed = replayed;
+    }
+
+    public static Receipt of(Transaction txn, String counterpartyId) {
+        return new Receipt(txn.getTxnId(), txn.getType(), txn.getAccountId(), counterpartyId, txn.getAmount(),
+                txn.getDate(), false);
+    }
+
+    public Receipt asReplay() {
+        return replayed ? this : new Receipt(txnId, type, accountId, counterpartyId, amount, postedAt, true);
+    }
+
+    public String getTxnId() { return txnId; }
+    public TransactionType getType() { return type; }
+    public String getAccountId() { return accountId; }
+    public String getCounterpartyId() { return counterpartyId; }
+    public long getAmount() { return amount; }
+    public LocalDateTime getPostedAt() { return postedAt; }
+    public boolean isReplayed() { return replayed; }
+
+    @Override
+    public String toString() {
+        return txnId + " | " + type + " | " + accountId + (counterpartyId == null ? "" : " -> " + counterpartyId)
+                + " | " + Money.format(amount) + " | " + postedAt + (replayed ? " (replayed)" : "");
+    }
+}
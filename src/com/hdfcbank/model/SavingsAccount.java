@@ -1,23 +1,38 @@
 package com.hdfcbank.model;
 
-import com.hdfcbank.exception.InsufficientBalanceException;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.util.Money;
 
 public class SavingsAccount extends Account {
-    private static final double MIN_BAL = 1000;
-    private static final double INTEREST_RATE = 0.045;
+    private static final long MIN_BAL = Money.ofRupees(1000);
+    private static final long INTEREST_RATE_BPS = 450; // 4.5%
 
-    public SavingsAccount(String id, Customer cust, double bal) {
+    public SavingsAccount(String id, Customer cust, long bal) {
         super(id, cust, bal);
     }
 
     @Override
-    public void withdraw(double amt) throws InsufficientBalanceException {
-        if (balance - amt < MIN_BAL) throw new InsufficientBalanceException("Insufficient balance in Savings.");
-        balance -= amt;
+    protected long minimumBalance() {
+        return MIN_BAL;
     }
 
     @Override
-    public double calculateInterest() {
-        return balance * INTEREST_RATE;
+    protected String insufficientBalanceMessage() {
+        return "Insufficient balance in Savings.";
+    }
+
+    @Override
+    public long calculateInterest() {
+        return Money.percentOf(getBalance(), INTEREST_RATE_BPS);
+    }
+
+    @Override
+    public long calculateMonthlyInterest() {
+        return Money.percentOf(getBalance(), INTEREST_RATE_BPS, 12);
+    }
+
+    @Override
+    public AccountType getType() {
+        return AccountType.SAVINGS;
     }
 }
@@ -0,0 +1,50 @@
+package com.hdfcbank.model;
+
+import com.hdfcbank.model.enums.TransactionType;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Which entries of an account's history a statement covers. Immutable; every refinement returns a
+// new query, e.g. StatementQuery.all().from(start).until(end).ofTypes(TransactionType.DEPOSIT).
+public final class StatementQuery {
+    private static final StatementQuery ALL = new StatementQuery(null, null, EnumSet.allOf(TransactionType.class));
+
+    private final LocalDateTime from;  // inclusive, null for no lower bound
+    private final LocalDateTime until; // exclusive, null for no upper bound
+    private final Set<TransactionType> types;
+
+    private StatementQuery(LocalDateTime from, LocalDateTime until, Set<TransactionType> types) {
+        if (from != null && until != null && !from.isBefore(until))
+            throw new IllegalArgumentException("Statement range is empty: " + from + " to " + until);
+        this.from = from;
+        this.until = until;
+        this.types = types;
+    }
+
+    public static StatementQuery all() {
+        return ALL;
+    }
+
+    public StatementQuery from(LocalDateTime from) {
+        return new StatementQuery(from, until, types);
+    }
+
+    public StatementQuery until(LocalDateTime until) {
+        return new StatementQuery(from, until, types);
+    }
+
+    public StatementQuery ofTypes(TransactionType first, TransactionType... rest) {
+        return new StatementQuery(from, until, EnumSet.of(first, rest));
+    }
+
+    public LocalDateTime getFrom() { return from; }
+    public LocalDateTime getUntil() { return until; }
+    public boolean includes(TransactionType type) { return types.contains(type); }
+
+    @Override
+    public String toString() {
+        return "[" + (from == null ? "start" : from) + ", " + (until == null ? "now" : until) + ") " + types;
+    }
+}
@@ -1,32 +1,51 @@
 package com.hdfcbank.model;
 
 import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.util.IDGenerator;
+import com.hdfcbank.util.Money;
 
 import java.time.LocalDateTime;
 
 public class Transaction {
-    private String txnId;
+    private long txnNumber; // formatted as "TXN..." only when asked for the ID
     private String accountId;
     private TransactionType type;
-    private double amount;
+    private long amount; // paise
     private LocalDateTime date;
+    private long balanceAfter; // account balance right after this entry, paise; stamped by its ledger
 
-    public Transaction(String txnId, String accId, TransactionType type, double amount) {
-        this.txnId = txnId;
+    public Transaction(long txnNumber, String accId, TransactionType type, long amount) {
+        this(txnNumber, accId, type, amount, LocalDateTime.now());
+    }
+
+    public Transaction(long txnNumber, String accId, TransactionType type, long amount, LocalDateTime date) {
+        this.txnNumber = txnNumber;
         this.accountId = accId;
         this.type = type;
         this.amount = amount;
-        this.date = LocalDateTime.now();
+        this.date = date;
+    }
+
+    public Transaction(long txnNumber, String accId, TransactionType type, long amount, LocalDateTime date, long balanceAfter) {
+        this(txnNumber, accId, type, amount, date);
+        this.balanceAfter = balanceAfter;
     }
+
+    public String getTxnId() { return IDGenerator.txnId(txnNumber); }
+    public long getTxnNumber() { return txnNumber; }
+
     public String getAccountId() {
         return accountId;
     }
 
     public TransactionType getType() { return type; }
+    public long getAmount() { return amount; }
     public LocalDateTime getDate() { return date; }
+    public long getBalanceAfter() { return balanceAfter; }
+    public void setBalanceAfter(long balance) { balanceAfter = balance; }
 
     @Override
     public String toString() {
-        return txnId + " | " + type + " | " + amount + " | " + date;
+        return getTxnId() + " | " + type + " | " + Money.format(amount) + " | " + date + " | Balance " + Money.format(balanceAfter);
     }
 }
@@ -1,9 +1,12 @@
 package com.hdfcbank.model.enums;
 
+// Ordinals are persisted in the journal, snapshots and ledger columns: add new types at the end
 public enum TransactionType {
     DEPOSIT("Deposit"),
     WITHDRAW("Withdraw"),
-    TRANSFER("Transfer");
+    TRANSFER("Transfer"),
+    INTEREST("Interest"),
+    TRANSFER_IN("Transfer In"); // credit side of a transfer, sharing the debit row's transaction ID
 
     private final String displayName;
 
@@ -15,6 +18,11 @@ public enum TransactionType {
         return displayName;
     }
 
+    // True when an entry of this type adds to the account's balance
+    public boolean isCredit() {
+        return this == DEPOSIT || this == INTEREST || this == TRANSFER_IN;
+    }
+
     @Override
     public String toString() {
         return displayName;
@@ -0,0 +1,168 @@
+package com.hdfcbank.net;
+
+import com.hdfcbank.model.Leg;
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.model.enums.AccountType;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Pipelined client for BankServer: calls return at once and any number can be outstanding on the
+// one connection. A call completes with the response's values, or fails with the exception the
+// bank raised (InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException,
+// IllegalArgumentException), or with UncheckedIOException if the connection drops. Futures complete
+// on the client's reader thread, so callbacks attached to them should be quick.
+public class BankClient implements Closeable {
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Outbox outbox;
+    private final AtomicLong nextId = new AtomicLong();
+    private final ConcurrentHashMap<Long, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    private BankClient(Socket socket) throws IOException {
+        this.socket = socket;
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8), 64 << 10);
+        this.outbox = new Outbox(socket.getOutputStream(), "bank-client-out", () -> { });
+        Thread.ofVirtual().name("bank-client-in").start(this::readResponses);
+    }
+
+    public static BankClient connect(String host, int port) throws IOException {
+        Socket socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress(host, port));
+        return new BankClient(socket);
+    }
+
+    public CompletableFuture<Void> ping() {
+        return call("PING").thenApply(v -> null);
+    }
+
+    public CompletableFuture<String> registerCustomer(String name, String email, String phone, String dob) {
+        return call("REGISTER " + email + " " + phone + " " + dob + " " + name);
+    }
+
+    public CompletableFuture<String> createAccount(String customerId, AccountType type, long balance) {
+        return call("OPEN " + customerId + " " + type + " " + balance);
+    }
+
+    public CompletableFuture<Void> deposit(String accountId, long amt) {
+        return call("DEPOSIT " + accountId + " " + amt).thenApply(v -> null);
+    }
+
+    public CompletableFuture<Void> withdraw(String accountId, long amt) {
+        return call("WITHDRAW " + accountId + " " + amt).thenApply(v -> null);
+    }
+
+    public CompletableFuture<Void> transfer(String fromAcc, String toAcc, long amt) {
+        return call("TRANSFER " + fromAcc + " " + toAcc + " " + amt).thenApply(v -> null);
+    }
+
+    // Keyed postings complete with the transaction ID, the original one when the key was a replay
+    public CompletableFuture<String> deposit(String accountId, long amt, String idempotencyKey) {
+        return call("DEPOSIT " + accountId + " " + amt + " " + idempotencyKey).thenApply(BankClient::txnId);
+    }
+
+    public CompletableFuture<String> withdraw(String accountId, long amt, String idempotencyKey) {
+        return call("WITHDRAW " + accountId + " " + amt + " " + idempotencyKey).thenApply(BankClient::txnId);
+    }
+
+    public CompletableFuture<String> transfer(String fromAcc, String toAcc, long amt, String idempotencyKey) {
+        return call("TRANSFER " + fromAcc + " " + toAcc + " " + amt + " " + idempotencyKey).thenApply(BankClient::txnId);
+    }
+
+    // Completes with the transaction ID every leg's entry shares
+    public CompletableFuture<String> post(List<Leg> legs) {
+        StringBuilder request = new StringBuilder("POST");
+        for (Leg leg : legs) request.append(' ').append(BankProtocol.field(leg));
+        return call(request.toString());
+    }
+
+    private static String txnId(String values) {
+        int space = values.indexOf(' ');
+        return space < 0 ? values : values.substring(0, space);
+    }
+
+    public CompletableFuture<Long> getBalance(String accountId) {
+        return call("BALANCE " + accountId).thenApply(Long::parseLong);
+    }
+
+    public CompletableFuture<Long> getBalanceAsOf(String accountId, LocalDateTime asOf) {
+        return call("BALANCE " + accountId + " " + asOf).thenApply(Long::parseLong);
+    }
+
+    // Newest-first page of at most 'limit' entries; a null cursor starts from the latest posting
+    public CompletableFuture<List<Transaction>> getTransactions(String accountId, String beforeTxnId, int limit) {
+        String request = "STATEMENT " + accountId + " " + limit + (beforeTxnId == null ? "" : " " + beforeTxnId);
+        return call(request).thenApply(values -> BankProtocol.transactions(accountId, values));
+    }
+
+    // Sends one raw request (everything after the id) and completes with the values after OK
+    public CompletableFuture<String> call(String request) {
+        long id = nextId.getAndIncrement();
+        CompletableFuture<String> response = new CompletableFuture<>();
+        pending.put(id, response);
+        if (closed) {
+            pending.remove(id);
+            response.completeExceptionally(new UncheckedIOException(new IOException("Connection closed")));
+            return response;
+        }
+        outbox.send(id + " " + request);
+        return response;
+    }
+
+    private void readResponses() {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                int s1 = line.indexOf(' ');
+                if (s1 < 0) continue;
+                long id;
+                try {
+                    id = Long.parseLong(line.substring(0, s1));
+                } catch (NumberFormatException e) {
+                    continue; // an error the server could not tie to a request
+                }
+                CompletableFuture<String> response = pending.remove(id);
+                if (response == null) continue;
+                if (line.startsWith("OK", s1 + 1)) {
+                    response.complete(line.length() > s1 + 3 ? line.substring(s1 + 4) : "");
+                } else {
+                    // "ERR <CODE> <message>"
+                    int s2 = line.indexOf(' ', s1 + 5);
+                    String code = s2 < 0 ? line.substring(s1 + 5) : line.substring(s1 + 5, s2);
+                    response.completeExceptionally(BankProtocol.error(code, s2 < 0 ? "" : line.substring(s2 + 1)));
+                }
+            }
+        } catch (IOException e) {
+            // fall through and fail whatever is outstanding
+        } finally {
+            closed = true;
+            IOException gone = new IOException("Connection closed");
+            pending.values().forEach(f -> f.completeExceptionally(new UncheckedIOException(gone)));
+            pending.clear();
+        }
+    }
+
+    public int outstanding() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        socket.close();
+        outbox.close();
+    }
+}
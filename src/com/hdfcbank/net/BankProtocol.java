@@ -0,0 +1,242 @@
+package com.hdfcbank.net;
+
+import com.hdfcbank.exception.InsufficientBalanceException;
+import com.hdfcbank.exception.InvalidAccountException;
+import com.hdfcbank.exception.VelocityLimitExceededException;
+import com.hdfcbank.model.Leg;
+import com.hdfcbank.model.Receipt;
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.service.BankService;
+import com.hdfcbank.util.IDGenerator;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Line protocol spoken by BankServer and BankClient. Every request and response is one line of
+// space-separated ASCII fields, so a session can be typed by hand with nc/telnet:
+//
+//   request:  <id> <COMMAND> <arg>...
+//   response: <id> OK [<value>...]
+//             <id> ERR <CODE> <message>
+//
+// <id> is any non-negative number the client picks; the response echoes it. A client may send any
+// number of requests without waiting (pipelining); they run concurrently and responses come back in
+// completion order, so a request that must follow another is only sent once the first has answered.
+// Amounts are in paise. A posting sent with an idempotency key answers OK <txnId>, followed by
+// REPLAY when the key had already been used and nothing new was posted; resending it after a
+// timeout is therefore always safe.
+//
+//   PING                                          -> OK
+//   REGISTER <email> <phone> <yyyy-mm-dd> <name>  -> OK <customerId>      (name may contain spaces)
+//   OPEN <customerId> <SAVINGS|CURRENT> <paise>   -> OK <accountId>
+//   DEPOSIT <accountId> <paise> [<key>]           -> OK
+//   WITHDRAW <accountId> <paise> [<key>]          -> OK
+//   TRANSFER <fromAccountId> <toAccountId> <paise> [<key>] -> OK
+//   POST <DR|CR>:<accountId>:<paise> ...          -> OK <txnId>          (all legs or none)
+//   BALANCE <accountId> [<timestamp>]             -> OK <paise>           (as of just before the timestamp)
+//   STATEMENT <accountId> <limit> [<beforeTxnId>] -> OK <txnId>,<TYPE>,<paise>,<timestamp>,<balance> ...  (newest first)
+public final class BankProtocol {
+    public static final int MAX_STATEMENT = 1000;
+
+    // Error codes
+    public static final String INSUFFICIENT_BALANCE = "INSUFFICIENT_BALANCE";
+    public static final String VELOCITY_LIMIT = "VELOCITY_LIMIT";
+    public static final String INVALID_ACCOUNT = "INVALID_ACCOUNT";
+    public static final String INVALID_ARGUMENT = "INVALID_ARGUMENT";
+    public static final String BAD_REQUEST = "BAD_REQUEST";
+    public static final String INTERNAL = "INTERNAL";
+
+    private BankProtocol() {}
+
+    // Runs one request line against the bank and returns the response line (without the newline)
+    public static String execute(BankService bank, String line) {
+        int space = line.indexOf(' ');
+        String id = space < 0 ? line : line.substring(0, space);
+        if (!isId(id)) return "- ERR " + BAD_REQUEST + " Request must start with a numeric id";
+        try {
+            return id + " OK" + dispatch(bank, space < 0 ? "" : line.substring(space + 1));
+        } catch (RuntimeException e) {
+            return id + " ERR " + codeOf(e) + " " + message(e);
+        }
+    }
+
+    // True for requests that only read, which never wait on the journal
+    public static boolean isRead(String line) {
+        int from = line.indexOf(' ') + 1;
+        return from > 0 && (line.startsWith("BALANCE ", from) || line.startsWith("STATEMENT ", from)
+                || line.startsWith("PING", from));
+    }
+
+    private static String dispatch(BankService bank, String request) {
+        String[] f = request.split(" ", -1);
+        switch (f[0]) {
+            case "PING" -> {
+                return "";
+            }
+            case "REGISTER" -> {
+                String[] r = request.split(" ", 5);
+                arity(r, 5, 5);
+                return " " + bank.registerCustomer(r[4], r[1], r[2], r[3]).getCustomerId();
+            }
+            case "OPEN" -> {
+                arity(f, 4, 4);
+                AccountType type;
+                try {
+                    type = AccountType.valueOf(f[2]);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown account type " + f[2]);
+                }
+                long balance = amount(f[3]);
+                if (balance < 0) throw new IllegalArgumentException("Opening balance cannot be negative");
+                return " " + bank.createAccount(f[1], type, balance).getAccountId();
+            }
+            case "DEPOSIT" -> {
+                arity(f, 3, 4);
+                if (f.length == 4) return receipt(bank.deposit(f[1], positive(f[2]), f[3]));
+                bank.deposit(f[1], positive(f[2]));
+                return "";
+            }
+            case "WITHDRAW" -> {
+                arity(f, 3, 4);
+                if (f.length == 4) return receipt(bank.withdraw(f[1], positive(f[2]), f[3]));
+                bank.withdraw(f[1], positive(f[2]));
+                return "";
+            }
+            case "TRANSFER" -> {
+                arity(f, 4, 5);
+                if (f.length == 5) return receipt(bank.transfer(f[1], f[2], positive(f[3]), f[4]));
+                bank.transfer(f[1], f[2], positive(f[3]));
+                return "";
+            }
+            case "POST" -> {
+                if (f.length < 3) throw new Malformed("POST takes at least 2 legs");
+                List<Leg> legs = new ArrayList<>(f.length - 1);
+                for (int i = 1; i < f.length; i++) legs.add(leg(f[i]));
+                return " " + bank.post(legs).get(0).getTxnId();
+            }
+            case "BALANCE" -> {
+                arity(f, 2, 3);
+                if (f.length == 3) return " " + bank.getBalanceAsOf(f[1], timestamp(f[2]));
+                var acc = bank.getAccount(f[1]);
+                if (acc == null) throw new InvalidAccountException("Invalid Account");
+                return " " + acc.getBalance();
+            }
+            case "STATEMENT" -> {
+                arity(f, 3, 4);
+                int limit = (int) Math.min(amount(f[2]), MAX_STATEMENT);
+                if (limit <= 0) throw new IllegalArgumentException("Limit must be positive");
+                if (bank.getAccount(f[1]) == null) throw new InvalidAccountException("Invalid Account");
+                StringBuilder sb = new StringBuilder();
+                for (Transaction t : bank.getTransactions(f[1], f.length == 4 ? f[3] : null, limit)) {
+                    sb.append(' ').append(t.getTxnId()).append(',').append(t.getType().name()).append(',')
+                            .append(t.getAmount()).append(',').append(t.getDate()).append(',').append(t.getBalanceAfter());
+                }
+                return sb.toString();
+            }
+            default -> throw new Malformed("Unknown command " + f[0]);
+        }
+    }
+
+    // DR:<accountId>:<paise> or CR:<accountId>:<paise>
+    private static Leg leg(String field) {
+        String[] p = field.split(":", -1);
+        if (p.length != 3 || !(p[0].equals("DR") || p[0].equals("CR"))) throw new Malformed("Not a leg: " + field);
+        return p[0].equals("DR") ? Leg.debit(p[1], amount(p[2])) : Leg.credit(p[1], amount(p[2]));
+    }
+
+    // Request field for one leg, as leg() parses it
+    public static String field(Leg leg) {
+        return (leg.isDebit() ? "DR:" : "CR:") + leg.getAccountId() + ":" + leg.getAmount();
+    }
+
+    private static String receipt(Receipt r) {
+        return " " + r.getTxnId() + (r.isReplayed() ? " REPLAY" : "");
+    }
+
+    // The server-side exception a response's error code stands for, so a client call fails the same
+    // way the local BankService call would have
+    public static RuntimeException error(String code, String message) {
+        return switch (code) {
+            case INSUFFICIENT_BALANCE -> new InsufficientBalanceException(message);
+            case VELOCITY_LIMIT -> new VelocityLimitExceededException(message);
+            case INVALID_ACCOUNT -> new InvalidAccountException(message);
+            case INVALID_ARGUMENT -> new IllegalArgumentException(message);
+            default -> new IllegalStateException(code + ": " + message);
+        };
+    }
+
+    // Parses the values of a STATEMENT response
+    public static List<Transaction> transactions(String accountId, String values) {
+        List<Transaction> list = new ArrayList<>();
+        if (values.isEmpty()) return list;
+        for (String v : values.split(" ")) {
+            String[] p = v.split(",", 5);
+            list.add(new Transaction(IDGenerator.txnNumber(p[0]), accountId, TransactionType.valueOf(p[1]),
+                    Long.parseLong(p[2]), LocalDateTime.parse(p[3]), Long.parseLong(p[4])));
+        }
+        return list;
+    }
+
+    private static String codeOf(RuntimeException e) {
+        if (e instanceof InsufficientBalanceException) return INSUFFICIENT_BALANCE;
+        if (e instanceof VelocityLimitExceededException) return VELOCITY_LIMIT;
+        if (e instanceof InvalidAccountException) return INVALID_ACCOUNT;
+        if (e instanceof Malformed) return BAD_REQUEST;
+        if (e instanceof IllegalArgumentException) return INVALID_ARGUMENT;
+        return INTERNAL;
+    }
+
+    private static String message(RuntimeException e) {
+        String m = e.getMessage();
+        if (m == null || m.isBlank()) return e.getClass().getSimpleName();
+        return m.replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private static void arity(String[] fields, int min, int max) {
+        if (fields.length < min || fields.length > max) {
+            throw new Malformed(fields[0] + " takes " + (min == max ? min - 1 : (min - 1) + "-" + (max - 1)) + " argument(s)");
+        }
+    }
+
+    private static long positive(String field) {
+        long amt = amount(field);
+        if (amt <= 0) throw new IllegalArgumentException("Amount must be positive");
+        return amt;
+    }
+
+    private static long amount(String field) {
+        try {
+            return Long.parseLong(field);
+        } catch (NumberFormatException e) {
+            throw new Malformed("Not a number: " + field);
+        }
+    }
+
+    private static LocalDateTime timestamp(String field) {
+        try {
+            return LocalDateTime.parse(field);
+        } catch (DateTimeParseException e) {
+            throw new Malformed("Not a timestamp: " + field);
+        }
+    }
+
+    private static boolean isId(String s) {
+        if (s.isEmpty() || s.length() > 18) return false;
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch < '0' || ch > '9') return false;
+        }
+        return true;
+    }
+
+    // A request the protocol cannot parse, as opposed to one the bank rejected
+    private static final class Malformed extends RuntimeException {
+        Malformed(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.hdfcbank.net;
+
+import com.hdfcbank.service.BankService;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Serves a BankService over TCP using BankProtocol. Each connection gets a virtual thread that reads
+// request lines and starts one virtual thread per request, so pipelined requests from one client
+// run concurrently and a posting waiting on its journal fsync parks nothing but its own thread
+// (and shares the group commit with every other request in flight). Responses go back through the
+// connection's Outbox as they complete. A connection may have at most MAX_IN_FLIGHT requests
+// running, reads included, and at most Outbox.CAPACITY answers waiting to be written; past either
+// its reader stops reading, and TCP flow control pushes back on the client.
+//
+// Requests that never wait (reads, and every request when the bank has no journal to sync) can
+// instead run right on the reader thread: that skips a thread hand-off per request, which on a
+// busy in-memory bank is worth more throughput and a much shorter latency tail than the overlap.
+public class BankServer implements Closeable {
+    public static final int DEFAULT_PORT = 7070;
+    private static final int MAX_IN_FLIGHT = 1024; // per connection
+    private static final int MAX_LINE = 8 << 10; // bytes
+
+    private final BankService bank;
+    private final boolean inline; // run every request on the reader thread
+    private final ServerSocket listener;
+    private final ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    private BankServer(BankService bank, boolean inline, ServerSocket listener) {
+        this.bank = bank;
+        this.inline = inline;
+        this.listener = listener;
+        this.acceptor = Thread.ofPlatform().name("bank-server").daemon().unstarted(this::accept);
+    }
+
+    // Listens on loopback only; port 0 picks a free port, see port()
+    public static BankServer start(BankService bank, int port) throws IOException {
+        return start(bank, port, false);
+    }
+
+    // 'inline' is only for banks whose postings never block, i.e. without a journal
+    public static BankServer start(BankService bank, int port, boolean inline) throws IOException {
+        return start(bank, InetAddress.getLoopbackAddress(), port, inline);
+    }
+
+    // The protocol has no authentication, so reaching the server from other hosts has to be asked
+    // for by binding a wider address (the wildcard 0.0.0.0 means every interface)
+    public static BankServer start(BankService bank, InetAddress bindAddress, int port, boolean inline) throws IOException {
+        ServerSocket listener = new ServerSocket();
+        listener.setReuseAddress(true);
+        listener.bind(new InetSocketAddress(bindAddress, port), 1024);
+        BankServer server = new BankServer(bank, inline, listener);
+        server.acceptor.start();
+        return server;
+    }
+
+    public int port() {
+        return listener.getLocalPort();
+    }
+
+    public InetAddress address() {
+        return listener.getInetAddress();
+    }
+
+    public int connectionCount() {
+        return connections.size();
+    }
+
+    // Blocks until the server is closed
+    public void awaitClose() throws InterruptedException {
+        acceptor.join();
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket socket = listener.accept();
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                if (closed) {
+                    close(socket);
+                    break;
+                }
+                Thread.ofVirtual().name("bank-conn-" + socket.getPort()).start(() -> serve(socket));
+            } catch (IOException e) {
+                if (!closed) System.err.println("Accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        Outbox outbox = null;
+        try {
+            LineReader in = new LineReader(socket.getInputStream(), MAX_LINE, 64 << 10);
+            outbox = new Outbox(socket.getOutputStream(), "bank-out-" + socket.getPort(), () -> close(socket));
+            Outbox out = outbox;
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line == LineReader.TOO_LONG) {
+                    out.send("- ERR " + BankProtocol.BAD_REQUEST + " Line longer than " + MAX_LINE + " bytes");
+                    continue;
+                }
+                if (line.isEmpty()) continue;
+                inFlight.acquire();
+                if (inline || BankProtocol.isRead(line)) {
+                    try {
+                        out.send(BankProtocol.execute(bank, line));
+                    } finally {
+                        inFlight.release();
+                    }
+                    continue;
+                }
+                String request = line;
+                requests.execute(() -> {
+                    try {
+                        out.send(BankProtocol.execute(bank, request));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            // Client finished sending; answer what is still running before closing
+            inFlight.acquire(MAX_IN_FLIGHT);
+        } catch (SocketException e) {
+            // connection reset or closed by close()
+        } catch (IOException e) {
+            if (!closed) System.err.println("Connection failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (outbox != null) outbox.close();
+            else close(socket);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        listener.close();
+        for (Socket s : connections) close(s);
+        requests.shutdown();
+        try {
+            requests.awaitTermination(5, TimeUnit.SECONDS);
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void close(Socket socket) {
+        connections.remove(socket);
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // already gone
+        }
+    }
+}
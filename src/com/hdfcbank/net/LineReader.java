@@ -0,0 +1,57 @@
+package com.hdfcbank.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+// Reads '\n'-terminated UTF-8 lines (a trailing '\r' is dropped) without ever holding more than
+// maxLine bytes of one: the rest of a longer line is skipped as it arrives, and the line comes back
+// as TOO_LONG. BufferedReader.readLine() buffers a line whole, however long, before anyone can
+// check its length.
+final class LineReader {
+    static final String TOO_LONG = new String("too long"); // compared by identity
+
+    private final InputStream in;
+    private final byte[] buf;
+    private final byte[] line;
+    private int pos;
+    private int limit;
+
+    LineReader(InputStream in, int maxLine, int bufferSize) {
+        this.in = in;
+        this.buf = new byte[bufferSize];
+        this.line = new byte[maxLine];
+    }
+
+    // The next line, TOO_LONG, or null at end of stream; a last line without '\n' still counts
+    String readLine() throws IOException {
+        int len = 0;
+        boolean tooLong = false;
+        while (true) {
+            if (pos == limit) {
+                int n = in.read(buf);
+                if (n < 0) return tooLong ? TOO_LONG : len == 0 ? null : decode(len);
+                pos = 0;
+                limit = n;
+            }
+            int end = pos;
+            while (end < limit && buf[end] != '\n') end++;
+            int n = end - pos;
+            if (!tooLong && len + n > line.length) tooLong = true;
+            if (!tooLong) {
+                System.arraycopy(buf, pos, line, len, n);
+                len += n;
+            }
+            if (end < limit) {
+                pos = end + 1;
+                return tooLong ? TOO_LONG : decode(len);
+            }
+            pos = limit;
+        }
+    }
+
+    private String decode(int len) {
+        if (len > 0 && line[len - 1] == '\r') len--;
+        return new String(line, 0, len, StandardCharsets.UTF_8);
+    }
+}
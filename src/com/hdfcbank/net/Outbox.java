@@ -0,0 +1,74 @@
+package com.hdfcbank.net;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+// Writes lines to a socket from a single virtual thread. Senders only enqueue, and the writer
+// drains everything queued before it flushes, so under pipelined load many lines share one write
+// system call while a lone line still goes out immediately. The queue is bounded: once a peer stops
+// reading, senders block until it catches up instead of piling its responses up in memory.
+final class Outbox {
+    static final int CAPACITY = 1024; // lines
+    private static final String CLOSE = new String("close"); // compared by identity
+
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>(CAPACITY);
+    private final Writer out;
+    private final Runnable onExit;
+    private volatile boolean stopped; // the writer has exited; nothing more will be written
+
+    // 'onExit' runs once the writer stops, after close() or a failed write
+    Outbox(OutputStream stream, String name, Runnable onExit) {
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 64 << 10);
+        this.onExit = onExit;
+        Thread.ofVirtual().name(name).start(this::drain);
+    }
+
+    // Blocks while the queue is full. Once the writer has stopped, lines are dropped: clearing after
+    // the put frees any sender still blocked on the full queue.
+    void send(String line) {
+        if (stopped) return;
+        try {
+            queue.put(line);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (stopped) queue.clear();
+    }
+
+    // Lines already queued are still written
+    void close() {
+        send(CLOSE);
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                String line = queue.take();
+                do {
+                    if (line == CLOSE) {
+                        out.flush();
+                        return;
+                    }
+                    out.write(line);
+                    out.write('\n');
+                } while ((line = queue.poll()) != null);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // the peer is gone; onExit tears the connection down
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped = true;
+            queue.clear();
+            onExit.run();
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.hdfcbank.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+// Append-only write-ahead log. The file starts with [int magic][long base LSN] and each entry after
+// that is [int length][int crc32][payload]. LSNs count bytes of entries from the start of the log,
+// so a record's LSN is the file offset just past it plus base minus the header.
+//
+// append() never blocks: it reserves the record's LSN (the file offset just past it) with a single
+// atomic add and hands the encoded bytes to a lock-free queue. That matters because postings are
+// appended while account monitors are held. A single flusher thread puts queued records back into
+// LSN order and writes whatever has accumulated with one FileChannel write + force, so every caller
+// waiting in awaitDurable() during that window shares the same fsync (group commit). Waiters park
+// individually and the flusher unparks exactly those its fsync covered, so a large number of
+// in-flight callers costs nothing per flush beyond their own wake-up.
+//
+// close() lets every append that got past the closed check finish enqueueing, then the flusher
+// writes and forces all of it before exiting. A waiter whose record could not be written is failed
+// rather than left parked.
+//
+// Once a snapshot covers everything before some LSN, truncateBefore() drops that prefix: between two
+// flushes the flusher copies the tail into a new file whose base is that LSN and atomically renames
+// it over the old one, so the journal on disk is always either the old file or the complete new one.
+public class Journal implements Closeable {
+    private static final int MAGIC = 0x48424A31; // "HBJ1"
+    private static final int FILE_HEADER_BYTES = 12;
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+    private static final int BATCH_BYTES = 1 << 20;
+    private static final int TYPICAL_RECORD_BYTES = 256;
+
+    private final Path file;
+    private FileChannel channel; // replaced by the flusher when the journal is rolled
+    private long base; // LSN of the first entry's start in the current file; flusher-owned
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong appendedLsn;
+    private final AtomicLong recordCount = new AtomicLong();
+    private final AtomicInteger appending = new AtomicInteger(); // appends between the closed check and enqueueing
+    private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Roll> rolls = new ConcurrentLinkedQueue<>();
+    private final Thread flusher;
+    private volatile boolean flusherIdle;
+    private volatile long durableLsn;
+    private volatile long syncCount;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private Journal(Path file, FileChannel channel, long base, long end) {
+        this.file = file;
+        this.channel = channel;
+        this.base = base;
+        this.appendedLsn = new AtomicLong(end);
+        this.durableLsn = end;
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // Opens (or creates) the journal, feeding every intact record from 'fromLsn' onwards to 'replay'
+    // together with its LSN. A torn or corrupt tail left by a crash is truncated away before new
+    // appends start. A journal rolled past 'fromLsn' needs the snapshot it was rolled for.
+    public static Journal open(Path file, long fromLsn, ObjLongConsumer<JournalRecord> replay) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long base;
+            if (channel.size() < FILE_HEADER_BYTES) {
+                // New, or created by a crash before its header was forced: nothing was ever appended
+                channel.truncate(0);
+                base = writeHeader(channel, 0);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+                while (header.hasRemaining()) channel.read(header, header.position());
+                if (header.getInt(0) != MAGIC) throw new IOException("Not a bank journal: " + file);
+                base = header.getLong(4);
+            }
+            if (fromLsn < base) {
+                throw new IOException("Journal " + file + " starts at LSN " + base + ", after " + fromLsn
+                        + ": the snapshot it was rolled for is missing");
+            }
+            long end = read(channel, base, fromLsn, replay);
+            channel.truncate(FILE_HEADER_BYTES + end - base);
+            channel.position(FILE_HEADER_BYTES + end - base);
+            return new Journal(file, channel, base, end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static Journal open(Path file, ObjLongConsumer<JournalRecord> replay) throws IOException {
+        return open(file, 0, replay);
+    }
+
+    public long append(JournalRecord record) {
+        byte[] bytes = encode(record);
+
+        // Counted before the closed check, so a closing flusher that sees no append in progress
+        // knows every reserved LSN is already queued
+        appending.incrementAndGet();
+        try {
+            if (closed) throw new IllegalStateException("Journal is closed");
+            IOException error = failure;
+            if (error != null) throw new UncheckedIOException(error);
+            long lsn = appendedLsn.addAndGet(bytes.length);
+            queue.add(new Entry(lsn, bytes));
+            recordCount.incrementAndGet();
+            // While a flush is running new records simply pile up for the next one; only wake an idle flusher
+            if (flusherIdle) LockSupport.unpark(flusher);
+            return lsn;
+        } finally {
+            appending.decrementAndGet();
+        }
+    }
+
+    // No per-thread scratch buffer: with one virtual thread per request that would mean one per request
+    private static byte[] encode(JournalRecord record) {
+        for (int capacity = TYPICAL_RECORD_BYTES; ; capacity *= 2) {
+            ByteBuffer buf = ByteBuffer.allocate(capacity).position(HEADER_BYTES);
+            try {
+                JournalCodec.encode(record, buf);
+            } catch (BufferOverflowException e) {
+                if (capacity >= HEADER_BYTES + MAX_RECORD_BYTES) {
+                    throw new IllegalArgumentException("Journal record too large");
+                }
+                continue;
+            }
+            int len = buf.position() - HEADER_BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(buf.array(), HEADER_BYTES, len);
+            buf.putInt(0, len).putInt(4, (int) crc.getValue());
+            return buf.position() == capacity ? buf.array() : Arrays.copyOf(buf.array(), buf.position());
+        }
+    }
+
+    // Blocks until everything up to 'lsn' has been forced to disk
+    public void awaitDurable(long lsn) {
+        if (durableLsn >= lsn) return;
+        // Registered before re-checking, so a flush that lands in between still finds this waiter
+        waiters.add(new Waiter(lsn, Thread.currentThread()));
+        while (durableLsn < lsn) {
+            IOException error = failure;
+            if (error != null) throw new UncheckedIOException(error);
+            LockSupport.park(this);
+        }
+    }
+
+    // Drops every record that ends at or before 'lsn', which a published snapshot must cover. Appends
+    // and flushes carry on meanwhile; only the flusher's next batch waits for the copy of the tail.
+    public void truncateBefore(long lsn) throws IOException {
+        awaitDurable(lsn);
+        Roll roll = new Roll(lsn, Thread.currentThread());
+        rolls.add(roll);
+        LockSupport.unpark(flusher);
+        while (!roll.done) {
+            IOException error = failure;
+            if (error != null) throw error;
+            LockSupport.park(this);
+        }
+        if (roll.error != null) throw roll.error;
+    }
+
+    public long durableLsn() { return durableLsn; }
+    public long appendedLsn() { return appendedLsn.get(); }
+    public long syncCount() { return syncCount; }
+    public long recordCount() { return recordCount.get(); }
+
+    private void flushLoop() {
+        // Appenders reserve LSNs and enqueue in slightly different orders, so a record waits here
+        // until the gap in front of it is filled
+        PriorityQueue<Entry> ordered = new PriorityQueue<>((a, b) -> Long.compare(a.lsn, b.lsn));
+        PriorityQueue<Waiter> parked = new PriorityQueue<>((a, b) -> Long.compare(a.lsn, b.lsn));
+        ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BYTES);
+        long written = durableLsn;
+        while (true) {
+            // Everything written so far is forced, so the tail can be copied as it stands
+            for (Roll r = rolls.poll(); r != null; r = rolls.poll()) {
+                try {
+                    roll(r.lsn, written);
+                } catch (IOException e) {
+                    r.error = e;
+                }
+                r.done = true;
+                LockSupport.unpark(r.thread);
+            }
+            // Read before draining the queue: once closed with no append in progress, nothing more can arrive
+            boolean last = closed && appending.get() == 0;
+            for (Entry e = queue.poll(); e != null; e = queue.poll()) ordered.add(e);
+            long target = written;
+            while (!ordered.isEmpty() && ordered.peek().start() == target) {
+                Entry e = ordered.peek();
+                if (batch.remaining() < e.bytes.length) {
+                    if (batch.position() > 0) break;
+                    batch = ByteBuffer.allocateDirect(e.bytes.length);
+                }
+                ordered.poll();
+                batch.put(e.bytes);
+                target = e.lsn;
+            }
+
+            if (target == written) {
+                if (last) {
+                    if (!ordered.isEmpty()) failure = new IOException("Journal closed with a gap before LSN " + ordered.peek().lsn);
+                    break;
+                }
+                if (closed) {
+                    Thread.yield(); // an append that passed the closed check is still enqueueing
+                    continue;
+                }
+                flusherIdle = true;
+                if (queue.isEmpty() && !closed) LockSupport.park(this);
+                flusherIdle = false;
+                continue;
+            }
+
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) channel.write(batch);
+                channel.force(false);
+            } catch (IOException e) {
+                failure = e;
+                break;
+            }
+            if (batch.capacity() != BATCH_BYTES) batch = ByteBuffer.allocateDirect(BATCH_BYTES);
+            batch.clear();
+            written = target;
+            syncCount++;
+            durableLsn = target;
+            for (Waiter w = waiters.poll(); w != null; w = waiters.poll()) parked.add(w);
+            while (!parked.isEmpty() && parked.peek().lsn <= target) LockSupport.unpark(parked.poll().thread);
+        }
+        // Nobody still waiting will see its record forced
+        if (failure == null) failure = new IOException("Journal is closed");
+        for (Waiter w = waiters.poll(); w != null; w = waiters.poll()) parked.add(w);
+        parked.forEach(w -> LockSupport.unpark(w.thread));
+        for (Roll r = rolls.poll(); r != null; r = rolls.poll()) LockSupport.unpark(r.thread);
+    }
+
+    // Replaces the file with one holding only the entries after 'lsn' (up to 'written'). On failure
+    // the old file stays in place and the journal keeps appending to it.
+    private void roll(long lsn, long written) throws IOException {
+        if (lsn <= base) return;
+        Path tmp = file.resolveSibling(file.getFileName() + ".roll");
+        FileChannel next = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            writeHeader(next, lsn);
+            long end = FILE_HEADER_BYTES + written - base;
+            for (long pos = FILE_HEADER_BYTES + lsn - base; pos < end; ) pos += channel.transferTo(pos, end - pos, next);
+            next.force(false);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            next.close();
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        FileChannel old = channel;
+        channel = next;
+        base = lsn;
+        old.close();
+    }
+
+    private static long writeHeader(FileChannel channel, long base) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putLong(base).flip();
+        while (header.hasRemaining()) channel.write(header);
+        channel.force(false);
+        return base;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private static long read(FileChannel channel, long base, long from, ObjLongConsumer<JournalRecord> replay)
+            throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(BATCH_BYTES).limit(0);
+        CRC32 crc = new CRC32();
+        long pos = from;
+        channel.position(FILE_HEADER_BYTES + from - base);
+        while (true) {
+            if (buf.remaining() < HEADER_BYTES && !fill(channel, buf, HEADER_BYTES)) break;
+            int len = buf.getInt(buf.position());
+            int checksum = buf.getInt(buf.position() + 4);
+            if (len <= 0 || len > MAX_RECORD_BYTES) break;
+            if (buf.remaining() < HEADER_BYTES + len && !fill(channel, buf, HEADER_BYTES + len)) break;
+
+            int start = buf.position() + HEADER_BYTES;
+            crc.reset();
+            crc.update(buf.array(), buf.arrayOffset() + start, len);
+            if ((int) crc.getValue() != checksum) break;
+
+            JournalRecord record = JournalCodec.decode(buf.slice(start, len));
+            buf.position(start + len);
+            pos += HEADER_BYTES + len;
+            replay.accept(record, pos);
+        }
+        return pos;
+    }
+
+    // Tops the buffer up to at least 'need' readable bytes; false if the file ends first
+    private static boolean fill(FileChannel channel, ByteBuffer buf, int need) throws IOException {
+        buf.compact();
+        while (buf.position() < need) {
+            if (channel.read(buf) < 0) {
+                buf.flip();
+                return false;
+            }
+        }
+        buf.flip();
+        return true;
+    }
+
+    private record Waiter(long lsn, Thread thread) {}
+
+    private static final class Roll {
+        final long lsn;
+        final Thread thread;
+        volatile boolean done;
+        volatile IOException error;
+
+        Roll(long lsn, Thread thread) {
+            this.lsn = lsn;
+            this.thread = thread;
+        }
+    }
+
+    private record Entry(long lsn, byte[] bytes) {
+        long start() { return lsn - bytes.length; }
+    }
+}
@@ -0,0 +1,141 @@
+package com.hdfcbank.persistence;
+
+import com.hdfcbank.model.Leg;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.model.enums.TransactionType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Binary payload layout of journal records: a one-byte tag followed by the record's fields
+final class JournalCodec {
+    private static final byte CUSTOMER_REGISTERED = 1;
+    private static final byte ACCOUNT_OPENED = 2;
+    private static final byte POSTING = 3;
+    private static final byte INTEREST_POSTED = 4;
+    private static final byte KEYED_POSTING = 5;
+    private static final byte MULTI_LEG_POSTING = 6;
+
+    private JournalCodec() {}
+
+    static void encode(JournalRecord record, ByteBuffer out) {
+        switch (record) {
+            case JournalRecord.CustomerRegistered c -> {
+                out.put(CUSTOMER_REGISTERED);
+                putString(out, c.customerId());
+                putString(out, c.name());
+                putString(out, c.email());
+                putString(out, c.phone());
+                out.putLong(c.dob().toEpochDay());
+            }
+            case JournalRecord.AccountOpened a -> {
+                out.put(ACCOUNT_OPENED);
+                putString(out, a.accountId());
+                putString(out, a.customerId());
+                out.put((byte) a.type().ordinal());
+                out.putLong(a.openingBalance());
+            }
+            case JournalRecord.Posting p -> {
+                out.put(POSTING);
+                putPosting(out, p);
+            }
+            case JournalRecord.KeyedPosting k -> {
+                out.put(KEYED_POSTING);
+                putPosting(out, k.posting());
+                putString(out, k.key());
+                out.putLong(k.recordedAt());
+            }
+            case JournalRecord.MultiLegPosting m -> {
+                out.put(MULTI_LEG_POSTING);
+                putString(out, m.txnId());
+                out.put((byte) m.legs().size());
+                for (Leg leg : m.legs()) {
+                    putString(out, leg.getAccountId());
+                    out.put((byte) (leg.isDebit() ? 1 : 0));
+                    out.putLong(leg.getAmount());
+                }
+                out.putLong(m.date().toEpochSecond(ZoneOffset.UTC));
+                out.putInt(m.date().getNano());
+            }
+            case JournalRecord.InterestPosted i -> {
+                out.put(INTEREST_POSTED);
+                putString(out, i.txnId());
+                putString(out, i.accountId());
+                out.putShort((short) i.period().getYear());
+                out.put((byte) i.period().getMonthValue());
+                out.putLong(i.amount());
+                out.putLong(i.date().toEpochSecond(ZoneOffset.UTC));
+                out.putInt(i.date().getNano());
+            }
+        }
+    }
+
+    static JournalRecord decode(ByteBuffer in) {
+        byte tag = in.get();
+        return switch (tag) {
+            case CUSTOMER_REGISTERED -> new JournalRecord.CustomerRegistered(getString(in), getString(in),
+                    getString(in), getString(in), LocalDate.ofEpochDay(in.getLong()));
+            case ACCOUNT_OPENED -> new JournalRecord.AccountOpened(getString(in), getString(in),
+                    AccountType.values()[in.get()], in.getLong());
+            case POSTING -> getPosting(in);
+            case KEYED_POSTING -> new JournalRecord.KeyedPosting(getPosting(in), getString(in), in.getLong());
+            case MULTI_LEG_POSTING -> getMultiLegPosting(in);
+            case INTEREST_POSTED -> new JournalRecord.InterestPosted(getString(in), getString(in),
+                    YearMonth.of(in.getShort(), in.get()), in.getLong(),
+                    LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC));
+            default -> throw new IllegalStateException("Unknown journal record tag " + tag);
+        };
+    }
+
+    private static void putPosting(ByteBuffer out, JournalRecord.Posting p) {
+        putString(out, p.txnId());
+        out.put((byte) p.type().ordinal());
+        putString(out, p.accountId());
+        putString(out, p.counterpartyId());
+        out.putLong(p.amount());
+        out.putLong(p.date().toEpochSecond(ZoneOffset.UTC));
+        out.putInt(p.date().getNano());
+    }
+
+    private static JournalRecord.Posting getPosting(ByteBuffer in) {
+        return new JournalRecord.Posting(getString(in), TransactionType.values()[in.get()], getString(in),
+                getString(in), in.getLong(), LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC));
+    }
+
+    private static JournalRecord.MultiLegPosting getMultiLegPosting(ByteBuffer in) {
+        String txnId = getString(in);
+        int n = in.get() & 0xFF;
+        List<Leg> legs = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String accountId = getString(in);
+            boolean debit = in.get() != 0;
+            long amount = in.getLong();
+            legs.add(debit ? Leg.debit(accountId, amount) : Leg.credit(accountId, amount));
+        }
+        return new JournalRecord.MultiLegPosting(txnId, legs, LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC));
+    }
+
+    static void putString(ByteBuffer out, String s) {
+        if (s == null) {
+            out.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    static String getString(ByteBuffer in) {
+        int len = in.getShort();
+        if (len < 0) return null;
+        String s = new String(in.array(), in.arrayOffset() + in.position(), len, StandardCharsets.UTF_8);
+        in.position(in.position() + len);
+        return s;
+    }
+}
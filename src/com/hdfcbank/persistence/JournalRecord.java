@@ -0,0 +1,55 @@
+package com.hdfcbank.persistence;
+
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.Leg;
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.model.enums.TransactionType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+// One durable state change. Replaying every record in journal order rebuilds the bank.
+public sealed interface JournalRecord {
+
+    record CustomerRegistered(String customerId, String name, String email, String phone, LocalDate dob)
+            implements JournalRecord {
+        public static CustomerRegistered of(Customer c) {
+            return new CustomerRegistered(c.getCustomerId(), c.getName(), c.getEmail(), c.getPhone(), c.getDob());
+        }
+    }
+
+    record AccountOpened(String accountId, String customerId, AccountType type, long openingBalance)
+            implements JournalRecord {
+        public static AccountOpened of(Account acc) {
+            return new AccountOpened(acc.getAccountId(), acc.getCustomer().getCustomerId(), acc.getType(), acc.getBalance());
+        }
+    }
+
+    // counterpartyId is the credited account of a TRANSFER (which gets a TRANSFER_IN entry) and null otherwise
+    record Posting(String txnId, TransactionType type, String accountId, String counterpartyId, long amount,
+                   LocalDateTime date) implements JournalRecord {
+        public static Posting of(Transaction txn, String counterpartyId) {
+            return new Posting(txn.getTxnId(), txn.getType(), txn.getAccountId(), counterpartyId, txn.getAmount(), txn.getDate());
+        }
+    }
+
+    // A posting made with an idempotency key; replaying it also re-arms the key, so the dedup window
+    // survives a restart. recordedAt is when the key was first claimed, in epoch millis.
+    record KeyedPosting(Posting posting, String key, long recordedAt) implements JournalRecord {}
+
+    // Every leg of one balanced multi-leg posting; each account gets a TRANSFER (debit) or TRANSFER_IN
+    // (credit) entry under the shared txnId
+    record MultiLegPosting(String txnId, List<Leg> legs, LocalDateTime date) implements JournalRecord {}
+
+    // Interest credited for 'period'; replaying it also marks the account as paid for that month
+    record InterestPosted(String txnId, String accountId, YearMonth period, long amount, LocalDateTime date)
+            implements JournalRecord {
+        public static InterestPosted of(Transaction txn, YearMonth period) {
+            return new InterestPosted(txn.getTxnId(), txn.getAccountId(), period, txn.getAmount(), txn.getDate());
+        }
+    }
+}
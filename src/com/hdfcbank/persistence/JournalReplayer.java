@@ -0,0 +1,117 @@
+package com.hdfcbank.persistence;
+
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.Leg;
+import com.hdfcbank.model.Receipt;
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.store.BankStore;
+import com.hdfcbank.util.IDGenerator;
+
+import java.util.function.ObjLongConsumer;
+
+// Applies journal records to a BankStore during startup, rebuilding customers, accounts,
+// balances and ledgers, and moving IDGenerator past every recovered ID.
+//
+// Replay is idempotent against a loaded snapshot: customers and accounts that already exist are
+// kept, and a posting is only applied to an account whose journal LSN is still below it. Keyed
+// postings re-arm their idempotency key either way.
+public class JournalReplayer implements ObjLongConsumer<JournalRecord> {
+    private final BankStore store;
+    private long applied;
+
+    public JournalReplayer(BankStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void accept(JournalRecord record, long lsn) {
+        switch (record) {
+            case JournalRecord.CustomerRegistered c -> {
+                if (store.getCustomer(c.customerId()) != null) return;
+                store.addCustomer(new Customer(c.customerId(), c.name(), c.email(), c.phone(), c.dob()));
+                IDGenerator.observeCustomerId(c.customerId());
+            }
+            case JournalRecord.AccountOpened a -> {
+                if (store.getAccount(a.accountId()) != null) return;
+                Customer customer = store.getCustomer(a.customerId());
+                if (customer == null) throw new IllegalStateException("Journal references unknown customer " + a.customerId());
+                store.addAccount(Account.of(a.accountId(), customer, a.type(), a.openingBalance()));
+                IDGenerator.observeAccountId(a.accountId());
+            }
+            case JournalRecord.Posting p -> posting(p, lsn);
+            case JournalRecord.KeyedPosting k -> {
+                posting(k.posting(), lsn);
+                JournalRecord.Posting p = k.posting();
+                store.idempotency().restore(k.key(), new Receipt(p.txnId(), p.type(), p.accountId(), p.counterpartyId(),
+                        p.amount(), p.date(), false), k.recordedAt());
+            }
+            case JournalRecord.MultiLegPosting m -> {
+                // Each account appears in one leg, so the legs can be decided independently
+                long txnNumber = IDGenerator.txnNumber(m.txnId());
+                for (Leg leg : m.legs()) {
+                    Account acc = account(leg.getAccountId());
+                    if (acc.getJournalLsn() >= lsn) continue;
+                    if (leg.isDebit()) acc.withdraw(leg.getAmount());
+                    else acc.deposit(leg.getAmount());
+                    store.aggregates().adjust(acc, leg.isDebit() ? -leg.getAmount() : leg.getAmount());
+                    store.append(new Transaction(txnNumber, leg.getAccountId(),
+                            leg.isDebit() ? TransactionType.TRANSFER : TransactionType.TRANSFER_IN, leg.getAmount(), m.date()));
+                    acc.setJournalLsn(lsn);
+                }
+                IDGenerator.observeTxnId(m.txnId());
+            }
+            case JournalRecord.InterestPosted i -> {
+                Account acc = account(i.accountId());
+                if (acc.getJournalLsn() < lsn) {
+                    acc.deposit(i.amount());
+                    store.aggregates().adjust(acc, i.amount());
+                    store.append(new Transaction(IDGenerator.txnNumber(i.txnId()), i.accountId(), TransactionType.INTEREST,
+                            i.amount(), i.date()));
+                    acc.setInterestPeriod(i.period());
+                    acc.setJournalLsn(lsn);
+                }
+                IDGenerator.observeTxnId(i.txnId());
+            }
+        }
+        applied++;
+    }
+
+    private void posting(JournalRecord.Posting p, long lsn) {
+        // Postings were journaled under the account monitors, so per-account order is the
+        // original execution order and every replayed debit passes its balance rule again.
+        //
+        // A transfer's legs are decided one account at a time: a fuzzy snapshot may have captured
+        // one account after the transfer and the other before it.
+        Account acc = account(p.accountId());
+        Account dest = p.counterpartyId() == null ? null : account(p.counterpartyId());
+        if (dest == acc) throw new IllegalStateException("Journal holds a self-transfer " + p.txnId());
+        long txnNumber = IDGenerator.txnNumber(p.txnId());
+        if (acc.getJournalLsn() < lsn) {
+            boolean credit = p.type().isCredit();
+            if (credit) acc.deposit(p.amount());
+            else acc.withdraw(p.amount());
+            store.aggregates().adjust(acc, credit ? p.amount() : -p.amount());
+            store.append(new Transaction(txnNumber, p.accountId(), p.type(), p.amount(), p.date()));
+            acc.setJournalLsn(lsn);
+        }
+        if (dest != null && dest.getJournalLsn() < lsn) {
+            dest.deposit(p.amount());
+            store.aggregates().adjust(dest, p.amount());
+            store.append(new Transaction(txnNumber, dest.getAccountId(), TransactionType.TRANSFER_IN, p.amount(), p.date()));
+            dest.setJournalLsn(lsn);
+        }
+        IDGenerator.observeTxnId(p.txnId());
+    }
+
+    public long getApplied() {
+        return applied;
+    }
+
+    private Account account(String accountId) {
+        Account acc = store.getAccount(accountId);
+        if (acc == null) throw new IllegalStateException("Journal references unknown account " + accountId);
+        return acc;
+    }
+}
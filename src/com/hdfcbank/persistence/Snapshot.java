@@ -0,0 +1,206 @@
+package com.hdfcbank.persistence;
+
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.Receipt;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.store.AccountLedger;
+import com.hdfcbank.store.BankStore;
+import com.hdfcbank.store.TransactionColumns;
+import com.hdfcbank.util.IDGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+// Compact binary image of every customer, account and ledger entry, taken while traffic keeps
+// running. Each account is captured atomically under its own monitor together with the journal
+// LSN of its last posting; the snapshot as a whole is fuzzy, and recovery replays the journal from
+// the snapshot's start LSN, skipping postings an account already reflects. Live idempotency keys
+// are written last: a keyed posting at or below the start LSN completes its key under the account
+// monitor the account section waits on, so by then every such key is in the cache.
+//
+// A ledger is saved as its TransactionColumns rows, column by column with their running nets, and
+// loading copies each column into the store's columns in bulk: no entry is rebuilt or re-posted.
+public final class Snapshot {
+    private static final int MAGIC = 0x48425334; // "HBS4"
+    private static final int NO_PERIOD = -1;
+    private static final byte ENTRY = 1;
+    private static final byte END = 0;
+
+    private Snapshot() {}
+
+    // Writes and forces the snapshot to a temporary sibling of 'file', returning its path. Every
+    // posting at or below 'startLsn' must already be applied in memory.
+    public static Path write(BankStore store, long startLsn, Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            int[] seq = IDGenerator.sequences();
+            out.writeInt(MAGIC);
+            out.writeLong(startLsn);
+            out.writeInt(seq[0]);
+            out.writeInt(seq[1]);
+            out.writeInt(seq[2]);
+
+            for (Customer c : store.customers()) {
+                out.writeByte(ENTRY);
+                writeString(out, c.getCustomerId());
+                writeString(out, c.getName());
+                writeString(out, c.getEmail());
+                writeString(out, c.getPhone());
+                out.writeLong(c.getDob().toEpochDay());
+            }
+            out.writeByte(END);
+
+            TransactionColumns columns = store.transactionColumns();
+            for (Account acc : store.accounts()) {
+                AccountLedger ledger = store.getLedger(acc.getAccountId());
+                long balance;
+                long lsn;
+                YearMonth period;
+                long[] rows;
+                int entries;
+                boolean ordered;
+                boolean chronological;
+                synchronized (acc) {
+                    balance = acc.getBalance();
+                    lsn = acc.getJournalLsn();
+                    period = acc.getInterestPeriod();
+                    entries = ledger.size();
+                    rows = ledger.rows();
+                    ordered = ledger.isOrdered();
+                    chronological = ledger.isChronological();
+                }
+                out.writeByte(ENTRY);
+                writeString(out, acc.getAccountId());
+                writeString(out, acc.getCustomer().getCustomerId());
+                out.writeByte(acc.getType().ordinal());
+                out.writeLong(balance);
+                out.writeLong(lsn);
+                out.writeInt(period == null ? NO_PERIOD : period.getYear() * 12 + period.getMonthValue() - 1);
+                out.writeInt(entries);
+                out.writeBoolean(ordered);
+                out.writeBoolean(chronological);
+                // The ledger is append-only, so the first 'entries' rows can be copied without the monitor
+                for (int i = 0; i < entries; i++) out.writeLong(columns.txnNumber(rows[i]));
+                for (int i = 0; i < entries; i++) out.writeByte(columns.type(rows[i]).ordinal());
+                for (int i = 0; i < entries; i++) out.writeLong(columns.amount(rows[i]));
+                for (int i = 0; i < entries; i++) out.writeLong(columns.epochNanos(rows[i]));
+                for (int i = 0; i < entries; i++) out.writeLong(columns.running(rows[i]));
+            }
+            out.writeByte(END);
+
+            IOException[] failure = new IOException[1];
+            store.idempotency().forEach(slot -> {
+                if (failure[0] != null) return;
+                try {
+                    Receipt r = slot.getReceipt();
+                    out.writeByte(ENTRY);
+                    writeString(out, slot.getKey());
+                    out.writeLong(slot.getRecordedAt());
+                    writeString(out, r.getTxnId());
+                    out.writeByte(r.getType().ordinal());
+                    writeString(out, r.getAccountId());
+                    writeString(out, r.getCounterpartyId() == null ? "" : r.getCounterpartyId());
+                    out.writeLong(r.getAmount());
+                    out.writeLong(r.getPostedAt().toEpochSecond(ZoneOffset.UTC));
+                    out.writeInt(r.getPostedAt().getNano());
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) throw failure[0];
+            out.writeByte(END);
+            out.flush();
+            channel.force(true);
+        }
+        return tmp;
+    }
+
+    public static void publish(Path tmp, Path file) throws IOException {
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Loads a snapshot into an empty store through a memory-mapped view and returns the journal
+    // LSN that replay has to start from
+    public static long load(Path file, BankStore store) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC) throw new IOException("Not a bank snapshot: " + file);
+            long startLsn = in.getLong();
+            IDGenerator.restoreSequences(in.getInt(), in.getInt(), in.getInt());
+            byte[] scratch = new byte[256];
+
+            while (in.get() == ENTRY) {
+                store.addCustomer(new Customer(readString(in, scratch), readString(in, scratch), readString(in, scratch),
+                        readString(in, scratch), LocalDate.ofEpochDay(in.getLong())));
+            }
+
+            AccountType[] accountTypes = AccountType.values();
+            TransactionColumns columns = store.transactionColumns();
+            TransactionType[] txnTypes = TransactionType.values();
+            while (in.get() == ENTRY) {
+                String accountId = readString(in, scratch);
+                Customer customer = store.getCustomer(readString(in, scratch));
+                Account acc = Account.of(accountId, customer, accountTypes[in.get()], in.getLong());
+                acc.setJournalLsn(in.getLong());
+                int period = in.getInt();
+                if (period != NO_PERIOD) acc.setInterestPeriod(YearMonth.of(period / 12, period % 12 + 1));
+                store.addAccount(acc);
+                int entries = in.getInt();
+                boolean ordered = in.get() != 0;
+                boolean chronological = in.get() != 0;
+                int at = in.position();
+                long firstRow = columns.appendAll(acc.getAccountNumber(), entries,
+                        in.slice(at, entries * 8).asLongBuffer(),
+                        in.slice(at + entries * 8, entries),
+                        in.slice(at + entries * 9, entries * 8).asLongBuffer(),
+                        in.slice(at + entries * 17, entries * 8).asLongBuffer(),
+                        in.slice(at + entries * 25, entries * 8).asLongBuffer());
+                in.position(at + entries * 33);
+                store.getLedger(accountId).restore(firstRow, entries, acc.getBalance(), ordered, chronological);
+            }
+            while (in.get() == ENTRY) {
+                String key = readString(in, scratch);
+                long recordedAt = in.getLong();
+                String txnId = readString(in, scratch);
+                TransactionType type = txnTypes[in.get()];
+                String accountId = readString(in, scratch);
+                String counterpartyId = readString(in, scratch);
+                long amount = in.getLong();
+                LocalDateTime postedAt = LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+                store.idempotency().restore(key, new Receipt(txnId, type, accountId,
+                        counterpartyId.isEmpty() ? null : counterpartyId, amount, postedAt, false), recordedAt);
+            }
+            return startLsn;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(MappedByteBuffer in, byte[] scratch) {
+        int len = in.getShort() & 0xFFFF;
+        byte[] buf = len <= scratch.length ? scratch : new byte[len];
+        in.get(buf, 0, len);
+        return new String(buf, 0, len, StandardCharsets.UTF_8);
+    }
+}
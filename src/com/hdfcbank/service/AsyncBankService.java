@@ -0,0 +1,42 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.model.*;
+import com.hdfcbank.model.enums.AccountType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Non-blocking view of BankService: every call returns immediately and completes once the
+// operation is done. A failed call completes exceptionally with the exception the blocking call
+// would throw as the cause: join() and dependent stages see it wrapped in a CompletionException,
+// get() in an ExecutionException.
+public interface AsyncBankService {
+    CompletableFuture<Customer> registerCustomer(String name, String email, String phone, String dob);
+    CompletableFuture<Account> createAccount(String customerId, AccountType type, long bal);
+    CompletableFuture<Void> deposit(String accountId, long amt);
+    // Debits, keyed or not, fail with InsufficientBalanceException, VelocityLimitExceededException or
+    // InvalidAccountException like their blocking forms
+    CompletableFuture<Void> withdraw(String accountId, long amt);
+    CompletableFuture<Void> transfer(String fromAcc, String toAcc, long amt);
+    CompletableFuture<List<Transaction>> post(List<Leg> legs);
+    CompletableFuture<Receipt> deposit(String accountId, long amt, String idempotencyKey);
+    CompletableFuture<Receipt> withdraw(String accountId, long amt, String idempotencyKey);
+    CompletableFuture<Receipt> transfer(String fromAcc, String toAcc, long amt, String idempotencyKey);
+    CompletableFuture<List<InstructionResult>> submitBatch(List<Instruction> instructions);
+    CompletableFuture<Void> submitBatch(Stream<Instruction> instructions, Consumer<InstructionResult> results);
+    CompletableFuture<List<Transaction>> getTransactions(String accId);
+    CompletableFuture<List<Transaction>> getTransactions(String accId, String beforeTxnId, int limit);
+    CompletableFuture<Stream<Transaction>> statement(String accId, StatementQuery query);
+    CompletableFuture<Long> getBalanceAsOf(String accountId, LocalDateTime asOf);
+    CompletableFuture<Account> getAccount(String accountId);
+    CompletableFuture<Customer> getCustomer(String customerId);
+    CompletableFuture<List<Account>> getCustomerAccounts(String customerId);
+    CompletableFuture<List<Customer>> findCustomersByEmail(String email);
+    CompletableFuture<List<Customer>> findCustomersByPhone(String phone);
+    CompletableFuture<Portfolio> getPortfolio(String customerId);
+    CompletableFuture<Long> getCustomerBalance(String customerId);
+    CompletableFuture<Long> getTotalBalance(AccountType type);
+}
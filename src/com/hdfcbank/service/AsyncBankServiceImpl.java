@@ -0,0 +1,159 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.model.*;
+import com.hdfcbank.model.enums.AccountType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Runs each call of a blocking BankService on its own virtual thread. Blocking inside the bank
+// (account monitors, waiting for a journal fsync) parks only the virtual thread, so hundreds of
+// thousands of requests can be in flight on a handful of carrier threads.
+public class AsyncBankServiceImpl implements AsyncBankService {
+    private static final ExecutorService SHARED_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final BankService bankService;
+    private final ExecutorService executor;
+
+    public AsyncBankServiceImpl(BankService bankService) {
+        this(bankService, SHARED_EXECUTOR);
+    }
+
+    public AsyncBankServiceImpl(BankService bankService, ExecutorService executor) {
+        this.bankService = bankService;
+        this.executor = executor;
+    }
+
+    public static ExecutorService sharedExecutor() {
+        return SHARED_EXECUTOR;
+    }
+
+    @Override
+    public CompletableFuture<Customer> registerCustomer(String name, String email, String phone, String dob) {
+        return call(() -> bankService.registerCustomer(name, email, phone, dob));
+    }
+
+    @Override
+    public CompletableFuture<Account> createAccount(String customerId, AccountType type, long bal) {
+        return call(() -> bankService.createAccount(customerId, type, bal));
+    }
+
+    @Override
+    public CompletableFuture<Void> deposit(String accountId, long amt) {
+        return run(() -> bankService.deposit(accountId, amt));
+    }
+
+    @Override
+    public CompletableFuture<Void> withdraw(String accountId, long amt) {
+        return run(() -> bankService.withdraw(accountId, amt));
+    }
+
+    @Override
+    public CompletableFuture<Void> transfer(String fromAcc, String toAcc, long amt) {
+        return run(() -> bankService.transfer(fromAcc, toAcc, amt));
+    }
+
+    @Override
+    public CompletableFuture<List<Transaction>> post(List<Leg> legs) {
+        return call(() -> bankService.post(legs));
+    }
+
+    @Override
+    public CompletableFuture<Receipt> deposit(String accountId, long amt, String idempotencyKey) {
+        return call(() -> bankService.deposit(accountId, amt, idempotencyKey));
+    }
+
+    @Override
+    public CompletableFuture<Receipt> withdraw(String accountId, long amt, String idempotencyKey) {
+        return call(() -> bankService.withdraw(accountId, amt, idempotencyKey));
+    }
+
+    @Override
+    public CompletableFuture<Receipt> transfer(String fromAcc, String toAcc, long amt, String idempotencyKey) {
+        return call(() -> bankService.transfer(fromAcc, toAcc, amt, idempotencyKey));
+    }
+
+    @Override
+    public CompletableFuture<List<InstructionResult>> submitBatch(List<Instruction> instructions) {
+        return call(() -> bankService.submitBatch(instructions));
+    }
+
+    @Override
+    public CompletableFuture<Void> submitBatch(Stream<Instruction> instructions, Consumer<InstructionResult> results) {
+        return run(() -> bankService.submitBatch(instructions, results));
+    }
+
+    @Override
+    public CompletableFuture<List<Transaction>> getTransactions(String accId) {
+        return call(() -> bankService.getTransactions(accId));
+    }
+
+    @Override
+    public CompletableFuture<List<Transaction>> getTransactions(String accId, String beforeTxnId, int limit) {
+        return call(() -> bankService.getTransactions(accId, beforeTxnId, limit));
+    }
+
+    @Override
+    public CompletableFuture<Stream<Transaction>> statement(String accId, StatementQuery query) {
+        return call(() -> bankService.statement(accId, query));
+    }
+
+    @Override
+    public CompletableFuture<Long> getBalanceAsOf(String accountId, LocalDateTime asOf) {
+        return call(() -> bankService.getBalanceAsOf(accountId, asOf));
+    }
+
+    @Override
+    public CompletableFuture<Account> getAccount(String accountId) {
+        return call(() -> bankService.getAccount(accountId));
+    }
+
+    @Override
+    public CompletableFuture<Customer> getCustomer(String customerId) {
+        return call(() -> bankService.getCustomer(customerId));
+    }
+
+    @Override
+    public CompletableFuture<List<Account>> getCustomerAccounts(String customerId) {
+        return call(() -> bankService.getCustomerAccounts(customerId));
+    }
+
+    @Override
+    public CompletableFuture<List<Customer>> findCustomersByEmail(String email) {
+        return call(() -> bankService.findCustomersByEmail(email));
+    }
+
+    @Override
+    public CompletableFuture<List<Customer>> findCustomersByPhone(String phone) {
+        return call(() -> bankService.findCustomersByPhone(phone));
+    }
+
+    @Override
+    public CompletableFuture<Portfolio> getPortfolio(String customerId) {
+        return call(() -> bankService.getPortfolio(customerId));
+    }
+
+    @Override
+    public CompletableFuture<Long> getCustomerBalance(String customerId) {
+        return call(() -> bankService.getCustomerBalance(customerId));
+    }
+
+    @Override
+    public CompletableFuture<Long> getTotalBalance(AccountType type) {
+        return call(() -> bankService.getTotalBalance(type));
+    }
+
+    private <T> CompletableFuture<T> call(Supplier<T> op) {
+        return CompletableFuture.supplyAsync(op, executor);
+    }
+
+    private CompletableFuture<Void> run(Runnable op) {
+        return CompletableFuture.runAsync(op, executor);
+    }
+}
@@ -0,0 +1,105 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.exception.InsufficientBalanceException;
+import com.hdfcbank.exception.InvalidAccountException;
+import com.hdfcbank.exception.VelocityLimitExceededException;
+import com.hdfcbank.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters and latency histograms filled in by InstrumentedBankService. Everything is recorded with
+// LongAdders and lock-free histograms, and snapshot() only reads them, so exporting metrics never
+// stalls the operations being measured. The price is that a snapshot taken under load is not a
+// single instant: calls completing while it is taken may show up in some numbers and not others.
+public class BankMetrics {
+    public enum Operation { DEPOSIT, WITHDRAW, TRANSFER, GET_TRANSACTIONS, MULTI_LEG }
+
+    private final OperationStats[] stats = new OperationStats[Operation.values().length];
+    private final LongAdder contendedPostings = new LongAdder();
+
+    public BankMetrics() {
+        for (int i = 0; i < stats.length; i++) stats[i] = new OperationStats();
+    }
+
+    OperationStats of(Operation op) {
+        return stats[op.ordinal()];
+    }
+
+    LongAdder contendedPostings() {
+        return contendedPostings;
+    }
+
+    public Snapshot snapshot() {
+        List<OperationSnapshot> operations = new ArrayList<>();
+        for (Operation op : Operation.values()) operations.add(of(op).snapshot(op));
+        return new Snapshot(System.currentTimeMillis(), operations, contendedPostings.sum());
+    }
+
+    public void reset() {
+        for (OperationStats s : stats) s.reset();
+        contendedPostings.reset();
+    }
+
+    static final class OperationStats {
+        private final LatencyHistogram latency = new LatencyHistogram(); // every call, failed ones included
+        private final LongAdder insufficientBalance = new LongAdder();
+        private final LongAdder velocityLimited = new LongAdder();
+        private final LongAdder invalidAccount = new LongAdder();
+        private final LongAdder otherErrors = new LongAdder();
+
+        void completed(long startNanos) {
+            latency.record(System.nanoTime() - startNanos);
+        }
+
+        void failed(long startNanos, RuntimeException e) {
+            latency.record(System.nanoTime() - startNanos);
+            if (e instanceof InsufficientBalanceException) insufficientBalance.increment();
+            else if (e instanceof VelocityLimitExceededException) velocityLimited.increment();
+            else if (e instanceof InvalidAccountException) invalidAccount.increment();
+            else otherErrors.increment();
+        }
+
+        OperationSnapshot snapshot(Operation op) {
+            return new OperationSnapshot(op, latency.getCount(), insufficientBalance.sum(), velocityLimited.sum(), invalidAccount.sum(),
+                    otherErrors.sum(), latency.getMean(), latency.valueAtPercentile(50),
+                    latency.valueAtPercentile(99), latency.valueAtPercentile(99.9), latency.getMax());
+        }
+
+        void reset() {
+            latency.reset();
+            insufficientBalance.reset();
+            velocityLimited.reset();
+            invalidAccount.reset();
+            otherErrors.reset();
+        }
+    }
+
+    // Latencies are in nanoseconds
+    public record OperationSnapshot(Operation operation, long calls, long insufficientBalance, long velocityLimited,
+                                    long invalidAccount, long otherErrors, double meanNanos, long p50Nanos, long p99Nanos,
+                                    long p999Nanos, long maxNanos) {
+        public long rejected() { return insufficientBalance + velocityLimited + invalidAccount + otherErrors; }
+    }
+
+    public record Snapshot(long takenAtMillis, List<OperationSnapshot> operations, long contendedPostings) {
+        public OperationSnapshot get(Operation op) {
+            return operations.get(op.ordinal());
+        }
+
+        // One line per operation, e.g. for logs or the console
+        public String format() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%-17s %10s %10s %10s %10s %10s %10s %10s %10s %10s%n", "operation", "calls",
+                    "no-funds", "limited", "invalid", "errors", "mean(us)", "p50(us)", "p99(us)", "p999(us)"));
+            for (OperationSnapshot s : operations) {
+                sb.append(String.format("%-17s %10d %10d %10d %10d %10d %10.1f %10.1f %10.1f %10.1f%n", s.operation(),
+                        s.calls(), s.insufficientBalance(), s.velocityLimited(), s.invalidAccount(), s.otherErrors(), s.meanNanos() / 1e3,
+                        s.p50Nanos() / 1e3, s.p99Nanos() / 1e3, s.p999Nanos() / 1e3));
+            }
+            sb.append("contended postings: ").append(contendedPostings);
+            return sb.toString();
+        }
+    }
+}
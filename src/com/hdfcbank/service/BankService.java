@@ -2,17 +2,51 @@ package com.hdfcbank.service;
 
 import com.hdfcbank.exception.InsufficientBalanceException;
 import com.hdfcbank.exception.InvalidAccountException;
+import com.hdfcbank.exception.VelocityLimitExceededException;
 import com.hdfcbank.model.*;
 import com.hdfcbank.model.enums.AccountType;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface BankService {
     Customer registerCustomer(String name, String email, String phone, String dob);
-    Account createAccount(String customerId, AccountType type, double bal);
-    void deposit(String accountId, double amt);
-    void withdraw(String accountId, double amt) throws InsufficientBalanceException, InvalidAccountException;
-    void transfer(String fromAcc, String toAcc, double amt) throws InsufficientBalanceException, InvalidAccountException;
+    Account createAccount(String customerId, AccountType type, long bal);
+    void deposit(String accountId, long amt) throws InvalidAccountException;
+    // Debits (withdrawals, transfers and debit legs, keyed or not) are also refused with
+    // VelocityLimitExceededException once the account hits the store's velocity limits, if any
+    void withdraw(String accountId, long amt) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException;
+    void transfer(String fromAcc, String toAcc, long amt) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException;
+    // Applies every leg or none: debits and credits across accounts that must add up, recorded as a
+    // TRANSFER (debit) or TRANSFER_IN (credit) entry per account under one shared transaction ID.
+    // Returns those entries in leg order.
+    List<Transaction> post(List<Leg> legs) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException;
+    // Idempotent forms for clients that retry: a request repeating an earlier key within the dedup
+    // window gets the original posting's receipt back (marked as a replay) instead of posting again
+    Receipt deposit(String accountId, long amt, String idempotencyKey) throws InvalidAccountException;
+    Receipt withdraw(String accountId, long amt, String idempotencyKey) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException;
+    Receipt transfer(String fromAcc, String toAcc, long amt, String idempotencyKey) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException;
+    // Applies every instruction and reports one result per instruction, in input order; a rejected
+    // instruction never stops the rest of the batch
+    List<InstructionResult> submitBatch(List<Instruction> instructions);
+    void submitBatch(Stream<Instruction> instructions, Consumer<InstructionResult> results);
     List<Transaction> getTransactions(String accId);
+    List<Transaction> getTransactions(String accId, String beforeTxnId, int limit);
+    // Lazily read newest-first statement; empty for an unknown account
+    Stream<Transaction> statement(String accId, StatementQuery query);
+    // Balance after every entry dated before 'asOf', i.e. at the end of the previous day for a
+    // midnight; read from the ledger's running balances in O(log n)
+    long getBalanceAsOf(String accountId, LocalDateTime asOf) throws InvalidAccountException;
     Account getAccount(String accountId);
     Customer getCustomer(String customerId);
+    // Served from maintained indexes; empty lists when nothing matches
+    List<Account> getCustomerAccounts(String customerId);
+    List<Customer> findCustomersByEmail(String email);
+    List<Customer> findCustomersByPhone(String phone);
+    // The customer's accounts and per-type totals as of one instant; null for an unknown customer
+    Portfolio getPortfolio(String customerId);
+    // O(1) running totals, in paise
+    long getCustomerBalance(String customerId);
+    long getTotalBalance(AccountType type);
 }
@@ -2,133 +2,639 @@ package com.hdfcbank.service;
 
 import com.hdfcbank.exception.InsufficientBalanceException;
 import com.hdfcbank.exception.InvalidAccountException;
+import com.hdfcbank.exception.VelocityLimitExceededException;
 import com.hdfcbank.model.*;
 import com.hdfcbank.model.enums.AccountType;
 import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.persistence.Journal;
+import com.hdfcbank.persistence.JournalRecord;
+import com.hdfcbank.persistence.JournalReplayer;
+import com.hdfcbank.persistence.Snapshot;
+import com.hdfcbank.store.AccountLedger;
+import com.hdfcbank.store.BalanceAggregates;
+import com.hdfcbank.store.BankStore;
+import com.hdfcbank.store.IdempotencyCache;
+import com.hdfcbank.store.IdempotencyCache.Slot;
+import com.hdfcbank.store.VelocityLimiter;
 import com.hdfcbank.util.IDGenerator;
+import com.hdfcbank.util.Money;
+import com.hdfcbank.util.Validator;
 
-import java.time.LocalDate;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
-public class BankServiceImpl implements BankService {
-    private final Map<String, Customer> customers = new HashMap<>();
-    private final Map<String, Account> accounts = new HashMap<>();
-    private final List<Transaction> transactions = new ArrayList<>();
+public class BankServiceImpl implements BankService, Closeable {
+    // Legs per multi-leg posting; their account monitors nest one stack frame each
+    public static final int MAX_LEGS = 64;
+    private static final Comparator<Account> LOCK_ORDER = Comparator.comparing(Account::getAccountId);
+
+    private final BankStore store;
+    private final Journal journal; // null when running purely in memory
+    // Held shared while a customer/account is journaled and published, exclusively while a snapshot
+    // picks its start LSN, so no creation at or below that LSN can be missing from the snapshot
+    private final ReadWriteLock creationLock = new ReentrantReadWriteLock();
+    private volatile LongAdder contended; // postings that found an account monitor busy; null when not counted
+
+    public BankServiceImpl() {
+        this(new BankStore());
+    }
+
+    public BankServiceImpl(BankStore store) {
+        this(store, null);
+    }
+
+    public BankServiceImpl(BankStore store, Journal journal) {
+        this.store = store;
+        this.journal = journal;
+    }
+
+    // Rebuilds the bank from an existing journal (or starts a new one) and keeps journaling to it
+    public static BankServiceImpl recover(Path journalFile) throws IOException {
+        return recover(journalFile, null);
+    }
+
+    // Loads the snapshot when there is one and replays only the journal tail written after it
+    public static BankServiceImpl recover(Path journalFile, Path snapshotFile) throws IOException {
+        return recover(journalFile, snapshotFile, new BankStore());
+    }
+
+    // Recovers into 'store', which must be empty; lets a caller configure it first
+    public static BankServiceImpl recover(Path journalFile, Path snapshotFile, BankStore store) throws IOException {
+        long fromLsn = 0;
+        if (snapshotFile != null && Files.exists(snapshotFile)) fromLsn = Snapshot.load(snapshotFile, store);
+        Journal journal = Journal.open(journalFile, fromLsn, new JournalReplayer(store));
+        return new BankServiceImpl(store, journal);
+    }
+
+    // Writes a snapshot without pausing postings and drops the journal prefix it covers; returns the
+    // journal LSN replay will resume from
+    public long snapshot(Path snapshotFile) throws IOException {
+        if (journal == null) throw new IllegalStateException("Snapshots require a journal");
+        long startLsn;
+        creationLock.writeLock().lock();
+        try {
+            startLsn = journal.appendedLsn();
+        } finally {
+            creationLock.writeLock().unlock();
+        }
+        Path tmp = Snapshot.write(store, startLsn, snapshotFile);
+        // The image may include postings made after startLsn; they must be durable before it replaces
+        // the previous snapshot, or a crash could resurrect effects that were never acknowledged
+        journal.awaitDurable(journal.appendedLsn());
+        Snapshot.publish(tmp, snapshotFile);
+        // Recovery now starts from this snapshot, so nothing before startLsn is needed any more
+        journal.truncateBefore(startLsn);
+        return startLsn;
+    }
 
     @Override
     public Customer registerCustomer(String name, String email, String phone, String dob) {
-        String id = IDGenerator.generateCustomerId();
-        Customer c = new Customer(id, name, email, phone, LocalDate.parse(dob));
-        customers.put(id, c);
+        Customer c = newCustomer(name, email, phone, dob);
+        sync(addCustomer(c));
         return c;
     }
 
     @Override
-    public Account createAccount(String customerId, AccountType type, double bal) {
-        Customer customer = customers.get(customerId);
+    public Account createAccount(String customerId, AccountType type, long bal) {
+        Customer customer = store.getCustomer(customerId);
         if (customer == null) throw new IllegalArgumentException("Customer not found");
 
         String accId = IDGenerator.generateAccountId();
-        Account acc = (type == AccountType.SAVINGS) ? new SavingsAccount(accId, customer, bal)
-                : new CurrentAccount(accId, customer, bal);
-        accounts.put(accId, acc);
+        Account acc = Account.of(accId, customer, type, bal);
+        sync(addAccount(acc));
         return acc;
     }
 
+    // registerCustomer plus, unless 'type' is null, createAccount for the new customer, both under one
+    // hold of the creation lock. Returns the LSN to wait on instead of waiting, so a bulk import can
+    // wait once per batch rather than once per row.
+    long onboard(String name, String email, String phone, String dob, AccountType type, long bal) {
+        Customer c = newCustomer(name, email, phone, dob);
+        Account acc = type == null ? null : Account.of(IDGenerator.generateAccountId(), c, type, bal);
+        creationLock.readLock().lock();
+        try {
+            long lsn = addCustomer(c);
+            return acc == null ? lsn : addAccount(acc);
+        } finally {
+            creationLock.readLock().unlock();
+        }
+    }
+
+    private static Customer newCustomer(String name, String email, String phone, String dob) {
+        int errors = Validator.check(name, email, phone, dob);
+        if (errors != 0) throw new IllegalArgumentException(String.join("; ", Validator.describe(errors)));
+        return new Customer(IDGenerator.generateCustomerId(), name, email, phone, Validator.parseDob(dob));
+    }
+
+    // Journal and publish a new customer or account and return the LSN to wait on, like post*
+
+    private long addCustomer(Customer c) {
+        creationLock.readLock().lock();
+        try {
+            long lsn = log(JournalRecord.CustomerRegistered.of(c));
+            store.addCustomer(c);
+            return lsn;
+        } finally {
+            creationLock.readLock().unlock();
+        }
+    }
+
+    private long addAccount(Account acc) {
+        // Journaled before it is published, so no posting to it can reach the journal first
+        creationLock.readLock().lock();
+        try {
+            long lsn = log(JournalRecord.AccountOpened.of(acc));
+            store.addAccount(acc);
+            return lsn;
+        } finally {
+            creationLock.readLock().unlock();
+        }
+    }
+
     @Override
-    public void deposit(String accountId, double amt) {
-        Account acc = accounts.get(accountId);
-        if (acc == null) throw new IllegalArgumentException("Invalid Account");
-        acc.deposit(amt);
-        transactions.add(new Transaction(IDGenerator.generateTxnId(), acc.getAccountId(), TransactionType.DEPOSIT, amt));
+    public void deposit(String accountId, long amt) throws InvalidAccountException {
+        requirePositive(amt);
+        Account acc = store.getAccount(accountId);
+        if (acc == null) throw new InvalidAccountException("Invalid Account");
+        sync(postDeposit(acc, amt));
     }
 
     @Override
-    public void withdraw(String accountId, double amt) throws InsufficientBalanceException, InvalidAccountException {
-        Account acc = accounts.get(accountId);
+    public void withdraw(String accountId, long amt) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException {
+        requirePositive(amt);
+        Account acc = store.getAccount(accountId);
         if (acc == null) throw new InvalidAccountException("Invalid Account");
-        acc.withdraw(amt);
-        transactions.add(new Transaction(IDGenerator.generateTxnId(), acc.getAccountId(), TransactionType.WITHDRAW, amt));
+        sync(postWithdraw(acc, amt));
     }
 
     @Override
-    public void transfer(String fromAcc, String toAcc, double amt) throws InsufficientBalanceException, InvalidAccountException {
-        Account src = accounts.get(fromAcc);
-        Account dest = accounts.get(toAcc);
+    public void transfer(String fromAcc, String toAcc, long amt) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException {
+        requirePositive(amt);
+        Account src = store.getAccount(fromAcc);
+        Account dest = store.getAccount(toAcc);
         if (src == null || dest == null) throw new InvalidAccountException("Invalid Account(s)");
+        // Wait for the fsync outside the monitors so other postings can join the same group commit
+        sync(postTransfer(src, dest, amt));
+    }
+
+    @Override
+    public List<Transaction> post(List<Leg> legs) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException {
+        legs = List.copyOf(legs);
+        Account[] accounts = resolve(legs);
+        Transaction[] entries = new Transaction[legs.size()];
+        sync(postLegs(legs, accounts, entries));
+        return List.of(entries);
+    }
 
-        // Thread-safe transfer
-        synchronized(src) {
-            synchronized(dest) {
-                src.withdraw(amt);
+    // Checks that a multi-leg posting is well-formed and balanced; returns its accounts in leg order
+    private Account[] resolve(List<Leg> legs) {
+        if (legs.size() < 2 || legs.size() > MAX_LEGS) {
+            throw new IllegalArgumentException("A posting needs between 2 and " + MAX_LEGS + " legs");
+        }
+        Account[] accounts = new Account[legs.size()];
+        long debits = 0;
+        long credits = 0;
+        for (int i = 0; i < accounts.length; i++) {
+            Leg leg = legs.get(i);
+            if (leg.getAmount() <= 0) throw new IllegalArgumentException("Leg amounts must be positive");
+            accounts[i] = store.getAccount(leg.getAccountId());
+            if (accounts[i] == null) throw new InvalidAccountException("Invalid Account " + leg.getAccountId());
+            for (int j = 0; j < i; j++) {
+                if (accounts[j] == accounts[i]) throw new IllegalArgumentException("Account " + leg.getAccountId() + " appears in more than one leg");
+            }
+            if (leg.isDebit()) debits = Math.addExact(debits, leg.getAmount());
+            else credits = Math.addExact(credits, leg.getAmount());
+        }
+        if (debits != credits) {
+            throw new IllegalArgumentException("Debits of " + Money.format(debits) + " do not match credits of " + Money.format(credits));
+        }
+        return accounts;
+    }
+
+    @Override
+    public Receipt deposit(String accountId, long amt, String idempotencyKey) throws InvalidAccountException {
+        requirePositive(amt);
+        Account acc = store.getAccount(accountId);
+        if (acc == null) throw new InvalidAccountException("Invalid Account");
+        return idempotent(new Slot(idempotencyKey, TransactionType.DEPOSIT, accountId, null, amt),
+                slot -> postDeposit(acc, amt, slot));
+    }
+
+    @Override
+    public Receipt withdraw(String accountId, long amt, String idempotencyKey) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException {
+        requirePositive(amt);
+        Account acc = store.getAccount(accountId);
+        if (acc == null) throw new InvalidAccountException("Invalid Account");
+        return idempotent(new Slot(idempotencyKey, TransactionType.WITHDRAW, accountId, null, amt),
+                slot -> postWithdraw(acc, amt, slot));
+    }
+
+    @Override
+    public Receipt transfer(String fromAcc, String toAcc, long amt, String idempotencyKey) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException {
+        requirePositive(amt);
+        Account src = store.getAccount(fromAcc);
+        Account dest = store.getAccount(toAcc);
+        if (src == null || dest == null) throw new InvalidAccountException("Invalid Account(s)");
+        return idempotent(new Slot(idempotencyKey, TransactionType.TRANSFER, fromAcc, toAcc, amt),
+                slot -> postTransfer(src, dest, amt, slot));
+    }
+
+    // Posts once per key: the first request to claim it posts, a concurrent or later retry waits for
+    // that posting (and its fsync) and gets the same receipt back
+    private Receipt idempotent(Slot slot, ToLongFunction<Slot> post) {
+        IdempotencyCache.validate(slot.getKey());
+        IdempotencyCache dedup = store.idempotency();
+        Slot prior = dedup.claim(slot);
+        if (prior != null) {
+            Receipt receipt = prior.await();
+            sync(prior.getLsn());
+            return receipt;
+        }
+        long lsn;
+        try {
+            lsn = post.applyAsLong(slot);
+        } catch (RuntimeException e) {
+            dedup.abandon(slot, e);
+            throw e;
+        }
+        sync(lsn);
+        return slot.getReceipt();
+    }
+
+    @Override
+    public List<InstructionResult> submitBatch(List<Instruction> instructions) {
+        return new BatchExecutor(this).execute(instructions);
+    }
+
+    @Override
+    public void submitBatch(Stream<Instruction> instructions, Consumer<InstructionResult> results) {
+        new BatchExecutor(this).execute(instructions, results);
+    }
+
+    // Credits a month of interest to every account that earns it and has not been paid for 'period'
+    // yet; live postings keep running meanwhile. Safe to rerun, including after a crash mid-run.
+    public InterestRun accrueInterest(YearMonth period) {
+        return accrueInterest(period, Runtime.getRuntime().availableProcessors());
+    }
+
+    public InterestRun accrueInterest(YearMonth period, int parallelism) {
+        return new InterestAccrual(this, parallelism).run(period);
+    }
+
+    // Starts counting postings that had to queue for an account monitor into 'counter'. Until this
+    // is called postings skip the occupancy bookkeeping entirely.
+    public void countContention(LongAdder counter) {
+        this.contended = counter;
+    }
+
+    // The post* methods apply and journal one posting under the account monitor(s) and return the
+    // LSN a caller has to wait on before acknowledging it. Given an idempotency slot, they journal
+    // its key with the posting and complete the slot before releasing the monitor(s).
+
+    long postDeposit(Account acc, long amt) {
+        return postDeposit(acc, amt, null);
+    }
+
+    long postWithdraw(Account acc, long amt) throws InsufficientBalanceException {
+        return postWithdraw(acc, amt, null);
+    }
+
+    long postTransfer(Account src, Account dest, long amt) throws InsufficientBalanceException {
+        return postTransfer(src, dest, amt, null);
+    }
+
+    private long postDeposit(Account acc, long amt, Slot slot) {
+        LongAdder counter = contended;
+        if (counter == null) return applyDeposit(acc, amt, slot);
+        if (acc.arrive()) counter.increment();
+        try {
+            return applyDeposit(acc, amt, slot);
+        } finally {
+            acc.depart();
+        }
+    }
+
+    private long postWithdraw(Account acc, long amt, Slot slot) throws InsufficientBalanceException {
+        LongAdder counter = contended;
+        if (counter == null) return applyWithdraw(acc, amt, slot);
+        if (acc.arrive()) counter.increment();
+        try {
+            return applyWithdraw(acc, amt, slot);
+        } finally {
+            acc.depart();
+        }
+    }
+
+    private long postTransfer(Account src, Account dest, long amt, Slot slot) throws InsufficientBalanceException {
+        // Refused like an account repeated across legs: its debit and credit would share a ledger
+        // and a transaction number, and the entries' running balances could not both be right
+        if (src == dest) throw new IllegalArgumentException("Cannot transfer to the same account");
+        LongAdder counter = contended;
+        if (counter == null) return applyTransfer(src, dest, amt, slot);
+        boolean busy = src.arrive();
+        busy |= dest.arrive();
+        if (busy) counter.increment();
+        try {
+            return applyTransfer(src, dest, amt, slot);
+        } finally {
+            src.depart();
+            dest.depart();
+        }
+    }
+
+    // Fills 'entries' with one ledger entry per leg, in leg order
+    private long postLegs(List<Leg> legs, Account[] accounts, Transaction[] entries) throws InsufficientBalanceException {
+        Account[] order = accounts.clone();
+        Arrays.sort(order, LOCK_ORDER);
+        LongSupplier apply = () -> applyLegs(legs, accounts, entries);
+        LongAdder counter = contended;
+        if (counter == null) return locked(order, 0, apply);
+        boolean busy = false;
+        for (Account acc : order) busy |= acc.arrive();
+        if (busy) counter.increment();
+        try {
+            return locked(order, 0, apply);
+        } finally {
+            for (Account acc : order) acc.depart();
+        }
+    }
+
+    // Holds the monitors of order[i..] while 'body' runs, taken in account ID order like applyTransfer's
+    private static long locked(Account[] order, int i, LongSupplier body) {
+        if (i == order.length) return body.getAsLong();
+        synchronized (order[i]) {
+            return locked(order, i + 1, body);
+        }
+    }
+
+    // Returns the interest credited, 0 when the account was already paid for 'period' or earns none.
+    // The posting is not waited on; the accrual run waits once at the end.
+    long postInterest(Account acc, YearMonth period) {
+        synchronized (acc) {
+            YearMonth paid = acc.getInterestPeriod();
+            if (paid != null && !period.isAfter(paid)) return 0;
+            long amt = acc.calculateMonthlyInterest();
+            if (amt <= 0) return 0;
+            acc.deposit(amt);
+            store.aggregates().adjust(acc, amt);
+            Transaction txn = new Transaction(IDGenerator.nextTxnNumber(), acc.getAccountId(), TransactionType.INTEREST, amt);
+            store.append(txn);
+            acc.setJournalLsn(log(JournalRecord.InterestPosted.of(txn, period)));
+            acc.setInterestPeriod(period);
+            return amt;
+        }
+    }
+
+    private long applyDeposit(Account acc, long amt, Slot slot) {
+        synchronized (acc) {
+            acc.deposit(amt);
+            store.aggregates().adjust(acc, amt);
+            Transaction txn = new Transaction(IDGenerator.nextTxnNumber(), acc.getAccountId(), TransactionType.DEPOSIT, amt);
+            store.append(txn);
+            long lsn = log(txn, null, slot);
+            acc.setJournalLsn(lsn);
+            return lsn;
+        }
+    }
+
+    private long applyWithdraw(Account acc, long amt, Slot slot) {
+        synchronized (acc) {
+            debit(acc, amt);
+            store.aggregates().adjust(acc, -amt);
+            Transaction txn = new Transaction(IDGenerator.nextTxnNumber(), acc.getAccountId(), TransactionType.WITHDRAW, amt);
+            store.append(txn);
+            long lsn = log(txn, null, slot);
+            acc.setJournalLsn(lsn);
+            return lsn;
+        }
+    }
+
+    private long applyTransfer(Account src, Account dest, long amt, Slot slot) {
+        // Monitors are always taken in account ID order, so A->B and B->A transfers cannot deadlock
+        Account first = src.getAccountId().compareTo(dest.getAccountId()) <= 0 ? src : dest;
+        Account second = (first == src) ? dest : src;
+        long lsn;
+        synchronized (first) {
+            synchronized (second) {
+                debit(src, amt);
                 dest.deposit(amt);
+                store.aggregates().adjust(src, -amt);
+                store.aggregates().adjust(dest, amt);
+                Transaction txn = new Transaction(IDGenerator.nextTxnNumber(), src.getAccountId(), TransactionType.TRANSFER, amt);
+                store.append(txn);
+                store.append(new Transaction(txn.getTxnNumber(), dest.getAccountId(), TransactionType.TRANSFER_IN, amt, txn.getDate()));
+                lsn = log(txn, dest.getAccountId(), slot);
+                src.setJournalLsn(lsn);
+                dest.setJournalLsn(lsn);
+            }
+        }
+        return lsn;
+    }
+
+    private long applyLegs(List<Leg> legs, Account[] accounts, Transaction[] entries) {
+        // Debits are the only legs that can be refused, so they go first and are undone if one is.
+        // With the monitors held the undo is never seen.
+        long[] counted = new long[accounts.length];
+        for (int i = 0; i < accounts.length; i++) {
+            if (!legs.get(i).isDebit()) continue;
+            try {
+                counted[i] = debit(accounts[i], legs.get(i).getAmount());
+            } catch (InsufficientBalanceException | VelocityLimitExceededException e) {
+                for (int j = 0; j < i; j++) {
+                    if (legs.get(j).isDebit()) undoDebit(accounts[j], legs.get(j).getAmount(), counted[j]);
+                }
+                throw e;
             }
         }
-        transactions.add(new Transaction(IDGenerator.generateTxnId(), src.getAccountId(), TransactionType.TRANSFER, amt));
+        long txnNumber = IDGenerator.nextTxnNumber();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < accounts.length; i++) {
+            Leg leg = legs.get(i);
+            Account acc = accounts[i];
+            if (!leg.isDebit()) acc.deposit(leg.getAmount());
+            store.aggregates().adjust(acc, leg.isDebit() ? -leg.getAmount() : leg.getAmount());
+            entries[i] = new Transaction(txnNumber, acc.getAccountId(),
+                    leg.isDebit() ? TransactionType.TRANSFER : TransactionType.TRANSFER_IN, leg.getAmount(), now);
+            store.append(entries[i]);
+        }
+        long lsn = journal == null ? 0 : journal.append(new JournalRecord.MultiLegPosting(IDGenerator.txnId(txnNumber), legs, now));
+        for (Account acc : accounts) acc.setJournalLsn(lsn);
+        return lsn;
+    }
+
+    // Takes 'amt' out of the account within its velocity limits, if the store has any, and returns
+    // the limiter's epoch for undoDebit(). A debit refused for lack of funds is not counted.
+    private long debit(Account acc, long amt) {
+        VelocityLimiter limiter = store.velocity();
+        if (limiter == null) {
+            acc.withdraw(amt);
+            return 0;
+        }
+        long epoch = limiter.admit(acc, amt);
+        try {
+            acc.withdraw(amt);
+        } catch (InsufficientBalanceException e) {
+            limiter.refund(acc, amt, epoch);
+            throw e;
+        }
+        return epoch;
+    }
+
+    private void undoDebit(Account acc, long amt, long epoch) {
+        acc.deposit(amt);
+        VelocityLimiter limiter = store.velocity();
+        if (limiter != null) limiter.refund(acc, amt, epoch);
+    }
+
+    private long log(Transaction txn, String counterpartyId, Slot slot) {
+        long lsn = 0;
+        if (journal != null) {
+            JournalRecord.Posting posting = JournalRecord.Posting.of(txn, counterpartyId);
+            lsn = journal.append(slot == null ? posting : new JournalRecord.KeyedPosting(posting, slot.getKey(), slot.getRecordedAt()));
+        }
+        if (slot != null) store.idempotency().complete(slot, txn, lsn);
+        return lsn;
+    }
+
+    private long log(JournalRecord record) {
+        return journal == null ? 0 : journal.append(record);
+    }
+
+    void sync(long lsn) {
+        if (journal != null) journal.awaitDurable(lsn);
+    }
+
+    private static void requirePositive(long amt) {
+        if (amt <= 0) throw new IllegalArgumentException("Amount must be positive");
     }
 
     @Override
     public List<Transaction> getTransactions(String accId) {
-        return transactions.stream()
-                .filter(t -> t.getAccountId().equals(accId))
-                .sorted((t1, t2) -> t2.getDate().compareTo(t1.getDate()))
-                .collect(Collectors.toList());
+        AccountLedger ledger = store.getLedger(accId);
+        return ledger == null ? Collections.emptyList() : ledger.newestFirst();
+    }
+
+    // Newest-first page of at most 'limit' entries; a null cursor starts from the latest posting
+    @Override
+    public List<Transaction> getTransactions(String accId, String beforeTxnId, int limit) {
+        AccountLedger ledger = store.getLedger(accId);
+        if (ledger == null) return Collections.emptyList();
+        return beforeTxnId == null ? ledger.latest(limit) : ledger.before(beforeTxnId, limit);
+    }
+
+    @Override
+    public Stream<Transaction> statement(String accId, StatementQuery query) {
+        AccountLedger ledger = store.getLedger(accId);
+        return ledger == null ? Stream.empty() : ledger.stream(query);
+    }
+
+    @Override
+    public long getBalanceAsOf(String accountId, LocalDateTime asOf) throws InvalidAccountException {
+        AccountLedger ledger = store.getLedger(accountId);
+        if (ledger == null) throw new InvalidAccountException("Invalid Account");
+        return ledger.balanceBefore(asOf);
     }
 
     @Override
     public Account getAccount(String accountId) {
-        return accounts.get(accountId);
+        return store.getAccount(accountId);
+    }
+
+    @Override
+    public List<Account> getCustomerAccounts(String customerId) {
+        Customer customer = store.getCustomer(customerId);
+        return customer == null ? List.of() : store.accountsOf(customer.getCustomerNumber());
+    }
+
+    @Override
+    public List<Customer> findCustomersByEmail(String email) {
+        return store.findByEmail(email);
+    }
+
+    @Override
+    public List<Customer> findCustomersByPhone(String phone) {
+        return store.findByPhone(phone);
+    }
+
+    // Taken with all of the customer's accounts locked, so the totals match the listed balances
+    @Override
+    public Portfolio getPortfolio(String customerId) {
+        Customer customer = store.getCustomer(customerId);
+        if (customer == null) return null;
+        return store.aggregates().withAccountsLocked(customer.getCustomerNumber(), accounts -> {
+            long[] balances = new long[AccountType.values().length];
+            for (Account acc : accounts) balances[acc.getType().ordinal()] += acc.getBalance();
+            return new Portfolio(customer, accounts, balances);
+        });
+    }
+
+    @Override
+    public long getCustomerBalance(String customerId) {
+        Customer customer = store.getCustomer(customerId);
+        return customer == null ? 0 : store.aggregates().customerTotal(customer.getCustomerNumber());
+    }
+
+    @Override
+    public long getTotalBalance(AccountType type) {
+        return store.aggregates().total(type);
+    }
+
+    // Recomputes the aggregates from the balances and compares; safe to run under live traffic
+    public BalanceAggregates.Check verifyAggregates() {
+        return store.aggregates().verify();
     }
 
     @Override
     public Customer getCustomer(String customerId) {
-        return customers.get(customerId);
+        return store.getCustomer(customerId);
+    }
+
+    public BankStore getStore() {
+        return store;
+    }
+
+    public Journal getJournal() {
+        return journal;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (journal != null) journal.close();
     }
 
     // Method for concurrent transfers demonstration
-    public void simulateConcurrentTransfers(String fromAcc, String toAcc, double amt, int numThreads) {
-        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    public void simulateConcurrentTransfers(String fromAcc, String toAcc, long amt, int numThreads) {
+        AsyncBankService async = new AsyncBankServiceImpl(this);
 
         System.out.println("=== Starting Concurrent Transfer Simulation ===");
-        System.out.println("Initial Balance - From: " + getAccount(fromAcc).getBalance() +
-                ", To: " + getAccount(toAcc).getBalance());
-
-        List<Future<String>> futures = new ArrayList<>();
+        System.out.println("Initial Balance - From: " + Money.format(getAccount(fromAcc).getBalance()) +
+                ", To: " + Money.format(getAccount(toAcc).getBalance()));
 
+        List<CompletableFuture<String>> futures = new ArrayList<>();
         for (int i = 0; i < numThreads; i++) {
             final int transferNum = i + 1;
-            Future<String> future = executor.submit(() -> {
-                try {
-                    transfer(fromAcc, toAcc, amt);
-                    return "Transfer " + transferNum + " successful";
-                } catch (Exception e) {
-                    return "Transfer " + transferNum + " failed: " + e.getMessage();
-                }
-            });
-            futures.add(future);
+            futures.add(async.transfer(fromAcc, toAcc, amt).handle((ok, e) -> e == null
+                    ? "Transfer " + transferNum + " successful"
+                    : "Transfer " + transferNum + " failed: " + e.getCause().getMessage()));
         }
 
-        futures.forEach(future -> {
-            try {
-                System.out.println(future.get());
-            } catch (Exception e) {
-                System.out.println("Transfer failed: " + e.getMessage());
-            }
-        });
-
-        executor.shutdown();
-        try {
-            executor.awaitTermination(5, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        futures.forEach(future -> System.out.println(future.join()));
 
-        System.out.println("Final Balance - From: " + getAccount(fromAcc).getBalance() +
-                ", To: " + getAccount(toAcc).getBalance());
+        System.out.println("Final Balance - From: " + Money.format(getAccount(fromAcc).getBalance()) +
+                ", To: " + Money.format(getAccount(toAcc).getBalance()));
     }
 }
@@ -0,0 +1,154 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Instruction;
+import com.hdfcbank.model.InstructionResult;
+import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.store.BankStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Runs a batch of instructions for BankServiceImpl.submitBatch.
+//
+// Instructions are validated up front, then split into groups that share no account (union-find
+// over the accounts each instruction touches). Groups run in parallel on the common fork-join pool,
+// each one sequentially in input order, so conflicting instructions keep their file order while
+// independent accounts proceed concurrently. Postings are not acknowledged one by one: the batch
+// waits once for the highest journal LSN it produced.
+class BatchExecutor {
+    private static final int STREAM_CHUNK = 10_000;
+
+    private final BankServiceImpl bank;
+    private final BankStore store;
+
+    BatchExecutor(BankServiceImpl bank) {
+        this.bank = bank;
+        this.store = bank.getStore();
+    }
+
+    List<InstructionResult> execute(List<Instruction> instructions) {
+        Chunk chunk = run(instructions, 0);
+        bank.sync(chunk.lsn);
+        return Arrays.asList(chunk.results);
+    }
+
+    // Streams in fixed-size chunks; the fsync of one chunk overlaps with executing the next
+    void execute(Stream<Instruction> instructions, Consumer<InstructionResult> results) {
+        List<Instruction> buffer = new ArrayList<>(STREAM_CHUNK);
+        Chunk[] pending = new Chunk[1];
+        int[] next = new int[1];
+        instructions.forEachOrdered(instruction -> {
+            buffer.add(instruction);
+            if (buffer.size() == STREAM_CHUNK) {
+                Chunk chunk = run(buffer, next[0]);
+                next[0] += buffer.size();
+                buffer.clear();
+                emit(pending[0], results);
+                pending[0] = chunk;
+            }
+        });
+        Chunk last = buffer.isEmpty() ? null : run(buffer, next[0]);
+        emit(pending[0], results);
+        emit(last, results);
+    }
+
+    private void emit(Chunk chunk, Consumer<InstructionResult> results) {
+        if (chunk == null) return;
+        bank.sync(chunk.lsn);
+        for (InstructionResult r : chunk.results) results.accept(r);
+    }
+
+    private Chunk run(List<Instruction> instructions, int baseIndex) {
+        int n = instructions.size();
+        InstructionResult[] results = new InstructionResult[n];
+        Account[] sources = new Account[n];
+        Account[] targets = new Account[n];
+        Map<Account, Integer> nodes = new IdentityHashMap<>();
+        UnionFind groups = new UnionFind(2 * n);
+        int[] nodeOf = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            Instruction in = instructions.get(i);
+            String error = validate(in);
+            if (error != null) {
+                results[i] = InstructionResult.rejected(baseIndex + i, error);
+                continue;
+            }
+            sources[i] = store.getAccount(in.getAccountId());
+            int node = nodes.computeIfAbsent(sources[i], a -> nodes.size());
+            if (in.getType() == TransactionType.TRANSFER) {
+                targets[i] = store.getAccount(in.getCounterpartyId());
+                groups.union(node, nodes.computeIfAbsent(targets[i], a -> nodes.size()));
+            }
+            nodeOf[i] = node;
+        }
+
+        Map<Integer, List<Integer>> byGroup = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (results[i] == null) byGroup.computeIfAbsent(groups.find(nodeOf[i]), g -> new ArrayList<>()).add(i);
+        }
+
+        LongAccumulator maxLsn = new LongAccumulator(Math::max, 0);
+        byGroup.values().parallelStream().forEach(group -> {
+            long lsn = 0;
+            for (int i : group) {
+                Instruction in = instructions.get(i);
+                try {
+                    lsn = switch (in.getType()) {
+                        case DEPOSIT -> bank.postDeposit(sources[i], in.getAmount());
+                        case WITHDRAW -> bank.postWithdraw(sources[i], in.getAmount());
+                        case TRANSFER -> bank.postTransfer(sources[i], targets[i], in.getAmount());
+                        case INTEREST -> throw new IllegalArgumentException("Interest is only posted by the accrual job");
+                        case TRANSFER_IN -> throw new IllegalArgumentException("Credits are posted as the other side of a transfer");
+                    };
+                    results[i] = InstructionResult.applied(baseIndex + i);
+                } catch (RuntimeException e) {
+                    results[i] = InstructionResult.rejected(baseIndex + i, e.getMessage());
+                }
+            }
+            maxLsn.accumulate(lsn);
+        });
+        return new Chunk(results, maxLsn.get());
+    }
+
+    private String validate(Instruction in) {
+        if (in == null || in.getType() == null) return "Missing instruction type";
+        if (in.getAmount() <= 0) return "Amount must be positive";
+        if (in.getAccountId() == null || store.getAccount(in.getAccountId()) == null) return "Invalid Account";
+        if (in.getType() == TransactionType.TRANSFER
+                && (in.getCounterpartyId() == null || store.getAccount(in.getCounterpartyId()) == null))
+            return "Invalid Account(s)";
+        return null;
+    }
+
+    private record Chunk(InstructionResult[] results, long lsn) {}
+
+    private static final class UnionFind {
+        private final int[] parent;
+
+        UnionFind(int size) {
+            parent = new int[size];
+            for (int i = 0; i < size; i++) parent[i] = i;
+        }
+
+        int find(int x) {
+            while (parent[x] != x) {
+                parent[x] = parent[parent[x]];
+                x = parent[x];
+            }
+            return x;
+        }
+
+        void union(int a, int b) {
+            parent[find(a)] = find(b);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.util.Money;
+import com.hdfcbank.util.Validator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Bulk onboarding from a CSV file with the columns of HEADER, one customer per row plus an optional
+// account (leave account_type empty for none; opening_balance is in rupees).
+//
+// The file is cut into fixed-size byte ranges that worker threads read with positional NIO reads
+// and parse independently: a range owns every line that starts inside it, finishing its last line
+// past the boundary. Each row is registered through BankServiceImpl.onboard(), which validates,
+// journals and publishes the customer and its account exactly as registerCustomer/createAccount do,
+// but nothing waits per row: each range waits once for its highest LSN. Finished ranges are consumed in file order, so rejects come out
+// in line order, and only a few ranges are ever in flight, so memory stays bounded however large
+// the file is. Every rejected row is written to the rejects file with its line number and reasons.
+public class CustomerImport {
+    public static final String HEADER = "name,email,phone,dob,account_type,opening_balance";
+    public static final String REJECTS_HEADER = "line,errors,row";
+
+    private static final int CHUNK_BYTES = 4 << 20;
+    private static final int MAX_LINE_BYTES = 64 << 10;
+    private static final int FIELDS = 6;
+
+    private final BankServiceImpl bank;
+    private final int parallelism;
+
+    public CustomerImport(BankServiceImpl bank, int parallelism) {
+        if (parallelism <= 0) throw new IllegalArgumentException("Parallelism must be positive");
+        this.bank = bank;
+        this.parallelism = parallelism;
+    }
+
+    public Summary run(Path csv, Path rejects) throws IOException {
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "import");
+            t.setDaemon(true);
+            return t;
+        });
+        long rows = 0;
+        long customers = 0;
+        long accounts = 0;
+        long rejected = 0;
+        try (FileChannel in = FileChannel.open(csv, StandardOpenOption.READ);
+             Writer out = Files.newBufferedWriter(rejects)) {
+            out.write(REJECTS_HEADER);
+            out.write('\n');
+            long size = in.size();
+            Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+            long nextLine = 1; // 1-based file line number of the next range's first line
+            for (long offset = 0; offset < size || !inFlight.isEmpty(); ) {
+                if (offset < size && inFlight.size() < 2 * parallelism) {
+                    long from = offset;
+                    inFlight.add(workers.submit(() -> parse(in, from, size)));
+                    offset += CHUNK_BYTES;
+                    continue;
+                }
+                Chunk chunk = await(inFlight.poll());
+                bank.sync(chunk.lsn);
+                for (Reject r : chunk.rejects) {
+                    out.write(Long.toString(nextLine + r.line));
+                    out.write(',');
+                    out.write(quote(r.errors));
+                    out.write(',');
+                    out.write(quote(r.row));
+                    out.write('\n');
+                }
+                nextLine += chunk.lines;
+                rows += chunk.rows;
+                customers += chunk.customers;
+                accounts += chunk.accounts;
+                rejected += chunk.rejects.size();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return new Summary(rows, customers, accounts, rejected, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private static Chunk await(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IOException("Import failed", e.getCause());
+        }
+    }
+
+    // Parses and registers every line that starts in [offset, offset + CHUNK_BYTES)
+    private Chunk parse(FileChannel in, long offset, long size) {
+        // One byte of look-behind tells whether 'offset' itself starts a line
+        long from = offset == 0 ? 0 : offset - 1;
+        byte[] bytes = new byte[(int) Math.min(CHUNK_BYTES + MAX_LINE_BYTES + 1L, size - from)];
+        read(in, bytes, from);
+        int owned = (int) (Math.min(offset + CHUNK_BYTES, size) - from);
+        boolean lastChunk = from + bytes.length == size;
+
+        Chunk chunk = new Chunk();
+        int p = 0;
+        if (offset > 0) {
+            p = indexOf(bytes, (byte) '\n', 0, bytes.length) + 1;
+            if (p == 0 || p >= owned) return chunk; // no line starts in this range
+        }
+        String[] fields = new String[FIELDS];
+        while (p < owned) {
+            int eol = indexOf(bytes, (byte) '\n', p, bytes.length);
+            if (eol < 0) {
+                if (!lastChunk) {
+                    chunk.reject(chunk.lines, "Line longer than " + MAX_LINE_BYTES + " bytes", "");
+                    chunk.lines++;
+                    break;
+                }
+                eol = bytes.length;
+            }
+            int end = eol > p && bytes[eol - 1] == '\r' ? eol - 1 : eol;
+            if (offset == 0 && chunk.lines == 0 && isHeader(bytes, p, end)) {
+                chunk.lines++;
+                p = eol + 1;
+                continue;
+            }
+            if (end > p) row(bytes, p, end, fields, chunk);
+            chunk.lines++;
+            p = eol + 1;
+        }
+        return chunk;
+    }
+
+    private void row(byte[] bytes, int from, int to, String[] fields, Chunk chunk) {
+        chunk.rows++;
+        int count = split(bytes, from, to, fields);
+        if (count != FIELDS) {
+            chunk.reject(chunk.lines, count < 0 ? "Unbalanced quotes" : "Expected " + FIELDS + " fields but found " + count,
+                    new String(bytes, from, to - from, StandardCharsets.UTF_8));
+            return;
+        }
+        String name = fields[0].trim();
+        String email = fields[1].trim();
+        String phone = fields[2].trim();
+        String dob = fields[3].trim();
+        List<String> problems = new ArrayList<>(2);
+        AccountType type = null;
+        long balance = 0;
+        String typeField = fields[4].trim();
+        if (!typeField.isEmpty()) {
+            try {
+                type = AccountType.valueOf(typeField.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                problems.add("Invalid account type: " + typeField);
+            }
+        }
+        String balanceField = fields[5].trim();
+        if (!balanceField.isEmpty()) {
+            try {
+                balance = Money.parse(balanceField);
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                problems.add("Invalid opening balance: " + balanceField);
+            }
+            if (type == null && problems.isEmpty()) problems.add("Opening balance given without an account type");
+        }
+        if (problems.isEmpty()) {
+            try {
+                chunk.lsn = bank.onboard(name, email, phone, dob, type, balance);
+                chunk.customers++;
+                if (type != null) chunk.accounts++;
+                return;
+            } catch (IllegalArgumentException e) {
+                problems.add(e.getMessage());
+            }
+        } else {
+            // Report the customer fields' problems along with the account's
+            int errors = Validator.check(name, email, phone, dob);
+            if (errors != 0) problems.addAll(0, Validator.describe(errors));
+        }
+        chunk.reject(chunk.lines, String.join("; ", problems), new String(bytes, from, to - from, StandardCharsets.UTF_8));
+    }
+
+    // Splits one CSV line into 'out'; returns the field count, or -1 for an unterminated quote.
+    // Fields may be double-quoted, with "" standing for a literal quote.
+    private static int split(byte[] b, int from, int to, String[] out) {
+        int count = 0;
+        int p = from;
+        while (true) {
+            String field;
+            if (p < to && b[p] == '"') {
+                StringBuilder sb = new StringBuilder();
+                int i = p + 1;
+                int runStart = i;
+                while (true) {
+                    if (i >= to) return -1;
+                    if (b[i] == '"') {
+                        sb.append(new String(b, runStart, i - runStart, StandardCharsets.UTF_8));
+                        if (i + 1 < to && b[i + 1] == '"') {
+                            sb.append('"');
+                            i += 2;
+                            runStart = i;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    i++;
+                }
+                field = sb.toString();
+                p = i;
+                while (p < to && b[p] != ',') p++; // anything between the closing quote and the comma is dropped
+            } else {
+                int comma = indexOf(b, (byte) ',', p, to);
+                int end = comma < 0 ? to : comma;
+                field = new String(b, p, end - p, StandardCharsets.UTF_8);
+                p = end;
+            }
+            if (count < out.length) out[count] = field;
+            count++;
+            if (p >= to) return count;
+            p++; // past the comma
+        }
+    }
+
+    private static boolean isHeader(byte[] b, int from, int to) {
+        return new String(b, from, to - from, StandardCharsets.UTF_8).trim().equalsIgnoreCase(HEADER);
+    }
+
+    private static int indexOf(byte[] b, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (b[i] == value) return i;
+        }
+        return -1;
+    }
+
+    private static void read(FileChannel in, byte[] bytes, long position) {
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        try {
+            while (buf.hasRemaining()) {
+                if (in.read(buf, position + buf.position()) < 0) throw new IOException("File shrank during import");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String quote(String s) {
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private record Reject(long line, String errors, String row) {}
+
+    // What one byte range produced; 'line' numbers in rejects are relative to the range's first line
+    private static final class Chunk {
+        final List<Reject> rejects = new ArrayList<>();
+        long lines;
+        long rows;
+        long customers;
+        long accounts;
+        long lsn;
+
+        void reject(long line, String errors, String row) {
+            rejects.add(new Reject(line, errors, row));
+        }
+    }
+
+    public record Summary(long rows, long customers, long accounts, long rejected, Duration elapsed) {
+        public double rowsPerSecond() {
+            return rows / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d rows: %,d customers and %,d accounts created, %,d rejected in %.1fs (%,.0f rows/sec)",
+                    rows, customers, accounts, rejected, elapsed.toNanos() / 1e9, rowsPerSecond());
+        }
+    }
+}
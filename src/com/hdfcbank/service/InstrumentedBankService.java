@@ -0,0 +1,237 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.exception.InsufficientBalanceException;
+import com.hdfcbank.exception.InvalidAccountException;
+import com.hdfcbank.exception.VelocityLimitExceededException;
+import com.hdfcbank.model.*;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.service.BankMetrics.Operation;
+import com.hdfcbank.service.BankMetrics.OperationStats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Decorates a BankService with per-operation latency histograms and rejection counts. A call costs
+// two System.nanoTime() reads and a handful of atomic adds on top of the operation itself. Wrapping a
+// BankServiceImpl also turns on its account monitor contention count.
+public class InstrumentedBankService implements BankService {
+    private final BankService bankService;
+    private final BankMetrics metrics;
+    private final OperationStats deposits;
+    private final OperationStats withdrawals;
+    private final OperationStats transfers;
+    private final OperationStats multiLeg;
+    private final OperationStats lookups;
+
+    public InstrumentedBankService(BankService bankService) {
+        this(bankService, new BankMetrics());
+    }
+
+    public InstrumentedBankService(BankService bankService, BankMetrics metrics) {
+        this.bankService = bankService;
+        this.metrics = metrics;
+        this.deposits = metrics.of(Operation.DEPOSIT);
+        this.withdrawals = metrics.of(Operation.WITHDRAW);
+        this.transfers = metrics.of(Operation.TRANSFER);
+        this.multiLeg = metrics.of(Operation.MULTI_LEG);
+        this.lookups = metrics.of(Operation.GET_TRANSACTIONS);
+        if (bankService instanceof BankServiceImpl impl) impl.countContention(metrics.contendedPostings());
+    }
+
+    public BankMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Customer registerCustomer(String name, String email, String phone, String dob) {
+        return bankService.registerCustomer(name, email, phone, dob);
+    }
+
+    @Override
+    public Account createAccount(String customerId, AccountType type, long bal) {
+        return bankService.createAccount(customerId, type, bal);
+    }
+
+    @Override
+    public void deposit(String accountId, long amt) throws InvalidAccountException {
+        long start = System.nanoTime();
+        try {
+            bankService.deposit(accountId, amt);
+        } catch (RuntimeException e) {
+            deposits.failed(start, e);
+            throw e;
+        }
+        deposits.completed(start);
+    }
+
+    @Override
+    public void withdraw(String accountId, long amt) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException {
+        long start = System.nanoTime();
+        try {
+            bankService.withdraw(accountId, amt);
+        } catch (RuntimeException e) {
+            withdrawals.failed(start, e);
+            throw e;
+        }
+        withdrawals.completed(start);
+    }
+
+    @Override
+    public void transfer(String fromAcc, String toAcc, long amt) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException {
+        long start = System.nanoTime();
+        try {
+            bankService.transfer(fromAcc, toAcc, amt);
+        } catch (RuntimeException e) {
+            transfers.failed(start, e);
+            throw e;
+        }
+        transfers.completed(start);
+    }
+
+    @Override
+    public List<Transaction> post(List<Leg> legs) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException {
+        long start = System.nanoTime();
+        List<Transaction> entries;
+        try {
+            entries = bankService.post(legs);
+        } catch (RuntimeException e) {
+            multiLeg.failed(start, e);
+            throw e;
+        }
+        multiLeg.completed(start);
+        return entries;
+    }
+
+    @Override
+    public Receipt deposit(String accountId, long amt, String idempotencyKey) throws InvalidAccountException {
+        long start = System.nanoTime();
+        Receipt receipt;
+        try {
+            receipt = bankService.deposit(accountId, amt, idempotencyKey);
+        } catch (RuntimeException e) {
+            deposits.failed(start, e);
+            throw e;
+        }
+        deposits.completed(start);
+        return receipt;
+    }
+
+    @Override
+    public Receipt withdraw(String accountId, long amt, String idempotencyKey) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException {
+        long start = System.nanoTime();
+        Receipt receipt;
+        try {
+            receipt = bankService.withdraw(accountId, amt, idempotencyKey);
+        } catch (RuntimeException e) {
+            withdrawals.failed(start, e);
+            throw e;
+        }
+        withdrawals.completed(start);
+        return receipt;
+    }
+
+    @Override
+    public Receipt transfer(String fromAcc, String toAcc, long amt, String idempotencyKey) throws InsufficientBalanceException, VelocityLimitExceededException, InvalidAccountException {
+        long start = System.nanoTime();
+        Receipt receipt;
+        try {
+            receipt = bankService.transfer(fromAcc, toAcc, amt, idempotencyKey);
+        } catch (RuntimeException e) {
+            transfers.failed(start, e);
+            throw e;
+        }
+        transfers.completed(start);
+        return receipt;
+    }
+
+    @Override
+    public List<InstructionResult> submitBatch(List<Instruction> instructions) {
+        return bankService.submitBatch(instructions);
+    }
+
+    @Override
+    public void submitBatch(Stream<Instruction> instructions, Consumer<InstructionResult> results) {
+        bankService.submitBatch(instructions, results);
+    }
+
+    @Override
+    public List<Transaction> getTransactions(String accId) {
+        long start = System.nanoTime();
+        List<Transaction> txns;
+        try {
+            txns = bankService.getTransactions(accId);
+        } catch (RuntimeException e) {
+            lookups.failed(start, e);
+            throw e;
+        }
+        lookups.completed(start);
+        return txns;
+    }
+
+    @Override
+    public List<Transaction> getTransactions(String accId, String beforeTxnId, int limit) {
+        long start = System.nanoTime();
+        List<Transaction> txns;
+        try {
+            txns = bankService.getTransactions(accId, beforeTxnId, limit);
+        } catch (RuntimeException e) {
+            lookups.failed(start, e);
+            throw e;
+        }
+        lookups.completed(start);
+        return txns;
+    }
+
+    // Lazy, so there is no single call latency worth recording
+    @Override
+    public Stream<Transaction> statement(String accId, StatementQuery query) {
+        return bankService.statement(accId, query);
+    }
+
+    @Override
+    public Account getAccount(String accountId) {
+        return bankService.getAccount(accountId);
+    }
+
+    @Override
+    public Customer getCustomer(String customerId) {
+        return bankService.getCustomer(customerId);
+    }
+
+    @Override
+    public List<Account> getCustomerAccounts(String customerId) {
+        return bankService.getCustomerAccounts(customerId);
+    }
+
+    @Override
+    public List<Customer> findCustomersByEmail(String email) {
+        return bankService.findCustomersByEmail(email);
+    }
+
+    @Override
+    public List<Customer> findCustomersByPhone(String phone) {
+        return bankService.findCustomersByPhone(phone);
+    }
+
+    @Override
+    public Portfolio getPortfolio(String customerId) {
+        return bankService.getPortfolio(customerId);
+    }
+
+    @Override
+    public long getBalanceAsOf(String accountId, LocalDateTime asOf) throws InvalidAccountException {
+        return bankService.getBalanceAsOf(accountId, asOf);
+    }
+
+    @Override
+    public long getCustomerBalance(String customerId) {
+        return bankService.getCustomerBalance(customerId);
+    }
+
+    @Override
+    public long getTotalBalance(AccountType type) {
+        return bankService.getTotalBalance(type);
+    }
+}
@@ -0,0 +1,181 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.exception.InsufficientBalanceException;
+import com.hdfcbank.exception.InvalidAccountException;
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.store.BankStore;
+import com.hdfcbank.store.VelocityLimiter;
+import com.hdfcbank.util.IDGenerator;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedTransferQueue;
+
+// Single-writer-per-shard execution engine. Accounts are hashed by their numeric ID onto N shard
+// threads, and every posting to an account runs on its shard's thread, so each account's balance
+// and ledger are only ever written by one core. Shard tasks therefore take no locks: balances
+// change through Account's *AsOwner updates, with no monitor or compare-and-set, and ledger
+// appends need no more than the one writer they have. While an engine runs, its accounts must
+// only be posted to through it, and the per-customer aggregate check is only exact when it is idle.
+//
+// A transfer between shards is two messages: the source shard debits and records the posting, then
+// hands the credit, with the debit's transaction number, to the destination shard, which records
+// it dated as it lands. The money is briefly in flight between the two.
+// The in-flight credit is not journaled, so the engine only runs over an in-memory bank.
+public class ShardedBankEngine implements Closeable {
+    private final BankStore store;
+    private final Shard[] shards;
+
+    public ShardedBankEngine(BankServiceImpl bank, int shardCount) {
+        if (bank.getJournal() != null) throw new IllegalArgumentException("Sharded engine requires an in-memory bank");
+        if (shardCount <= 0) throw new IllegalArgumentException("Shard count must be positive");
+        this.store = bank.getStore();
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) shards[i] = new Shard(i);
+    }
+
+    public int shardOf(String accountId) {
+        return (int) (IDGenerator.accountNumber(accountId) % shards.length);
+    }
+
+    public CompletableFuture<Void> deposit(String accountId, long amt) {
+        if (amt <= 0) return CompletableFuture.failedFuture(new IllegalArgumentException("Amount must be positive"));
+        Account acc = store.getAccount(accountId);
+        if (acc == null) return CompletableFuture.failedFuture(new InvalidAccountException("Invalid Account"));
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        shards[shardOf(accountId)].submit(() -> {
+            acc.depositAsOwner(amt);
+            store.aggregates().adjust(acc, amt);
+            store.append(new Transaction(IDGenerator.nextTxnNumber(), acc.getAccountId(), TransactionType.DEPOSIT, amt));
+            result.complete(null);
+        }, result);
+        return result;
+    }
+
+    public CompletableFuture<Void> withdraw(String accountId, long amt) {
+        if (amt <= 0) return CompletableFuture.failedFuture(new IllegalArgumentException("Amount must be positive"));
+        Account acc = store.getAccount(accountId);
+        if (acc == null) return CompletableFuture.failedFuture(new InvalidAccountException("Invalid Account"));
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        shards[shardOf(accountId)].submit(() -> {
+            debit(acc, amt);
+            store.aggregates().adjust(acc, -amt);
+            store.append(new Transaction(IDGenerator.nextTxnNumber(), acc.getAccountId(), TransactionType.WITHDRAW, amt));
+            result.complete(null);
+        }, result);
+        return result;
+    }
+
+    // Completes once the credit has landed; fails with InsufficientBalanceException or
+    // VelocityLimitExceededException if the debit is refused
+    public CompletableFuture<Void> transfer(String fromAcc, String toAcc, long amt) {
+        if (amt <= 0) return CompletableFuture.failedFuture(new IllegalArgumentException("Amount must be positive"));
+        Account src = store.getAccount(fromAcc);
+        Account dest = store.getAccount(toAcc);
+        if (src == null || dest == null) return CompletableFuture.failedFuture(new InvalidAccountException("Invalid Account(s)"));
+        if (src == dest) return CompletableFuture.failedFuture(new IllegalArgumentException("Cannot transfer to the same account"));
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Shard source = shards[shardOf(fromAcc)];
+        Shard target = shards[shardOf(toAcc)];
+        if (source == target) {
+            source.submit(() -> {
+                debit(src, amt);
+                dest.depositAsOwner(amt);
+                store.aggregates().adjust(src, -amt);
+                store.aggregates().adjust(dest, amt);
+                Transaction txn = new Transaction(IDGenerator.nextTxnNumber(), src.getAccountId(), TransactionType.TRANSFER, amt);
+                store.append(txn);
+                store.append(new Transaction(txn.getTxnNumber(), dest.getAccountId(), TransactionType.TRANSFER_IN, amt, txn.getDate()));
+                result.complete(null);
+            }, result);
+            return result;
+        }
+        source.submit(() -> {
+            // Phase 1 on the source shard: debit and record the posting
+            debit(src, amt);
+            store.aggregates().adjust(src, -amt);
+            Transaction txn = new Transaction(IDGenerator.nextTxnNumber(), src.getAccountId(), TransactionType.TRANSFER, amt);
+            store.append(txn);
+            // Phase 2 on the destination shard: the credit cannot fail. It shares the debit's number
+            // but is dated as it lands, so the destination's dates keep rising; if the destination
+            // has posted newer numbers meanwhile, its ledger takes the entry as a late one.
+            long txnNumber = txn.getTxnNumber();
+            target.submit(() -> {
+                dest.depositAsOwner(amt);
+                store.aggregates().adjust(dest, amt);
+                store.append(new Transaction(txnNumber, dest.getAccountId(), TransactionType.TRANSFER_IN, amt));
+                result.complete(null);
+            }, result);
+        }, result);
+        return result;
+    }
+
+    // BankServiceImpl.debit() with the owner's withdrawal: the limiter is shared by every shard, so
+    // its slot pin is the one atomic step left on this path
+    private void debit(Account acc, long amt) {
+        VelocityLimiter limiter = store.velocity();
+        if (limiter == null) {
+            acc.withdrawAsOwner(amt);
+            return;
+        }
+        long epoch = limiter.admit(acc, amt);
+        try {
+            acc.withdrawAsOwner(amt);
+        } catch (InsufficientBalanceException e) {
+            limiter.refund(acc, amt, epoch);
+            throw e;
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    @Override
+    public void close() {
+        for (Shard shard : shards) shard.stop();
+    }
+
+    private static final class Shard {
+        private static final Runnable STOP = () -> {};
+
+        private final LinkedTransferQueue<Runnable> inbox = new LinkedTransferQueue<>();
+        private final Thread thread;
+
+        Shard(int index) {
+            thread = new Thread(this::run, "shard-" + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        // Whatever a task throws, Errors included, fails its future and leaves the shard running
+        void submit(Runnable task, CompletableFuture<?> result) {
+            inbox.add(() -> {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        }
+
+        void stop() {
+            inbox.add(STOP);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void run() {
+            try {
+                for (Runnable task = inbox.take(); task != STOP; task = inbox.take()) task.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.util.Money;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes a statement as CSV while it is being read, so exporting a long history holds one entry
+// in memory at a time. Amounts and the balance after each entry are in rupees with two decimals.
+public final class StatementCsv {
+    public static final String HEADER = "txn_id,date,type,amount,balance";
+
+    private StatementCsv() {}
+
+    // Returns the number of entries written; the writer is flushed but not closed
+    public static long write(Stream<Transaction> statement, Writer out) throws IOException {
+        long rows = 0;
+        out.write(HEADER);
+        out.write('\n');
+        for (Iterator<Transaction> it = statement.iterator(); it.hasNext(); rows++) {
+            Transaction txn = it.next();
+            out.write(txn.getTxnId());
+            out.write(',');
+            out.write(txn.getDate().toString());
+            out.write(',');
+            out.write(txn.getType().name());
+            out.write(',');
+            out.write(Money.format(txn.getAmount()));
+            out.write(',');
+            out.write(Money.format(txn.getBalanceAfter()));
+            out.write('\n');
+        }
+        out.flush();
+        return rows;
+    }
+}
@@ -0,0 +1,332 @@
+package com.hdfcbank.store;
+
+import com.hdfcbank.model.StatementQuery;
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.util.IDGenerator;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Append-ordered transaction history of a single account. The rows themselves live off-heap in the
+// store's TransactionColumns; the ledger only keeps their row numbers in posting order, 8 bytes of
+// heap per entry, and builds Transaction objects when a caller asks for them. Newest-first reads
+// walk the row list backwards and never need a sort. Transaction numbers are mostly drawn by the
+// writer that appends them, so they rise along the list and a cursor is found by binary search.
+// The exception is a cross-shard credit, which carries its debit's number and may land after the
+// destination has posted newer ones: such a late entry is left where it lands and found through a
+// small hash of late positions instead, and the binary search steps over it.
+//
+// Every row is stamped with the ledger's running net, so the balance after any entry is the
+// opening balance plus that entry's stamp. That only holds if entries go in in the order the
+// balance changed, so a posting appends in the same step as its balance update, under the
+// account monitor or on the account's shard; nothing updates a balance and appends later.
+//
+// Dates rise along the list too (each is taken as its entry is appended), and the first date of
+// every block of 256 entries is kept on the heap, 8 bytes per block: a point in time is found by
+// binary search over the blocks and then inside one block, O(log n) with few cache misses even
+// for tens of millions of entries. That serves balance-as-of queries and lets date-range
+// statements start and stop at the range's ends. A ledger whose dates ever went backwards (a
+// clock step) falls back to scans.
+//
+// Appends take no lock: the caller makes sure there is one writer at a time (the account monitor,
+// or the shard that owns the account), and each append publishes its entry by writing the
+// volatile size last. Readers take no lock either: they read size first and then the row list,
+// block index and late hash, which are only ever appended to or replaced by larger copies, so
+// every entry below the size they read stays readable however far the writer has got since.
+public class AccountLedger {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int BLOCK_SHIFT = 8;
+    private static final int BLOCK_MASK = (1 << BLOCK_SHIFT) - 1;
+    private static final long[] NO_ROWS = {};
+
+    private final String accountId;
+    private final long accountNumber;
+    private final TransactionColumns columns;
+    private volatile long[] rows = NO_ROWS; // most accounts of a large bank hold few entries; allocated on first append
+    private volatile int size;
+    private volatile long opening; // balance before the first entry
+    private long net; // running net after the last entry
+    private volatile long[] blockTimes = NO_ROWS; // date of entry i << BLOCK_SHIFT, as epoch nanos
+    private long lastTime = Long.MIN_VALUE;
+    private volatile boolean chronological = true; // false if an append was ever dated before its predecessor
+    private long highest = Long.MIN_VALUE; // highest number among the entries appended in order
+    private volatile int[] late; // positions + 1 of late entries, hashed by number; null while there are none
+    private int lateCount;
+
+    // Receives one ledger row without a Transaction being built for it
+    public interface RowVisitor {
+        void visit(long txnNumber, TransactionType type, long amount, long epochNanos);
+    }
+
+    public AccountLedger(String accountId, TransactionColumns columns, long openingBalance) {
+        this.accountId = accountId;
+        this.accountNumber = IDGenerator.accountNumber(accountId);
+        this.columns = columns;
+        this.opening = openingBalance;
+    }
+
+    // Appends the entry and stamps it with the balance it leaves behind. Only one writer at a time.
+    public void append(Transaction txn) {
+        int n = size;
+        long[] r = rows;
+        if (n == r.length) rows = r = Arrays.copyOf(r, Math.max(INITIAL_CAPACITY, n << 1));
+        long number = txn.getTxnNumber();
+        if (number > highest) highest = number;
+        else addLate(number, n);
+        long time = TransactionColumns.epochNanos(txn.getDate());
+        if (time < lastTime) chronological = false;
+        lastTime = time;
+        if ((n & BLOCK_MASK) == 0) {
+            int block = n >>> BLOCK_SHIFT;
+            long[] blocks = blockTimes;
+            if (block == blocks.length) blockTimes = blocks = Arrays.copyOf(blocks, Math.max(INITIAL_CAPACITY, block << 1));
+            blocks[block] = time;
+        }
+        net += txn.getType().isCredit() ? txn.getAmount() : -txn.getAmount();
+        r[n] = columns.append(number, accountNumber, txn.getType(), txn.getAmount(), time, net);
+        txn.setBalanceAfter(opening + net);
+        size = n + 1;
+    }
+
+    // Takes over 'n' consecutive rows from 'firstRow' on as the whole history of a ledger nothing has
+    // been posted to, for loading a snapshot. The rows keep their saved running nets and the date
+    // flag is the saved one, so no entry is re-stamped; only a ledger saved with late entries has
+    // its numbers walked to find them again. The opening balance is set so that the latest entry
+    // leaves 'balance' behind.
+    public void restore(long firstRow, int n, long balance, boolean ordered, boolean chronological) {
+        if (size != 0) throw new IllegalStateException("Ledger " + accountId + " already has entries");
+        if (n > 0) {
+            long[] r = new long[n];
+            for (int i = 0; i < n; i++) r[i] = firstRow + i;
+            long[] blocks = new long[((n - 1) >>> BLOCK_SHIFT) + 1];
+            for (int b = 0; b < blocks.length; b++) blocks[b] = columns.epochNanos(firstRow + ((long) b << BLOCK_SHIFT));
+            rows = r;
+            blockTimes = blocks;
+            if (ordered) {
+                highest = columns.txnNumber(firstRow + n - 1);
+            } else {
+                for (int i = 0; i < n; i++) {
+                    long number = columns.txnNumber(firstRow + i);
+                    if (number > highest) highest = number;
+                    else addLate(number, i);
+                }
+            }
+            net = columns.running(firstRow + n - 1);
+            lastTime = columns.epochNanos(firstRow + n - 1);
+        }
+        this.chronological = chronological;
+        opening = balance - net;
+        size = n;
+    }
+
+    // Row numbers in TransactionColumns, oldest first. Only the first size() entries (read before
+    // this) are meaningful, and those never change.
+    public long[] rows() {
+        return rows;
+    }
+
+    // Balance after every entry dated before 'asOf' (the opening balance if there is none)
+    public long balanceBefore(LocalDateTime asOf) {
+        long t = TransactionColumns.epochNanos(asOf);
+        int n = size;
+        long[] r = rows;
+        long[] blocks = blockTimes;
+        boolean sorted = chronological;
+        long open = opening;
+        if (!sorted) {
+            long balance = open;
+            for (int i = 0; i < n; i++) {
+                long row = r[i];
+                if (columns.epochNanos(row) >= t) continue;
+                balance += columns.type(row).isCredit() ? columns.amount(row) : -columns.amount(row);
+            }
+            return balance;
+        }
+        int count = countBefore(r, blocks, n, t);
+        return count == 0 ? open : open + columns.running(r[count - 1]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Whether every entry was appended in number order (cursors are found by binary search either
+    // way), and whether points in time are found through the block index
+    public boolean isOrdered() { return late == null; }
+    public boolean isChronological() { return chronological; }
+
+    // Entries are never rewritten, so anything below a previously observed size() is stable
+    public Transaction get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException(index);
+        return materialize(rows[index]);
+    }
+
+    public List<Transaction> newestFirst() {
+        int n = size;
+        return collect(rows, n, n);
+    }
+
+    public List<Transaction> latest(int limit) {
+        int n = size;
+        return collect(rows, n, limit);
+    }
+
+    // Cursor page: up to 'limit' entries posted before the given transaction, newest first
+    public List<Transaction> before(String txnId, int limit) {
+        int n = size;
+        long[] r = rows;
+        int pos = indexOf(r, n, late, IDGenerator.txnNumber(txnId));
+        if (pos < 0) throw new IllegalArgumentException("Unknown transaction: " + txnId);
+        return collect(r, pos, limit);
+    }
+
+    // Lazy newest-first view of the entries matching 'query' at the time of the call. Type and date
+    // are checked on the columns, so only matching entries become Transaction objects, one at a time
+    // as the stream is consumed: memory use does not depend on history length and a short-circuiting
+    // operation (limit, findFirst, anyMatch) stops the walk early. In a chronological ledger the walk
+    // also starts and ends at the date range's ends instead of passing every later or earlier entry.
+    public Stream<Transaction> stream(StatementQuery query) {
+        int n = size;
+        long[] r = rows;
+        long[] blocks = blockTimes;
+        boolean sorted = chronological;
+        long from = query.getFrom() == null ? Long.MIN_VALUE : TransactionColumns.epochNanos(query.getFrom());
+        long until = query.getUntil() == null ? Long.MAX_VALUE : TransactionColumns.epochNanos(query.getUntil());
+        int end = sorted && until != Long.MAX_VALUE ? countBefore(r, blocks, n, until) : n;
+        int start = sorted && from != Long.MIN_VALUE ? countBefore(r, blocks, end, from) : 0;
+        Spliterator<Transaction> entries = new Spliterators.AbstractSpliterator<>(end - start,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE) {
+            private int next = end - 1;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Transaction> action) {
+                while (next >= start) {
+                    long row = r[next--];
+                    long time = columns.epochNanos(row);
+                    if (time < from || time >= until || !query.includes(columns.type(row))) continue;
+                    action.accept(materialize(row));
+                    return true;
+                }
+                return false;
+            }
+        };
+        return StreamSupport.stream(entries, false);
+    }
+
+    // Visits entries [from, to) oldest first, straight from the columns
+    public void scan(int from, int to, RowVisitor visitor) {
+        if (from < 0 || to > size || from > to) throw new IndexOutOfBoundsException(from + ".." + to);
+        long[] r = rows;
+        for (int i = from; i < to; i++) {
+            long row = r[i];
+            visitor.visit(columns.txnNumber(row), columns.type(row), columns.amount(row), columns.epochNanos(row));
+        }
+    }
+
+    // Number of leading entries among the first n that are dated before t; needs chronological dates
+    private int countBefore(long[] r, long[] blocks, int n, long t) {
+        if (n == 0) return 0;
+        // Blocks whose first entry is before t
+        int lo = 0;
+        int hi = ((n - 1) >>> BLOCK_SHIFT) + 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (blocks[mid] < t) lo = mid + 1;
+            else hi = mid;
+        }
+        if (lo == 0) return 0;
+        // The answer lies in the last of those blocks, after its first entry
+        lo = ((lo - 1) << BLOCK_SHIFT) + 1;
+        hi = Math.min(n, lo - 1 + (1 << BLOCK_SHIFT));
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (columns.epochNanos(r[mid]) < t) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // Position of the entry numbered 'txnNumber' among the first n, or -1
+    private int indexOf(long[] r, int n, int[] lateHash, long txnNumber) {
+        if (txnNumber < 0) return -1;
+        int pos = lateIndexOf(r, n, lateHash, txnNumber);
+        if (pos >= 0) return pos;
+        // The other entries' numbers rise along the list; a late entry the search lands on is
+        // stepped over to the nearest in-order one on its left
+        int lo = 0;
+        int hi = n - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int at = mid;
+            long number = columns.txnNumber(r[at]);
+            while (lateHash != null && lateIndexOf(r, n, lateHash, number) == at && --at >= lo) number = columns.txnNumber(r[at]);
+            if (at < lo || number < txnNumber) lo = mid + 1;
+            else if (number > txnNumber) hi = at - 1;
+            else return at;
+        }
+        return -1;
+    }
+
+    // Records that the entry about to go in at 'pos' is late, growing the hash at half full. The
+    // new table is filled before it is published, and slots only ever go from empty to full.
+    private void addLate(long number, int pos) {
+        int[] hash = late;
+        if (hash == null || (lateCount + 1) << 1 > hash.length) {
+            int[] grown = new int[hash == null ? INITIAL_CAPACITY : hash.length << 1];
+            if (hash != null) {
+                long[] r = rows;
+                for (int p : hash) if (p != 0) insertLate(grown, columns.txnNumber(r[p - 1]), p);
+            }
+            late = hash = grown;
+        }
+        insertLate(hash, number, pos + 1);
+        lateCount++;
+    }
+
+    private static void insertLate(int[] hash, long number, int slotValue) {
+        int mask = hash.length - 1;
+        int i = lateSlot(number, mask);
+        while (hash[i] != 0) i = (i + 1) & mask;
+        hash[i] = slotValue;
+    }
+
+    // Position of the late entry numbered 'txnNumber' among the first n, or -1. Slots a reader sees
+    // filled for entries past n are skipped like any other mismatch.
+    private int lateIndexOf(long[] r, int n, int[] hash, long txnNumber) {
+        if (hash == null) return -1;
+        int mask = hash.length - 1;
+        for (int i = lateSlot(txnNumber, mask); ; i = (i + 1) & mask) {
+            int p = hash[i];
+            if (p == 0) return -1;
+            if (p <= n && columns.txnNumber(r[p - 1]) == txnNumber) return p - 1;
+        }
+    }
+
+    // Numbers are sequential, so the bits are spread before masking
+    private static int lateSlot(long number, int mask) {
+        long h = number * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private List<Transaction> collect(long[] r, int end, int limit) {
+        int n = Math.min(Math.max(limit, 0), end);
+        if (n == 0) return Collections.emptyList();
+        List<Transaction> page = new ArrayList<>(n);
+        for (int i = end - 1; i >= end - n; i--) page.add(materialize(r[i]));
+        return page;
+    }
+
+    private Transaction materialize(long row) {
+        return new Transaction(columns.txnNumber(row), accountId, columns.type(row), columns.amount(row),
+                TransactionColumns.dateOf(columns.epochNanos(row)), opening + columns.running(row));
+    }
+}
@@ -0,0 +1,182 @@
+package com.hdfcbank.store;
+
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.enums.AccountType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Running balance totals per customer and per AccountType, so "how much does customer X hold" and
+// "how much sits in savings bank-wide" are O(1) reads instead of a walk over every account. Which
+// accounts a customer holds comes from the store's CustomerIndex.
+//
+// Every balance change must be reported through adjust() inside the same account monitor that
+// changed the balance. That is what makes a customer's totals checkable under live traffic: with
+// all of a customer's account monitors held, no posting is half-way through any of them, so the
+// counters must equal the balances exactly. Bank-wide totals are striped counters; they only equal
+// a recomputation when no posting is in flight.
+public class BalanceAggregates {
+    private static final AccountType[] TYPES = AccountType.values();
+    // Same order applyTransfer takes monitors in, so locking a customer's accounts cannot deadlock
+    private static final Comparator<Account> LOCK_ORDER = Comparator.comparing(Account::getAccountId);
+    // Monitors nest one stack frame per account; past this many they are taken on a helper thread
+    // whose stack is sized for the depth
+    private static final int NESTED_ON_CALLER = 2048;
+    private static final long STACK_BYTES_PER_ACCOUNT = 256;
+
+    private final CustomerIndex index;
+    private final LongObjectMap<Holdings> customers = new LongObjectMap<>();
+    private final LongAdder[] byType = new LongAdder[TYPES.length];
+
+    public BalanceAggregates(CustomerIndex index) {
+        this.index = index;
+        for (int i = 0; i < byType.length; i++) byType[i] = new LongAdder();
+    }
+
+    // Called through CustomerIndex as BankStore lists the account, before it is published, so no
+    // posting can reach it first
+    void opened(Account acc) {
+        Customer c = acc.getCustomer();
+        Holdings h = customers.get(c.getCustomerNumber());
+        if (h == null) {
+            Holdings fresh = new Holdings(c);
+            h = customers.putIfAbsent(c.getCustomerNumber(), fresh);
+            if (h == null) h = fresh;
+        }
+        h.balances.getAndAdd(acc.getType().ordinal(), acc.getBalance());
+        byType[acc.getType().ordinal()].add(acc.getBalance());
+    }
+
+    // Records a balance change of 'delta' paise; call it under acc's monitor, right after the change
+    public void adjust(Account acc, long delta) {
+        int type = acc.getType().ordinal();
+        customers.get(acc.getCustomer().getCustomerNumber()).balances.getAndAdd(type, delta);
+        byType[type].add(delta);
+    }
+
+    public long total(AccountType type) {
+        return byType[type.ordinal()].sum();
+    }
+
+    public long total() {
+        long total = 0;
+        for (LongAdder a : byType) total += a.sum();
+        return total;
+    }
+
+    public long customerTotal(long customerNumber) {
+        Holdings h = customers.get(customerNumber);
+        if (h == null) return 0;
+        long total = 0;
+        for (int i = 0; i < TYPES.length; i++) total += h.balances.get(i);
+        return total;
+    }
+
+    public long customerTotal(long customerNumber, AccountType type) {
+        Holdings h = customers.get(customerNumber);
+        return h == null ? 0 : h.balances.get(type.ordinal());
+    }
+
+    // Runs 'view' with every account of the customer locked, so no posting can change any of them
+    // until it returns; accounts are passed in lock order
+    public <T> T withAccountsLocked(long customerNumber, Function<List<Account>, T> view) {
+        // CustomerIndex holds off a concurrent createAccount for the same customer meanwhile
+        return index.withAccounts(customerNumber, accounts -> {
+            Arrays.sort(accounts, LOCK_ORDER);
+            if (accounts.length <= NESTED_ON_CALLER) return locked(accounts, 0, view);
+            List<T> result = new ArrayList<>(1);
+            RuntimeException[] failure = new RuntimeException[1];
+            Thread helper = new Thread(null, () -> {
+                try {
+                    result.add(locked(accounts, 0, view));
+                } catch (RuntimeException e) {
+                    failure[0] = e;
+                }
+            }, "lock-accounts", accounts.length * STACK_BYTES_PER_ACCOUNT);
+            helper.start();
+            try {
+                helper.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while locking accounts", e);
+            }
+            if (failure[0] != null) throw failure[0];
+            return result.get(0);
+        });
+    }
+
+    private static <T> T locked(Account[] accounts, int i, Function<List<Account>, T> view) {
+        if (i == accounts.length) return view.apply(List.of(accounts));
+        synchronized (accounts[i]) {
+            return locked(accounts, i + 1, view);
+        }
+    }
+
+    // Recomputes every customer's totals from the account balances, one customer at a time with its
+    // accounts locked, and compares them with the counters. Customer mismatches are exact even
+    // under concurrent postings; see Check.bankWideMatches() for the bank-wide totals.
+    public Check verify() {
+        long[] recomputed = new long[TYPES.length];
+        long[] counted = new long[TYPES.length];
+        List<String> mismatches = new ArrayList<>();
+        long[] seen = new long[2];
+        for (Holdings h : customers.values()) {
+            withAccountsLocked(h.customer.getCustomerNumber(), accounts -> {
+                long[] sums = new long[TYPES.length];
+                for (Account acc : accounts) sums[acc.getType().ordinal()] += acc.getBalance();
+                for (int i = 0; i < TYPES.length; i++) {
+                    long counter = h.balances.get(i);
+                    if (counter != sums[i]) {
+                        mismatches.add(h.customer.getCustomerId() + " " + TYPES[i] + ": counter " + counter
+                                + " but accounts hold " + sums[i]);
+                    }
+                    recomputed[i] += sums[i];
+                }
+                seen[1] += accounts.size();
+                return null;
+            });
+            seen[0]++;
+        }
+        for (int i = 0; i < TYPES.length; i++) counted[i] = byType[i].sum();
+        return new Check(seen[0], seen[1], mismatches, recomputed, counted);
+    }
+
+    public record Check(long customers, long accounts, List<String> mismatches, long[] recomputedByType,
+                        long[] countedByType) {
+        public boolean customersMatch() {
+            return mismatches.isEmpty();
+        }
+
+        // Only meaningful once postings have stopped: the per-customer sums are taken at different
+        // moments, so with traffic running they will not add up to the counters at any one instant
+        public boolean bankWideMatches() {
+            return Arrays.equals(recomputedByType, countedByType);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("checked " + customers + " customer(s), " + accounts + " account(s): ");
+            sb.append(mismatches.isEmpty() ? "customer totals match" : mismatches.size() + " customer mismatch(es)");
+            for (int i = 0; i < TYPES.length; i++) {
+                sb.append("; ").append(TYPES[i]).append(" recomputed ").append(recomputedByType[i])
+                        .append(" counted ").append(countedByType[i]);
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final class Holdings {
+        final Customer customer;
+        final AtomicLongArray balances = new AtomicLongArray(TYPES.length);
+
+        Holdings(Customer customer) {
+            this.customer = customer;
+        }
+    }
+}
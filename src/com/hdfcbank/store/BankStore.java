@@ -0,0 +1,85 @@
+package com.hdfcbank.store;
+
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.util.IDGenerator;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+// Thread-safe in-memory storage behind BankService. Everything is keyed by the numeric part of
+// its ID in lock-free LongObjectMaps, so a lookup by String ID parses it in place and never hashes
+// or allocates; postings are appended to the owning account's ledger, so writers only meet on the
+// same account. Ledger rows are kept off-heap in one TransactionColumns shared by every ledger.
+public class BankStore {
+    private final LongObjectMap<Customer> customers = new LongObjectMap<>();
+    private final LongObjectMap<Account> accounts = new LongObjectMap<>();
+    private final LongObjectMap<AccountLedger> ledgers = new LongObjectMap<>();
+    private final TransactionColumns transactions = new TransactionColumns();
+    private final CustomerIndex customerIndex = new CustomerIndex();
+    private final BalanceAggregates aggregates = new BalanceAggregates(customerIndex);
+    private volatile IdempotencyCache idempotency =
+            new IdempotencyCache(IdempotencyCache.DEFAULT_CAPACITY, IdempotencyCache.DEFAULT_WINDOW);
+    private volatile VelocityLimiter velocity; // null unless limitVelocity() was called
+
+    // Replaces the idempotency key cache; call before the first keyed posting or recovery
+    public void configureIdempotency(int capacity, Duration window) {
+        idempotency = new IdempotencyCache(capacity, window);
+    }
+
+    // Caps how often and how much any one account can be debited within 'window'; a 0 limit is none
+    public void limitVelocity(Duration window, int maxDebits, long maxAmount) {
+        velocity = new VelocityLimiter(window, maxDebits, maxAmount);
+    }
+
+    public void limitVelocity(VelocityLimiter limiter) {
+        velocity = limiter;
+    }
+
+    public void addCustomer(Customer customer) {
+        if (customers.putIfAbsent(customer.getCustomerNumber(), customer) != null)
+            throw new IllegalStateException("Duplicate customer: " + customer.getCustomerId());
+        customerIndex.add(customer);
+    }
+
+    public void addAccount(Account account) {
+        // The ledger insert claims the number: only its winner counts the opening balance and
+        // publishes the account. Ledger and aggregates go first, so an account is never visible
+        // without somewhere to post to and no posting can be counted before its opening balance.
+        AccountLedger ledger = new AccountLedger(account.getAccountId(), transactions, account.getBalance());
+        if (ledgers.putIfAbsent(account.getAccountNumber(), ledger) != null)
+            throw new IllegalStateException("Duplicate account: " + account.getAccountId());
+        customerIndex.add(account, aggregates::opened);
+        accounts.putIfAbsent(account.getAccountNumber(), account);
+    }
+
+    public void append(Transaction txn) {
+        ledgers.get(IDGenerator.accountNumber(txn.getAccountId())).append(txn);
+    }
+
+    public Customer getCustomer(String customerId) { return getCustomer(IDGenerator.customerNumber(customerId)); }
+    public Account getAccount(String accountId) { return getAccount(IDGenerator.accountNumber(accountId)); }
+    public AccountLedger getLedger(String accountId) { return ledgers.get(IDGenerator.accountNumber(accountId)); }
+
+    public Customer getCustomer(long customerNumber) { return customers.get(customerNumber); }
+    public Account getAccount(long accountNumber) { return accounts.get(accountNumber); }
+    public AccountLedger getLedger(long accountNumber) { return ledgers.get(accountNumber); }
+
+    // A customer's accounts in opening order, from a maintained index rather than a scan
+    public List<Account> accountsOf(long customerNumber) { return customerIndex.accountsOf(customerNumber); }
+    public List<Customer> findByEmail(String email) { return customerIndex.byEmail(email); }
+    public List<Customer> findByPhone(String phone) { return customerIndex.byPhone(phone); }
+
+    public Collection<Customer> customers() { return customers.values(); }
+    public Collection<Account> accounts() { return accounts.values(); }
+
+    public int customerCount() { return customers.size(); }
+    public int accountCount() { return accounts.size(); }
+    public long transactionCount() { return transactions.rowCount(); }
+    public TransactionColumns transactionColumns() { return transactions; }
+    public BalanceAggregates aggregates() { return aggregates; }
+    public IdempotencyCache idempotency() { return idempotency; }
+    public VelocityLimiter velocity() { return velocity; }
+}
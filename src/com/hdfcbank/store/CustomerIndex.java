@@ -0,0 +1,97 @@
+package com.hdfcbank.store;
+
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Email and phone -> customer lookups, maintained as customers are added to a BankStore. Neither is
+// unique (a family may share a phone), so each key maps to every customer registered with it, in
+// registration order. Emails match case-insensitively; surrounding whitespace is ignored.
+//
+// Also customer -> accounts, in opening order. A customer's account list has its own monitor: an
+// account is listed and counted in BalanceAggregates under it, and withAccounts() holds it, so a
+// caller never sees an account listed but not yet counted or the other way round.
+public class CustomerIndex {
+    private final ConcurrentHashMap<String, Matches> byEmail = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Matches> byPhone = new ConcurrentHashMap<>();
+    private final LongObjectMap<Accounts> byCustomer = new LongObjectMap<>();
+
+    void add(Customer c) {
+        if (c.getEmail() != null) byEmail.computeIfAbsent(emailKey(c.getEmail()), k -> new Matches()).add(c);
+        if (c.getPhone() != null) byPhone.computeIfAbsent(c.getPhone().trim(), k -> new Matches()).add(c);
+    }
+
+    // Lists the account and runs 'opened' for it under the customer's account list monitor
+    void add(Account acc, Consumer<Account> opened) {
+        long customerNumber = acc.getCustomer().getCustomerNumber();
+        Accounts list = byCustomer.get(customerNumber);
+        if (list == null) {
+            Accounts fresh = new Accounts();
+            list = byCustomer.putIfAbsent(customerNumber, fresh);
+            if (list == null) list = fresh;
+        }
+        synchronized (list) {
+            list.add(acc);
+            opened.accept(acc);
+        }
+    }
+
+    public List<Account> accountsOf(long customerNumber) {
+        return withAccounts(customerNumber, List::of);
+    }
+
+    // Runs 'view' on the customer's accounts while no account can be added for that customer
+    public <T> T withAccounts(long customerNumber, Function<Account[], T> view) {
+        Accounts list = byCustomer.get(customerNumber);
+        if (list == null) return view.apply(new Account[0]);
+        synchronized (list) {
+            return view.apply(Arrays.copyOf(list.accounts, list.size));
+        }
+    }
+
+    public List<Customer> byEmail(String email) {
+        return email == null ? List.of() : list(byEmail.get(emailKey(email)));
+    }
+
+    public List<Customer> byPhone(String phone) {
+        return phone == null ? List.of() : list(byPhone.get(phone.trim()));
+    }
+
+    private static String emailKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<Customer> list(Matches m) {
+        return m == null ? List.of() : m.snapshot();
+    }
+
+    private static final class Accounts {
+        private Account[] accounts = new Account[2];
+        private int size;
+
+        void add(Account acc) {
+            if (size == accounts.length) accounts = Arrays.copyOf(accounts, size << 1);
+            accounts[size++] = acc;
+        }
+    }
+
+    private static final class Matches {
+        private Customer[] customers = new Customer[1];
+        private int size;
+
+        synchronized void add(Customer c) {
+            if (size == customers.length) customers = Arrays.copyOf(customers, size << 1);
+            customers[size++] = c;
+        }
+
+        synchronized List<Customer> snapshot() {
+            return List.of(Arrays.copyOf(customers, size));
+        }
+    }
+}
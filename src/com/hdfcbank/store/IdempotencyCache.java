@@ -0,0 +1,212 @@
+package com.hdfcbank.store;
+
+import com.hdfcbank.model.Receipt;
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.util.IDGenerator;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+
+// Remembers the receipt of every posting made with an idempotency key, for a time window and up to
+// a capacity, so a retried request is answered with the original result instead of posting twice.
+// Lookups are a single ConcurrentHashMap probe. Completed keys also queue up in completion order,
+// and every completion evicts from the head whatever has expired or overflows the capacity, so
+// upkeep is O(1) amortized and never scans. A key past its window counts as absent even before
+// eviction reaches it.
+//
+// A key is claimed before its posting runs, so concurrent retries of one request cannot both post:
+// later ones wait for the first and get its receipt. A rejected posting releases its key; it
+// changed nothing, so a retry is evaluated afresh.
+public class IdempotencyCache {
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+    public static final Duration DEFAULT_WINDOW = Duration.ofHours(24);
+    public static final int MAX_KEY_LENGTH = 64;
+    private static final int EVICTIONS_PER_COMPLETION = 4; // more than one, so a backlog drains
+    private static final long NANOS = 1_000_000_000L;
+
+    private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Slot> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int capacity;
+    private final long windowMillis;
+
+    public IdempotencyCache(int capacity, Duration window) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+        this.windowMillis = window.toMillis();
+    }
+
+    // Keys travel in the journal and over the wire protocol, so they are short and have no spaces
+    public static void validate(String key) {
+        if (key == null || key.isEmpty()) throw new IllegalArgumentException("Idempotency key is required");
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key longer than " + MAX_KEY_LENGTH + " characters");
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char ch = key.charAt(i);
+            if (ch <= ' ' || ch > '~') throw new IllegalArgumentException("Idempotency key must be printable ASCII without spaces");
+        }
+    }
+
+    // Installs 'slot' and returns null when its key is free, or returns the slot an earlier request
+    // still holds for the key. Reusing a key for a different request is an error.
+    public Slot claim(Slot slot) {
+        long now = System.currentTimeMillis();
+        while (true) {
+            Slot prior = slots.putIfAbsent(slot.key, slot);
+            if (prior == null) return null;
+            if (expired(prior, now)) {
+                if (slots.replace(slot.key, prior, slot)) return null;
+                continue;
+            }
+            if (!prior.sameRequest(slot)) {
+                throw new IllegalArgumentException("Idempotency key " + slot.key + " was already used for a different request");
+            }
+            return prior;
+        }
+    }
+
+    // Records the posting a claimed slot made; called under the posting's account monitor(s) right
+    // after it is journaled, so a snapshot that captured the posting also captures the key
+    public void complete(Slot slot, Transaction txn, long lsn) {
+        slot.lsn = lsn;
+        slot.finish(txn.getTxnNumber(), txn.getDate(), null);
+        enqueue(slot);
+    }
+
+    // Releases a claimed slot whose posting was rejected; requests waiting on it get the same failure
+    public void abandon(Slot slot, RuntimeException failure) {
+        slots.remove(slot.key, slot);
+        slot.finish(0, null, failure);
+    }
+
+    // Re-creates a completed key from the journal or a snapshot; expired or already-known keys are skipped
+    public void restore(String key, Receipt receipt, long recordedAt) {
+        if (expired(recordedAt, System.currentTimeMillis())) return;
+        Slot slot = new Slot(key, receipt.getType(), receipt.getAccountId(), receipt.getCounterpartyId(),
+                receipt.getAmount(), recordedAt);
+        if (slots.putIfAbsent(key, slot) != null) return;
+        slot.finish(IDGenerator.txnNumber(receipt.getTxnId()), receipt.getPostedAt(), null);
+        enqueue(slot);
+    }
+
+    // Completed, unexpired keys, oldest first
+    public void forEach(Consumer<Slot> action) {
+        long now = System.currentTimeMillis();
+        for (Slot s : order) {
+            if (!expired(s, now) && slots.get(s.key) == s) action.accept(s);
+        }
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public int capacity() { return capacity; }
+    public Duration window() { return Duration.ofMillis(windowMillis); }
+
+    private void enqueue(Slot slot) {
+        order.offer(slot);
+        queued.incrementAndGet();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < EVICTIONS_PER_COMPLETION; i++) {
+            Slot head = order.peek();
+            if (head == null || (queued.get() <= capacity && !expired(head, now))) return;
+            if (!order.remove(head)) continue; // another thread evicted it
+            queued.decrementAndGet();
+            slots.remove(head.key, head);
+        }
+    }
+
+    private boolean expired(Slot slot, long now) {
+        return slot.done && expired(slot.recordedAt, now);
+    }
+
+    private boolean expired(long recordedAt, long now) {
+        return now - recordedAt > windowMillis;
+    }
+
+    // One idempotent request: the posting it asked for and, once done, the transaction that made it.
+    // Millions of these stay resident, so the outcome is kept as two longs rather than a Receipt,
+    // and the signal for waiting retries is only created if one actually waits.
+    public static final class Slot {
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<Slot, CompletableFuture> SIGNAL =
+                AtomicReferenceFieldUpdater.newUpdater(Slot.class, CompletableFuture.class, "signal");
+
+        private final String key;
+        private final TransactionType type;
+        private final String accountId;
+        private final String counterpartyId;
+        private final long amount;
+        private final long recordedAt; // epoch millis the key was first claimed
+        private long txnNumber;
+        private long postedAt; // LocalDateTime packed as UTC-epoch seconds * 1e9 + nanos
+        private RuntimeException failure;
+        private volatile boolean done; // publishes the three fields above
+        private volatile long lsn;
+        private volatile CompletableFuture<Void> signal;
+
+        public Slot(String key, TransactionType type, String accountId, String counterpartyId, long amount) {
+            this(key, type, accountId, counterpartyId, amount, System.currentTimeMillis());
+        }
+
+        private Slot(String key, TransactionType type, String accountId, String counterpartyId, long amount, long recordedAt) {
+            this.key = key;
+            this.type = type;
+            this.accountId = accountId;
+            this.counterpartyId = counterpartyId;
+            this.amount = amount;
+            this.recordedAt = recordedAt;
+        }
+
+        public String getKey() { return key; }
+        public long getRecordedAt() { return recordedAt; }
+        // Journal LSN of the original posting; 0 for keys restored at startup, which are durable already
+        public long getLsn() { return lsn; }
+
+        // The posting's receipt, or null while it is still running or if it was rejected
+        public Receipt getReceipt() {
+            if (!done || failure != null) return null;
+            LocalDateTime date = LocalDateTime.ofEpochSecond(Math.floorDiv(postedAt, NANOS), (int) Math.floorMod(postedAt, NANOS),
+                    ZoneOffset.UTC);
+            return new Receipt(IDGenerator.txnId(txnNumber), type, accountId, counterpartyId, amount, date, false);
+        }
+
+        // Waits for the request holding this key and returns its receipt marked as a replay, or
+        // throws what that request threw
+        public Receipt await() {
+            if (!done) {
+                CompletableFuture<Void> s = new CompletableFuture<>();
+                if (!SIGNAL.compareAndSet(this, null, s)) s = signal;
+                // Re-checked after publishing the signal: finish() sets 'done' before reading it
+                if (!done) s.join();
+            }
+            if (failure != null) throw failure;
+            return getReceipt().asReplay();
+        }
+
+        private void finish(long txnNumber, LocalDateTime date, RuntimeException failure) {
+            this.txnNumber = txnNumber;
+            if (date != null) postedAt = date.toEpochSecond(ZoneOffset.UTC) * NANOS + date.getNano();
+            this.failure = failure;
+            done = true;
+            CompletableFuture<Void> s = signal;
+            if (s != null) s.complete(null);
+        }
+
+        private boolean sameRequest(Slot other) {
+            return type == other.type && amount == other.amount && accountId.equals(other.accountId)
+                    && Objects.equals(counterpartyId, other.counterpartyId);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.hdfcbank.store;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+// Open-addressing hash table from primitive long keys to values, tuned for the read-mostly maps in
+// BankStore: get() is lock-free and allocation-free (no boxing, no String hashing), while inserts
+// take the map's lock. Slots are published with volatile writes and a resize publishes a whole new
+// table, so a reader always sees a consistent probe sequence. There is no removal.
+public class LongObjectMap<V> {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final float MAX_LOAD = 0.5f;
+
+    private volatile AtomicReferenceArray<Entry<V>> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private volatile int size;
+
+    public V get(long key) {
+        AtomicReferenceArray<Entry<V>> t = table;
+        int mask = t.length() - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            Entry<V> e = t.get(i);
+            if (e == null) return null;
+            if (e.key == key) return e.value;
+        }
+    }
+
+    // Returns the value already mapped to 'key', or null after inserting 'value'
+    public synchronized V putIfAbsent(long key, V value) {
+        V existing = get(key);
+        if (existing != null) return existing;
+        if (size + 1 > table.length() * MAX_LOAD) table = resized(table);
+        insert(table, new Entry<>(key, value));
+        size = size + 1;
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Weakly consistent view, like ConcurrentHashMap.values(): never throws, may miss inserts made
+    // while iterating
+    public AbstractCollection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                AtomicReferenceArray<Entry<V>> t = table;
+                return new Iterator<>() {
+                    private int next = advance(0);
+
+                    private int advance(int from) {
+                        while (from < t.length() && t.get(from) == null) from++;
+                        return from;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < t.length();
+                    }
+
+                    @Override
+                    public V next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        V value = t.get(next).value;
+                        next = advance(next + 1);
+                        return value;
+                    }
+                };
+            }
+
+            // Splits by slot range, so parallel streams over the values partition the table evenly
+            @Override
+            public Spliterator<V> spliterator() {
+                AtomicReferenceArray<Entry<V>> t = table;
+                return new Slots<>(t, 0, t.length());
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static final class Slots<V> implements Spliterator<V> {
+        private static final int MIN_SPLIT = 1 << 10;
+
+        private final AtomicReferenceArray<Entry<V>> table;
+        private int next;
+        private final int end;
+
+        Slots(AtomicReferenceArray<Entry<V>> table, int from, int end) {
+            this.table = table;
+            this.next = from;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super V> action) {
+            while (next < end) {
+                Entry<V> e = table.get(next++);
+                if (e != null) {
+                    action.accept(e.value);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            if (end - next < 2 * MIN_SPLIT) return null;
+            int mid = (next + end) >>> 1;
+            Spliterator<V> prefix = new Slots<>(table, next, mid);
+            next = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) ((end - next) * MAX_LOAD); // the load factor stays between MAX_LOAD / 2 and MAX_LOAD
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.NONNULL | Spliterator.CONCURRENT;
+        }
+    }
+
+    private static <V> AtomicReferenceArray<Entry<V>> resized(AtomicReferenceArray<Entry<V>> old) {
+        AtomicReferenceArray<Entry<V>> t = new AtomicReferenceArray<>(old.length() << 1);
+        for (int i = 0; i < old.length(); i++) {
+            Entry<V> e = old.get(i);
+            if (e != null) insert(t, e);
+        }
+        return t;
+    }
+
+    private static <V> void insert(AtomicReferenceArray<Entry<V>> t, Entry<V> e) {
+        int mask = t.length() - 1;
+        int i = slot(e.key, mask);
+        while (t.get(i) != null) i = (i + 1) & mask;
+        t.set(i, e);
+    }
+
+    // IDs are sequential, so the bits are spread before masking to keep neighbours apart
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private record Entry<V>(long key, V value) {}
+}
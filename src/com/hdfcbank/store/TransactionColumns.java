@@ -0,0 +1,129 @@
+package com.hdfcbank.store;
+
+import com.hdfcbank.model.enums.TransactionType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Every ledger row of a BankStore, stored off-heap column by column: txn number, account number,
+// type ordinal, amount (paise), timestamp (epoch nanos, UTC) and the owning ledger's running net
+// (paise credited minus debited up to and including the row). Rows are addressed by a global row
+// number handed out in append order and live in fixed-size segments of direct buffers, so a row
+// costs 41 bytes outside the heap and nothing the garbage collector has to trace, however long
+// the history grows. Direct memory is capped by -XX:MaxDirectMemorySize (the heap size by default).
+//
+// Rows are write-once. A row's columns are written before its number is handed back, so anyone who
+// obtained the number through a properly synchronized path (AccountLedger's monitor) sees them.
+public class TransactionColumns {
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int SEGMENT_ROWS = 1 << SEGMENT_SHIFT;
+    private static final int ROW_MASK = SEGMENT_ROWS - 1;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final AtomicLong rows = new AtomicLong();
+    private volatile Segment[] segments = new Segment[16];
+
+    public long append(long txnNumber, long accountNumber, TransactionType type, long amount, long epochNanos, long running) {
+        long row = rows.getAndIncrement();
+        Segment s = segmentFor(row);
+        int i = (int) row & ROW_MASK;
+        s.txn.putLong(i << 3, txnNumber);
+        s.account.putLong(i << 3, accountNumber);
+        s.type.put(i, (byte) type.ordinal());
+        s.amount.putLong(i << 3, amount);
+        s.time.putLong(i << 3, epochNanos);
+        s.running.putLong(i << 3, running);
+        return row;
+    }
+
+    // Appends 'n' rows of one account in one go, each column copied in bulk from its source, for
+    // loading a snapshot. Returns the first row's number; the others follow it consecutively.
+    public long appendAll(long accountNumber, int n, LongBuffer txnNumbers, ByteBuffer types, LongBuffer amounts,
+                          LongBuffer epochNanos, LongBuffer running) {
+        long first = rows.getAndAdd(n);
+        for (int done = 0; done < n; ) {
+            long row = first + done;
+            Segment s = segmentFor(row);
+            int i = (int) row & ROW_MASK;
+            int len = Math.min(n - done, SEGMENT_ROWS - i);
+            s.txn.asLongBuffer().put(i, txnNumbers, done, len);
+            s.type.put(i, types, done, len);
+            s.amount.asLongBuffer().put(i, amounts, done, len);
+            s.time.asLongBuffer().put(i, epochNanos, done, len);
+            s.running.asLongBuffer().put(i, running, done, len);
+            for (int k = i; k < i + len; k++) s.account.putLong(k << 3, accountNumber);
+            done += len;
+        }
+        return first;
+    }
+
+    public long txnNumber(long row) { return segment(row).txn.getLong(offset(row)); }
+    public long accountNumber(long row) { return segment(row).account.getLong(offset(row)); }
+    public TransactionType type(long row) { return TYPES[segment(row).type.get((int) row & ROW_MASK)]; }
+    public long amount(long row) { return segment(row).amount.getLong(offset(row)); }
+    public long epochNanos(long row) { return segment(row).time.getLong(offset(row)); }
+    public long running(long row) { return segment(row).running.getLong(offset(row)); }
+
+    public long rowCount() {
+        return rows.get();
+    }
+
+    // Off-heap bytes reserved so far, whole segments included
+    public long reservedBytes() {
+        long n = 0;
+        for (Segment s : segments) if (s != null) n += Segment.BYTES;
+        return n;
+    }
+
+    // Transaction dates are zone-less LocalDateTimes; they are stored as if they were UTC, which
+    // round-trips exactly
+    public static long epochNanos(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + date.getNano();
+    }
+
+    public static LocalDateTime dateOf(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                (int) Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private Segment segment(long row) {
+        return segments[(int) (row >>> SEGMENT_SHIFT)];
+    }
+
+    private static int offset(long row) {
+        return ((int) row & ROW_MASK) << 3;
+    }
+
+    private Segment segmentFor(long row) {
+        int index = (int) (row >>> SEGMENT_SHIFT);
+        Segment[] current = segments;
+        if (index < current.length && current[index] != null) return current[index];
+        synchronized (this) {
+            current = segments;
+            if (index >= current.length) current = Arrays.copyOf(current, Math.max(current.length << 1, index + 1));
+            if (current[index] == null) current[index] = new Segment();
+            segments = current;
+            return current[index];
+        }
+    }
+
+    private static final class Segment {
+        static final long BYTES = (long) SEGMENT_ROWS * (8 + 8 + 1 + 8 + 8 + 8);
+
+        final ByteBuffer txn = column(8);
+        final ByteBuffer account = column(8);
+        final ByteBuffer type = column(1);
+        final ByteBuffer amount = column(8);
+        final ByteBuffer time = column(8);
+        final ByteBuffer running = column(8);
+
+        private static ByteBuffer column(int width) {
+            return ByteBuffer.allocateDirect(SEGMENT_ROWS * width).order(ByteOrder.nativeOrder());
+        }
+    }
+}
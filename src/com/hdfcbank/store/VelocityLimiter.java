@@ -0,0 +1,220 @@
+package com.hdfcbank.store;
+
+import com.hdfcbank.exception.VelocityLimitExceededException;
+import com.hdfcbank.model.Account;
+import com.hdfcbank.util.Money;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-account debit velocity limits: no account may make more than maxDebits debits, or debit more
+// than maxAmount paise, within a sliding window (either limit may be 0 for none). Every tracked
+// account owns a slot in one fixed long[] table: an owner word, the epoch of its newest bucket and
+// a ring of BUCKETS time buckets, each packing that slice's debit count (high 16 bits) and amount
+// (low 48 bits) into one long. The window slides a bucket at a time, so it covers between 7/8 of
+// 'window' and all of it.
+//
+// Memory is fixed when the limiter is built (80 bytes per slot) however many accounts the bank
+// holds. An account looks for its slot among PROBES neighbours of its hash; a slot whose account
+// has not debited for a whole window is free for reuse, and if none of them is, the least recently
+// (then least) active one is taken over and its history forgotten (counted in evictions()). Capacity should
+// therefore cover the accounts that debit within one window.
+//
+// A debit pins its slot by setting the owner word's busy bit with a compare-and-set, checks and
+// counts, then unpins, so no lock is taken and a slot cannot change hands mid-update. Windows are
+// not persisted: a restart starts every account afresh.
+public class VelocityLimiter {
+    public static final int DEFAULT_CAPACITY = 1 << 18;
+    public static final int MAX_DEBITS = 0xFFFF;
+    public static final long MAX_AMOUNT = (1L << 48) - 1;
+    private static final int BUCKETS = 8;
+    private static final int STRIDE = 2 + BUCKETS; // owner, newest epoch, buckets
+    private static final int PROBES = 8;
+    private static final int MAX_CAPACITY = 1 << 26;
+    private static final int COUNT_SHIFT = 48;
+    private static final long BUSY = Long.MIN_VALUE;
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] cells;
+    private final int mask;
+    private final Duration window;
+    private final long bucketNanos;
+    private final int maxDebits;
+    private final long maxAmount;
+    private final long debitUnit; // what one debit adds to the count bits; 0 when counts are not limited
+    private final LongAdder evictions = new LongAdder();
+
+    public VelocityLimiter(Duration window, int maxDebits, long maxAmount) {
+        this(window, maxDebits, maxAmount, DEFAULT_CAPACITY);
+    }
+
+    public VelocityLimiter(Duration window, int maxDebits, long maxAmount, int capacity) {
+        if (window.toMillis() < 1) throw new IllegalArgumentException("Velocity window must be at least 1ms");
+        if (maxDebits < 0 || maxDebits > MAX_DEBITS) throw new IllegalArgumentException("Debit limit must be 0-" + MAX_DEBITS);
+        if (maxAmount < 0 || maxAmount > MAX_AMOUNT) throw new IllegalArgumentException("Amount limit must be 0-" + MAX_AMOUNT);
+        if (maxDebits == 0 && maxAmount == 0) throw new IllegalArgumentException("No velocity limit given");
+        if (capacity <= 0 || capacity > MAX_CAPACITY) throw new IllegalArgumentException("Capacity must be 1-" + MAX_CAPACITY);
+        int slots = Math.max(PROBES, Integer.highestOneBit(capacity - 1) << 1);
+        this.cells = new long[slots * STRIDE];
+        this.mask = slots - 1;
+        this.window = window;
+        this.bucketNanos = window.toNanos() / BUCKETS;
+        this.maxDebits = maxDebits;
+        this.maxAmount = maxAmount;
+        this.debitUnit = maxDebits > 0 ? 1L << COUNT_SHIFT : 0;
+    }
+
+    // Counts a debit of 'amount' against the account's window, or throws if it would take the
+    // account past a limit. Returns the epoch it was counted in, which refund() needs.
+    public long admit(Account acc, long amount) {
+        long now = epoch();
+        int base = pin(acc.getAccountNumber() + 1, now, true);
+        try {
+            now = advance(base, now);
+            long count = 0;
+            long sum = 0;
+            for (int i = 2; i < STRIDE; i++) {
+                long bucket = cells[base + i];
+                count += bucket >>> COUNT_SHIFT;
+                sum += bucket & MAX_AMOUNT;
+            }
+            if (maxDebits > 0 && count >= maxDebits) {
+                throw new VelocityLimitExceededException(acc.getAccountId() + " has reached its limit of " + maxDebits
+                        + " debits per " + describe(window));
+            }
+            if (maxAmount > 0 && amount > maxAmount - sum) {
+                throw new VelocityLimitExceededException(acc.getAccountId() + " may debit at most " + Money.format(maxAmount)
+                        + " per " + describe(window) + "; " + Money.format(maxAmount - sum) + " is left");
+            }
+            cells[base + bucket(now)] += debitUnit + (maxAmount > 0 ? amount : 0);
+            return now;
+        } finally {
+            CELLS.setRelease(cells, base, acc.getAccountNumber() + 1);
+        }
+    }
+
+    // Takes back a debit admitted in 'epoch' that did not go through; a no-op once that bucket has
+    // left the window or the account has lost its slot
+    public void refund(Account acc, long amount, long epoch) {
+        int base = pin(acc.getAccountNumber() + 1, 0, false);
+        if (base < 0) return;
+        try {
+            long newest = cells[base + 1];
+            if (epoch > newest || epoch <= newest - BUCKETS) return;
+            long amt = maxAmount > 0 ? amount : 0;
+            int i = base + bucket(epoch);
+            long bucket = cells[i];
+            // Only what this bucket counted can come back out of it
+            if ((debitUnit != 0 && bucket >>> COUNT_SHIFT == 0) || (bucket & MAX_AMOUNT) < amt) return;
+            cells[i] = bucket - debitUnit - amt;
+        } finally {
+            CELLS.setRelease(cells, base, acc.getAccountNumber() + 1);
+        }
+    }
+
+    // Finds the slot owned by 'key' (account number + 1, as 0 marks a free slot) and pins it, or,
+    // if 'claim' is set and there is none, takes one over. Returns the slot's offset in cells, or -1.
+    private int pin(long key, long now, boolean claim) {
+        int home = hash(key);
+        while (true) {
+            int victim = -1;
+            long victimOwner = 0;
+            long victimNewest = Long.MAX_VALUE;
+            long victimActivity = Long.MAX_VALUE;
+            boolean busy = false;
+            for (int p = 0; p < PROBES; p++) {
+                int base = ((home + p) & mask) * STRIDE;
+                long owner = (long) CELLS.getAcquire(cells, base);
+                if ((owner & ~BUSY) == key) {
+                    if (owner == key && CELLS.compareAndSet(cells, base, key, key | BUSY)) return base;
+                    busy = true; // another debit of this account holds it
+                    break;
+                }
+                if (owner < 0 || victimNewest == Long.MIN_VALUE) continue;
+                long newest = owner == 0 ? Long.MIN_VALUE : (long) CELLS.getOpaque(cells, base + 1);
+                if (newest > victimNewest) continue;
+                // Recency only resolves to a bucket, so among equally recent slots the least active goes
+                long activity = owner == 0 ? 0 : activity(base);
+                if (newest < victimNewest || activity < victimActivity) {
+                    victim = base;
+                    victimOwner = owner;
+                    victimNewest = newest;
+                    victimActivity = activity;
+                }
+            }
+            if (!busy && !claim) return -1;
+            if (busy || victim < 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (!CELLS.compareAndSet(cells, victim, victimOwner, key | BUSY)) continue;
+            // A debit of the same account made outside its monitor may have claimed a slot meanwhile; one must go
+            if (ownedElsewhere(key, home, victim)) {
+                CELLS.setRelease(cells, victim, 0L);
+                continue;
+            }
+            if (victimOwner != 0 && victimNewest > now - BUCKETS) evictions.increment();
+            cells[victim + 1] = now;
+            for (int i = 2; i < STRIDE; i++) cells[victim + i] = 0;
+            return victim;
+        }
+    }
+
+    // Debits (or, without a count limit, paise) an unpinned slot holds; a racy read is good enough
+    private long activity(int base) {
+        long total = 0;
+        for (int i = 2; i < STRIDE; i++) {
+            long bucket = (long) CELLS.getOpaque(cells, base + i);
+            total += debitUnit != 0 ? bucket >>> COUNT_SHIFT : bucket & MAX_AMOUNT;
+        }
+        return total;
+    }
+
+    private boolean ownedElsewhere(long key, int home, int mine) {
+        for (int p = 0; p < PROBES; p++) {
+            int base = ((home + p) & mask) * STRIDE;
+            if (base != mine && ((long) CELLS.getAcquire(cells, base) & ~BUSY) == key) return true;
+        }
+        return false;
+    }
+
+    // Moves a pinned slot's window up to 'now', emptying the buckets it slides past. Returns the
+    // epoch to count in, which is never older than the slot's newest.
+    private long advance(int base, long now) {
+        long newest = cells[base + 1];
+        if (now <= newest) return newest;
+        for (long e = Math.max(newest + 1, now - BUCKETS + 1); e <= now; e++) cells[base + bucket(e)] = 0;
+        cells[base + 1] = now;
+        return now;
+    }
+
+    private long epoch() {
+        return Math.floorDiv(System.nanoTime(), bucketNanos);
+    }
+
+    private static int bucket(long epoch) {
+        return 2 + (int) Math.floorMod(epoch, (long) BUCKETS);
+    }
+
+    // Account numbers are sequential, so the bits are spread before masking
+    private int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static String describe(Duration d) {
+        if (d.toMillis() % 1000 != 0) return d.toMillis() + "ms";
+        long s = d.toSeconds();
+        if (s % 3600 == 0) return s / 3600 + "h";
+        return s % 60 == 0 ? s / 60 + "m" : s + "s";
+    }
+
+    public Duration window() { return window; }
+    public int maxDebits() { return maxDebits; }
+    public long maxAmount() { return maxAmount; }
+    public int capacity() { return mask + 1; }
+    public long evictions() { return evictions.sum(); }
+    public long footprintBytes() { return (long) cells.length * Long.BYTES; }
+}
@@ -2,20 +2,85 @@ package com.hdfcbank.util;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
+// IDs are sequence numbers. Inside the bank they travel as primitive longs (account lookups,
+// ledger positions, shard routing); the prefixed String form such as "ACC2001" is only built when
+// an ID crosses the API, display or persistence edge.
 public class IDGenerator {
+    private static final String CUSTOMER_PREFIX = "CUST";
+    private static final String ACCOUNT_PREFIX = "ACC";
+    private static final String TXN_PREFIX = "TXN";
+
     private static final AtomicInteger custSeq = new AtomicInteger(1000);
     private static final AtomicInteger accSeq = new AtomicInteger(2000);
     private static final AtomicInteger txnSeq = new AtomicInteger(3000);
 
+    public static long nextCustomerNumber() { return custSeq.getAndIncrement(); }
+    public static long nextAccountNumber() { return accSeq.getAndIncrement(); }
+    public static long nextTxnNumber() { return txnSeq.getAndIncrement(); }
+
     public static String generateCustomerId() {
-        return "CUST" + custSeq.getAndIncrement();
+        return customerId(nextCustomerNumber());
     }
 
     public static String generateAccountId() {
-        return "ACC" + accSeq.getAndIncrement();
+        return accountId(nextAccountNumber());
     }
 
     public static String generateTxnId() {
-        return "TXN" + txnSeq.getAndIncrement();
+        return txnId(nextTxnNumber());
+    }
+
+    public static String customerId(long number) { return CUSTOMER_PREFIX + number; }
+    public static String accountId(long number) { return ACCOUNT_PREFIX + number; }
+    public static String txnId(long number) { return TXN_PREFIX + number; }
+
+    public static int[] sequences() {
+        return new int[] {custSeq.get(), accSeq.get(), txnSeq.get()};
+    }
+
+    public static void restoreSequences(int customer, int account, int txn) {
+        custSeq.accumulateAndGet(customer, Math::max);
+        accSeq.accumulateAndGet(account, Math::max);
+        txnSeq.accumulateAndGet(txn, Math::max);
+    }
+
+    // Numeric part of an ID, e.g. 2001 for "ACC2001", or -1 when the string is not such an ID.
+    // Parses in place, so turning a caller's ID into a lookup key allocates nothing. Zero-padded
+    // numbers ("ACC02001") are refused: each number has one spelling, so code that compares IDs as
+    // strings (idempotency slots, receipts) agrees with lookups by number.
+    public static long customerNumber(String customerId) { return parse(customerId, CUSTOMER_PREFIX); }
+    public static long accountNumber(String accountId) { return parse(accountId, ACCOUNT_PREFIX); }
+    public static long txnNumber(String txnId) { return parse(txnId, TXN_PREFIX); }
+
+    private static long parse(String id, String prefix) {
+        int len = id == null ? 0 : id.length();
+        if (len <= prefix.length() || len > prefix.length() + 18 || !id.startsWith(prefix)) return -1;
+        if (id.charAt(prefix.length()) == '0' && len > prefix.length() + 1) return -1;
+        long n = 0;
+        for (int i = prefix.length(); i < len; i++) {
+            int digit = id.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            n = n * 10 + digit;
+        }
+        return n;
+    }
+
+    // Recovery hooks: make sure IDs restored from disk are never handed out again
+    public static void observeCustomerId(String id) {
+        advancePast(custSeq, id, CUSTOMER_PREFIX);
+    }
+
+    public static void observeAccountId(String id) {
+        advancePast(accSeq, id, ACCOUNT_PREFIX);
+    }
+
+    public static void observeTxnId(String id) {
+        advancePast(txnSeq, id, TXN_PREFIX);
+    }
+
+    private static void advancePast(AtomicInteger seq, String id, String prefix) {
+        long n = parse(id, prefix);
+        if (n < 0) throw new IllegalArgumentException("Malformed ID: " + id);
+        seq.accumulateAndGet(Math.toIntExact(n + 1), Math::max);
     }
 }
@@ -0,0 +1,52 @@
+package com.hdfcbank.util;
+
+// Amounts are carried as a long count of paise (1 rupee = 100 paise) so balance math is exact and
+// allocation-free. Rupee strings are only produced or parsed at the console/API edge.
+public final class Money {
+    public static final long PAISE_PER_RUPEE = 100;
+    private static final long BASIS_POINTS = 10_000;
+
+    private Money() {}
+
+    public static long ofRupees(long rupees) {
+        return Math.multiplyExact(rupees, PAISE_PER_RUPEE);
+    }
+
+    // Parses "1500", "1500.5" or "1500.50" into paise without going through double
+    public static long parse(String text) {
+        String s = text.trim();
+        int dot = s.indexOf('.');
+        String whole = dot < 0 ? s : s.substring(0, dot);
+        String frac = dot < 0 ? "" : s.substring(dot + 1);
+        if (whole.isEmpty() || frac.length() > 2 || !isDigits(whole) || !isDigits(frac))
+            throw new IllegalArgumentException("Invalid amount: " + text);
+        long paise = Long.parseLong(frac.isEmpty() ? "0" : (frac.length() == 1 ? frac + "0" : frac));
+        return Math.addExact(ofRupees(Long.parseLong(whole)), paise);
+    }
+
+    public static String format(long paise) {
+        long abs = Math.abs(paise);
+        long frac = abs % PAISE_PER_RUPEE;
+        return (paise < 0 ? "-" : "") + (abs / PAISE_PER_RUPEE) + (frac < 10 ? ".0" : ".") + frac;
+    }
+
+    // Rate given in basis points (450 = 4.5%), rounded half-up to the nearest paisa
+    public static long percentOf(long paise, long basisPoints) {
+        return Math.floorDiv(Math.multiplyExact(paise, basisPoints) + BASIS_POINTS / 2, BASIS_POINTS);
+    }
+
+    // One period's share of an annual rate (e.g. periodsPerYear = 12 for a month), rounded half-up
+    // once on the exact product instead of rounding the annual figure first
+    public static long percentOf(long paise, long basisPoints, int periodsPerYear) {
+        long divisor = BASIS_POINTS * periodsPerYear;
+        return Math.floorDiv(Math.multiplyExact(paise, basisPoints) + divisor / 2, divisor);
+    }
+
+    private static boolean isDigits(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch < '0' || ch > '9') return false;
+        }
+        return true;
+    }
+}
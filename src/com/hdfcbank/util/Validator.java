@@ -1,14 +1,180 @@
 package com.hdfcbank.util;
 
+import com.hdfcbank.model.CustomerApplication;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Customer field validation with hand-written scanners: one pass over the characters, no regex
+// engine and no allocation, so bulk onboarding is not dominated by String.matches() recompiling a
+// Pattern per call. The email and phone scanners accept exactly what the original patterns did:
+//   email  ^[\w-\.]+@([\w-]+\.)+[\w-]{2,4}$
+//   phone  ^[6-9]\d{9}$
+// A DOB must be a real yyyy-mm-dd calendar date, no earlier than 1900-01-01 and not in the future.
+//
+// check() reports every problem with a record at once as a bit mask of the error flags below.
 public class Validator {
-    private static final String EMAIL_REGEX = "^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$";
-    private static final String PHONE_REGEX = "^[6-9]\\d{9}$";
+    public static final int NAME = 1;
+    public static final int EMAIL = 1 << 1;
+    public static final int PHONE = 1 << 2;
+    public static final int DOB = 1 << 3;
+
+    private static final int MIN_DOB_YEAR = 1900;
+    private static final int PARALLEL_BATCH = 8192; // below this a parallel split costs more than it saves
+
+    // LocalDate.now() resolves the zone and allocates on every call, which would cost more than the
+    // scan itself; the current day is looked up at most once a second instead
+    private static volatile Today currentDay = new Today(Long.MIN_VALUE, 0);
 
     public static boolean isValidEmail(String email) {
-        return email.matches(EMAIL_REGEX);
+        if (email == null) return false;
+        int n = email.length();
+        int at = 0;
+        while (at < n && isLocalChar(email.charAt(at))) at++;
+        if (at == 0 || at == n || email.charAt(at) != '@') return false;
+        // Domain: two or more non-empty [\w-] labels separated by dots, the last one 2-4 long
+        int labels = 0;
+        int labelStart = at + 1;
+        for (int i = labelStart; i <= n; i++) {
+            if (i == n || email.charAt(i) == '.') {
+                if (i == labelStart) return false;
+                labels++;
+                if (i == n) return labels >= 2 && i - labelStart >= 2 && i - labelStart <= 4;
+                labelStart = i + 1;
+            } else if (!isWordOrDash(email.charAt(i))) {
+                return false;
+            }
+        }
+        return false;
     }
 
     public static boolean isValidPhone(String phone) {
-        return phone.matches(PHONE_REGEX);
+        if (phone == null || phone.length() != 10) return false;
+        char first = phone.charAt(0);
+        if (first < '6' || first > '9') return false;
+        for (int i = 1; i < 10; i++) {
+            if (!isDigit(phone.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    public static boolean isValidDob(String dob) {
+        return dobEpochDay(dob, today()) != Long.MIN_VALUE;
+    }
+
+    // The parsed date of birth; IllegalArgumentException when isValidDob() would be false
+    public static LocalDate parseDob(String dob) {
+        long day = dobEpochDay(dob, today());
+        if (day == Long.MIN_VALUE) throw new IllegalArgumentException("Invalid DOB (expected a past date, yyyy-mm-dd): " + dob);
+        return LocalDate.ofEpochDay(day);
+    }
+
+    public static boolean isValidName(String name) {
+        if (name == null) return false;
+        for (int i = 0; i < name.length(); i++) {
+            if (!Character.isWhitespace(name.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    // Every error flag that applies to the record; 0 when it is valid
+    public static int check(String name, String email, String phone, String dob) {
+        return check(name, email, phone, dob, today());
+    }
+
+    public static int check(CustomerApplication a) {
+        return check(a.getName(), a.getEmail(), a.getPhone(), a.getDob());
+    }
+
+    // One error mask per record, in input order. Large batches are split across cores; either way
+    // each record is a handful of character scans and nothing is allocated per record.
+    public static int[] validateAll(List<CustomerApplication> records) {
+        long today = today();
+        int[] errors = new int[records.size()];
+        IntStream indexes = IntStream.range(0, errors.length);
+        if (errors.length >= PARALLEL_BATCH) indexes = indexes.parallel();
+        indexes.forEach(i -> {
+            CustomerApplication a = records.get(i);
+            errors[i] = check(a.getName(), a.getEmail(), a.getPhone(), a.getDob(), today);
+        });
+        return errors;
+    }
+
+    // Human-readable form of an error mask, one message per flag
+    public static List<String> describe(int errors) {
+        List<String> messages = new ArrayList<>(4);
+        if ((errors & NAME) != 0) messages.add("Name is required");
+        if ((errors & EMAIL) != 0) messages.add("Invalid Email");
+        if ((errors & PHONE) != 0) messages.add("Invalid Phone");
+        if ((errors & DOB) != 0) messages.add("Invalid DOB (expected a past date, yyyy-mm-dd)");
+        return messages;
+    }
+
+    private static int check(String name, String email, String phone, String dob, long today) {
+        int errors = 0;
+        if (!isValidName(name)) errors |= NAME;
+        if (!isValidEmail(email)) errors |= EMAIL;
+        if (!isValidPhone(phone)) errors |= PHONE;
+        if (dobEpochDay(dob, today) == Long.MIN_VALUE) errors |= DOB;
+        return errors;
+    }
+
+    // Epoch day of a yyyy-mm-dd date between 1900-01-01 and 'today', or Long.MIN_VALUE
+    private static long dobEpochDay(String s, long today) {
+        if (s == null || s.length() != 10 || s.charAt(4) != '-' || s.charAt(7) != '-') return Long.MIN_VALUE;
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 7);
+        int day = digits(s, 8, 10);
+        if (year < MIN_DOB_YEAR || month < 1 || month > 12 || day < 1 || day > daysIn(year, month)) return Long.MIN_VALUE;
+        long epochDay = epochDay(year, month, day);
+        return epochDay > today ? Long.MIN_VALUE : epochDay;
+    }
+
+    private static long today() {
+        Today t = currentDay;
+        long now = System.currentTimeMillis();
+        if (now >= t.validUntil()) currentDay = t = new Today(LocalDate.now().toEpochDay(), now + 1000);
+        return t.epochDay();
+    }
+
+    private record Today(long epochDay, long validUntil) {}
+
+    private static int digits(String s, int from, int to) {
+        int v = 0;
+        for (int i = from; i < to; i++) {
+            char ch = s.charAt(i);
+            if (!isDigit(ch)) return -1;
+            v = v * 10 + (ch - '0');
+        }
+        return v;
+    }
+
+    private static int daysIn(int year, int month) {
+        if (month == 2) return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+    }
+
+    // Days since 1970-01-01 in the proleptic Gregorian calendar (days-from-civil)
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400; // y >= 1899 here, so no negative-year correction is needed
+        int yoe = y - era * 400;
+        int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468;
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isWordOrDash(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || isDigit(ch) || ch == '_' || ch == '-';
+    }
+
+    private static boolean isLocalChar(char ch) {
+        return isWordOrDash(ch) || ch == '.';
     }
 }
@@ -0,0 +1,62 @@
+package com.hdfcbank.model;
+
+import com.hdfcbank.exception.InsufficientBalanceException;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.util.IDGenerator;
+import com.hdfcbank.util.Money;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountConcurrencyTest {
+    // Threads race deposits and withdrawals big enough that most withdrawals bounce off the floor;
+    // afterwards the balance must equal opening + deposits - accepted withdrawals and never have
+    // gone below the floor
+    @ParameterizedTest
+    @EnumSource(AccountType.class)
+    void floorHoldsAndNothingIsLost(AccountType type) throws InterruptedException {
+        long floor = type == AccountType.SAVINGS ? Money.ofRupees(1000) : 0;
+        long opening = floor + 500;
+        Customer c = new Customer(IDGenerator.generateCustomerId(), "Race", "race@example.com", "9876543210",
+                LocalDate.of(1990, 1, 1));
+        Account acc = Account.of(IDGenerator.generateAccountId(), c, type, opening);
+        int threads = 8;
+        LongAdder deposited = new LongAdder();
+        LongAdder withdrawn = new LongAdder();
+        LongAdder belowFloor = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int i = 0; i < 50_000; i++) {
+                    long amt = 1 + rnd.nextInt(100);
+                    if (rnd.nextInt(3) == 0) {
+                        acc.deposit(amt);
+                        deposited.add(amt);
+                    } else {
+                        try {
+                            acc.withdraw(amt);
+                            withdrawn.add(amt);
+                        } catch (InsufficientBalanceException e) {
+                            // expected near the floor
+                        }
+                    }
+                    if (acc.getBalance() < floor) belowFloor.increment();
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+
+        assertEquals(opening + deposited.sum() - withdrawn.sum(), acc.getBalance());
+        assertEquals(0, belowFloor.sum(), "readings below the floor");
+        assertTrue(acc.getVersion() > 0);
+    }
+}
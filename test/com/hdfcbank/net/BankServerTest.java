@@ -0,0 +1,85 @@
+package com.hdfcbank.net;
+
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.service.BankServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BankServerTest {
+    // The protocol has no authentication, so only loopback clients may connect unless asked otherwise
+    @Test
+    void listensOnLoopbackByDefault() throws Exception {
+        try (BankServer server = BankServer.start(new BankServiceImpl(), 0);
+             BankClient client = BankClient.connect(InetAddress.getLoopbackAddress().getHostAddress(), server.port())) {
+            assertTrue(server.address().isLoopbackAddress());
+            client.ping().get();
+        }
+    }
+
+    // A line far past the limit is answered with an error and skipped; the connection keeps working
+    @Test
+    void overlongLineIsRefusedWithoutBufferingIt() throws Exception {
+        try (BankServer server = BankServer.start(new BankServiceImpl(), 0);
+             Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port())) {
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out.write("1 PING " + "x".repeat(4 << 20) + "\n2 PING\r\n");
+            out.flush();
+
+            assertTrue(in.readLine().startsWith("- ERR " + BankProtocol.BAD_REQUEST));
+            assertEquals("2 OK", in.readLine());
+        }
+    }
+
+    // A client that pipelines without reading answers is stalled by TCP flow control once the
+    // bounded in-flight and outbox limits are reached, instead of the server buffering the backlog
+    @Test
+    void clientThatStopsReadingIsPushedBack() throws Exception {
+        BankServiceImpl bank = new BankServiceImpl();
+        Customer c = bank.registerCustomer("Reader", "reader@example.com", "9876543210", "1990-01-01");
+        String acc = bank.createAccount(c.getCustomerId(), AccountType.CURRENT, 1_000).getAccountId();
+        int requests = 2_000_000;
+        try (BankServer server = BankServer.start(bank, 0);
+             Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port())) {
+            AtomicLong written = new AtomicLong();
+            Thread sender = Thread.ofPlatform().start(() -> {
+                try {
+                    Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                    for (int i = 0; i < requests; i++) {
+                        String line = i + " BALANCE " + acc + "\n";
+                        out.write(line);
+                        written.addAndGet(line.length());
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    // closed by the test
+                }
+            });
+            long last = -1;
+            while (written.get() != last) {
+                last = written.get();
+                Thread.sleep(500);
+            }
+            assertTrue(sender.isAlive(), "the server read every request without answers being taken");
+            assertTrue(last < 32L << 20, "sent " + last + " bytes before being stalled");
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            for (int i = 0; i < requests; i++) assertTrue(in.readLine().endsWith(" OK 1000"));
+            sender.join();
+        }
+    }
+}
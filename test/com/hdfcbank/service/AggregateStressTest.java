@@ -0,0 +1,96 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.store.BalanceAggregates;
+import com.hdfcbank.util.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Deposits, withdrawals, transfers and account openings from many threads while a verifier keeps
+// recomputing every customer's totals from the balances and comparing them with the running
+// aggregates. Once traffic stops the bank-wide totals must match too, and a bank recovered from
+// the journal must rebuild the same aggregates.
+class AggregateStressTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void aggregatesTrackBalancesUnderLoadAndAcrossRecovery() throws Exception {
+        int threads = 8;
+        int numCustomers = 200;
+        Path journalFile = dir.resolve("bank.journal");
+        BankServiceImpl bank = BankServiceImpl.recover(journalFile);
+        List<Customer> customers = new ArrayList<>();
+        List<String> ids = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < numCustomers; i++) {
+            Customer c = bank.registerCustomer("Stress " + i, "stress@example.com", "9876543210", "1990-01-01");
+            customers.add(c);
+            ids.add(bank.createAccount(c.getCustomerId(), AccountType.SAVINGS, Money.ofRupees(5_000)).getAccountId());
+            ids.add(bank.createAccount(c.getCustomerId(), AccountType.CURRENT, Money.ofRupees(5_000)).getAccountId());
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                while (running.get()) {
+                    String a = ids.get(rnd.nextInt(ids.size()));
+                    try {
+                        switch (rnd.nextInt(20)) {
+                            case 0 -> ids.add(bank.createAccount(customers.get(rnd.nextInt(numCustomers)).getCustomerId(),
+                                    rnd.nextBoolean() ? AccountType.SAVINGS : AccountType.CURRENT, rnd.nextLong(1_000_000)).getAccountId());
+                            case 1, 2, 3, 4 -> bank.deposit(a, 1 + rnd.nextLong(10_000));
+                            case 5, 6, 7, 8 -> bank.withdraw(a, 1 + rnd.nextLong(10_000));
+                            default -> bank.transfer(a, ids.get(rnd.nextInt(ids.size())), 1 + rnd.nextLong(10_000));
+                        }
+                    } catch (RuntimeException e) {
+                        // insufficient balance or a self-transfer: rejected before anything changed
+                    }
+                }
+            }));
+        }
+
+        List<String> failures = new ArrayList<>();
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            BalanceAggregates.Check check = bank.verifyAggregates();
+            if (!check.customersMatch()) failures.addAll(check.mismatches());
+        }
+        running.set(false);
+        for (Thread worker : workers) worker.join();
+        assertTrue(failures.isEmpty(), () -> "under load: " + failures.subList(0, Math.min(20, failures.size())));
+
+        BalanceAggregates.Check quiet = bank.verifyAggregates();
+        assertTrue(quiet.customersMatch() && quiet.bankWideMatches(), quiet::toString);
+        long byWalk = 0;
+        for (Account acc : bank.getStore().accounts()) byWalk += acc.getBalance();
+        long counted = 0;
+        for (AccountType type : AccountType.values()) counted += bank.getTotalBalance(type);
+        assertEquals(byWalk, counted);
+        for (Customer c : customers) {
+            assertEquals(bank.getCustomerBalance(c.getCustomerId()), bank.getPortfolio(c.getCustomerId()).getTotalBalance());
+        }
+        bank.close();
+
+        try (BankServiceImpl recovered = BankServiceImpl.recover(journalFile)) {
+            BalanceAggregates.Check replayed = recovered.verifyAggregates();
+            assertTrue(replayed.customersMatch() && replayed.bankWideMatches(), replayed::toString);
+            for (AccountType type : AccountType.values()) {
+                assertEquals(quiet.countedByType()[type.ordinal()], recovered.getTotalBalance(type));
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.enums.AccountType;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// A zero or negative amount would turn a deposit into a debit that skips the balance rules, or a
+// transfer into one that runs backwards; every posting path must refuse it and change nothing
+class AmountTest {
+    @ParameterizedTest
+    @ValueSource(longs = {0, -1, Long.MIN_VALUE})
+    void nonPositiveAmountsAreRefused(long amt) {
+        BankServiceImpl bank = new BankServiceImpl();
+        Customer c = bank.registerCustomer("Amount", "amount@example.com", "9876543210", "1990-01-01");
+        String a = bank.createAccount(c.getCustomerId(), AccountType.SAVINGS, 100_000).getAccountId();
+        String b = bank.createAccount(c.getCustomerId(), AccountType.CURRENT, 100_000).getAccountId();
+
+        assertThrows(IllegalArgumentException.class, () -> bank.deposit(a, amt));
+        assertThrows(IllegalArgumentException.class, () -> bank.withdraw(a, amt));
+        assertThrows(IllegalArgumentException.class, () -> bank.transfer(a, b, amt));
+        assertThrows(IllegalArgumentException.class, () -> bank.deposit(a, amt, "deposit"));
+        assertThrows(IllegalArgumentException.class, () -> bank.withdraw(a, amt, "withdraw"));
+        assertThrows(IllegalArgumentException.class, () -> bank.transfer(a, b, amt, "transfer"));
+        try (ShardedBankEngine engine = new ShardedBankEngine(bank, 2)) {
+            CompletionException e = assertThrows(CompletionException.class, () -> engine.transfer(a, b, amt).join());
+            assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        }
+
+        assertEquals(100_000, bank.getAccount(a).getBalance());
+        assertEquals(100_000, bank.getAccount(b).getBalance());
+        assertEquals(0, bank.getTransactions(a).size());
+    }
+}
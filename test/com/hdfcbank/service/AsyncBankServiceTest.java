@@ -0,0 +1,66 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.exception.InsufficientBalanceException;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.Leg;
+import com.hdfcbank.model.Receipt;
+import com.hdfcbank.model.StatementQuery;
+import com.hdfcbank.model.enums.AccountType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncBankServiceTest {
+    // Each async call answers what its blocking counterpart does
+    @Test
+    void mirrorsTheBlockingService() {
+        BankServiceImpl bank = new BankServiceImpl();
+        AsyncBankService async = new AsyncBankServiceImpl(bank);
+        Customer c = async.registerCustomer("Async", "async@example.com", "9876543210", "1990-01-01").join();
+        String a = async.createAccount(c.getCustomerId(), AccountType.SAVINGS, 1_000_000).join().getAccountId();
+        String b = async.createAccount(c.getCustomerId(), AccountType.CURRENT, 0).join().getAccountId();
+        LocalDateTime before = LocalDateTime.now();
+
+        async.transfer(a, b, 1_000).join();
+        async.deposit(a, 500).join();
+        async.withdraw(b, 200).join();
+        Receipt first = async.transfer(a, b, 1_000, "async-1").join();
+        assertTrue(async.transfer(a, b, 1_000, "async-1").join().isReplayed());
+        assertEquals(first.getTxnId(), bank.transfer(a, b, 1_000, "async-1").getTxnId());
+        async.deposit(a, 500, "async-2").join();
+        async.withdraw(b, 200, "async-3").join();
+        async.post(List.of(Leg.debit(a, 300), Leg.credit(b, 300))).join();
+
+        assertEquals(998_700, async.getAccount(a).join().getBalance());
+        assertEquals(1_900, async.getAccount(b).join().getBalance());
+        assertEquals(c, async.getCustomer(c.getCustomerId()).join());
+        assertEquals(5, async.getTransactions(a).join().size());
+        assertEquals(5, async.statement(a, StatementQuery.all()).join().count());
+        assertEquals(1_000_000, async.getBalanceAsOf(a, before).join());
+        assertEquals(bank.getCustomerAccounts(c.getCustomerId()), async.getCustomerAccounts(c.getCustomerId()).join());
+        assertEquals(List.of(c), async.findCustomersByEmail("async@example.com").join());
+        assertEquals(List.of(c), async.findCustomersByPhone("9876543210").join());
+        assertEquals(2, async.getPortfolio(c.getCustomerId()).join().getAccounts().size());
+        assertEquals(1_000_600, async.getCustomerBalance(c.getCustomerId()).join());
+        assertEquals(bank.getTotalBalance(AccountType.CURRENT), async.getTotalBalance(AccountType.CURRENT).join());
+    }
+
+    // A refused call fails its future with the blocking call's exception as the cause
+    @Test
+    void failuresArriveAsTheCause() {
+        BankServiceImpl bank = new BankServiceImpl();
+        AsyncBankService async = new AsyncBankServiceImpl(bank);
+        Customer c = bank.registerCustomer("Async", "async@example.com", "9876543210", "1990-01-01");
+        String a = bank.createAccount(c.getCustomerId(), AccountType.CURRENT, 0).getAccountId();
+
+        CompletionException e = assertThrows(CompletionException.class, () -> async.withdraw(a, 100).join());
+        assertInstanceOf(InsufficientBalanceException.class, e.getCause());
+    }
+}
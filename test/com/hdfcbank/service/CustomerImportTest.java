@@ -0,0 +1,82 @@
+package com.hdfcbank.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CustomerImportTest {
+    private static final int ROWS = 20_000;
+    private static final int BAD_EVERY = 97;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void badRowsGoToRejectsAndTheRestIsImported() throws IOException {
+        Path csv = dir.resolve("customers.csv");
+        Path rejects = dir.resolve("rejects.csv");
+        long bad = generate(csv);
+        BankServiceImpl bank = new BankServiceImpl();
+
+        CustomerImport.Summary summary = new CustomerImport(bank, 4).run(csv, rejects);
+
+        assertEquals(bad, summary.rejected());
+        try (var lines = Files.lines(rejects)) {
+            assertEquals(bad, lines.count() - 1);
+        }
+        assertEquals(ROWS - bad, summary.accounts());
+        assertEquals(ROWS - bad, bank.getStore().customerCount());
+    }
+
+    @Test
+    void journaledImportRecovers() throws IOException {
+        Path csv = dir.resolve("customers.csv");
+        Path journal = dir.resolve("bank.journal");
+        generate(csv);
+        CustomerImport.Summary summary;
+        try (BankServiceImpl bank = BankServiceImpl.recover(journal)) {
+            summary = new CustomerImport(bank, 4).run(csv, dir.resolve("rejects.csv"));
+        }
+        try (BankServiceImpl recovered = BankServiceImpl.recover(journal)) {
+            assertEquals(summary.customers(), recovered.getStore().customerCount());
+            assertEquals(summary.accounts(), recovered.getStore().accountCount());
+            assertEquals(summary.accounts() * 100_000L, recovered.getStore().aggregates().total());
+        }
+    }
+
+    // Every BAD_EVERY-th row has one of several defects; good rows open an account with ₹1000
+    private static long generate(Path csv) throws IOException {
+        Random rnd = new Random(1);
+        long bad = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(csv)) {
+            out.write(CustomerImport.HEADER);
+            out.write('\n');
+            for (int i = 0; i < ROWS; i++) {
+                String name = i % 10 == 0 ? "\"Kumar, Amit " + i + "\"" : "Customer " + i;
+                String email = "customer" + i + "@example.com";
+                String phone = "9" + String.format("%09d", rnd.nextInt(1_000_000_000));
+                String dob = String.format("%04d-%02d-%02d", 1950 + rnd.nextInt(50), 1 + rnd.nextInt(12), 1 + rnd.nextInt(28));
+                String type = (i & 1) == 0 ? "SAVINGS" : "current";
+                if (i % BAD_EVERY == 0) {
+                    bad++;
+                    switch (i / BAD_EVERY % 4) {
+                        case 0 -> email = "customer" + i + "@example";
+                        case 1 -> phone = "12345";
+                        case 2 -> dob = "1990-02-30";
+                        default -> type = "FIXED";
+                    }
+                }
+                out.write(String.join(",", name, email, phone, dob, type, "1000.00"));
+                out.write('\n');
+            }
+        }
+        return bad;
+    }
+}
@@ -0,0 +1,83 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.Receipt;
+import com.hdfcbank.model.enums.AccountType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyTest {
+    @TempDir
+    Path dir;
+
+    // 16 threads send the same ten keyed transfers 100 times each; each key may post exactly once
+    @Test
+    void concurrentRetriesPostOnce() throws InterruptedException {
+        BankServiceImpl bank = new BankServiceImpl();
+        Customer c = bank.registerCustomer("Retry", "retry@example.com", "9876543210", "1990-01-01");
+        String a = bank.createAccount(c.getCustomerId(), AccountType.CURRENT, 1_000_000).getAccountId();
+        String b = bank.createAccount(c.getCustomerId(), AccountType.CURRENT, 0).getAccountId();
+        int threads = 16;
+        Map<String, Boolean> txnIds = new ConcurrentHashMap<>();
+        AtomicLong originals = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    Receipt r = bank.transfer(a, b, 100, "retry-" + (i % 10));
+                    txnIds.put(r.getTxnId(), true);
+                    if (!r.isReplayed()) originals.incrementAndGet();
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+
+        assertEquals(10, originals.get());
+        assertEquals(10, txnIds.size());
+        assertEquals(10 * 100, bank.getAccount(b).getBalance());
+    }
+
+    // Keys from before a snapshot and from the journal tail after it must both replay after recovery
+    @Test
+    void keysSurviveRestart() throws Exception {
+        Path journal = dir.resolve("bank.journal");
+        Path snapshot = dir.resolve("bank.snapshot");
+        String a;
+        String b;
+        List<Receipt> originals = new ArrayList<>();
+        try (BankServiceImpl bank = BankServiceImpl.recover(journal, snapshot)) {
+            Customer c = bank.registerCustomer("Restart", "restart@example.com", "9876543210", "1990-01-01");
+            a = bank.createAccount(c.getCustomerId(), AccountType.CURRENT, 1_000_000).getAccountId();
+            b = bank.createAccount(c.getCustomerId(), AccountType.SAVINGS, 200_000).getAccountId();
+            for (int i = 0; i < 200; i++) originals.add(bank.transfer(a, b, 10, "before-" + i));
+            bank.snapshot(snapshot);
+            for (int i = 0; i < 200; i++) originals.add(bank.deposit(a, 7, "after-" + i));
+        }
+        try (BankServiceImpl bank = BankServiceImpl.recover(journal, snapshot)) {
+            long balanceA = bank.getAccount(a).getBalance();
+            long balanceB = bank.getAccount(b).getBalance();
+            for (int i = 0; i < 200; i++) {
+                Receipt r = bank.transfer(a, b, 10, "before-" + i);
+                assertTrue(r.isReplayed());
+                assertEquals(originals.get(i).getTxnId(), r.getTxnId());
+                r = bank.deposit(a, 7, "after-" + i);
+                assertTrue(r.isReplayed());
+                assertEquals(originals.get(200 + i).getTxnId(), r.getTxnId());
+            }
+            assertEquals(balanceA, bank.getAccount(a).getBalance());
+            assertEquals(balanceB, bank.getAccount(b).getBalance());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.InterestRun;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.store.BankStore;
+import com.hdfcbank.util.IDGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InterestAccrualTest {
+    private static final YearMonth PERIOD = YearMonth.of(2024, 3);
+
+    @TempDir
+    Path dir;
+
+    // A run under transfer traffic conserves money, and a rerun of the same month credits nobody
+    @Test
+    void runUnderTrafficIsConservedAndIdempotent() throws InterruptedException {
+        BankServiceImpl bank = new BankServiceImpl();
+        String[] ids = populate(bank.getStore(), 20_000);
+        long before = total(bank);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                while (running.get()) {
+                    int a = rnd.nextInt(ids.length);
+                    int b = rnd.nextInt(ids.length - 1);
+                    bank.transfer(ids[a], ids[b >= a ? b + 1 : b], 1);
+                }
+            }));
+        }
+        InterestRun run = bank.accrueInterest(PERIOD, 4);
+        InterestRun rerun = bank.accrueInterest(PERIOD, 4);
+        running.set(false);
+        for (Thread worker : workers) worker.join();
+
+        assertTrue(run.getCredited() > 0);
+        assertEquals(0, rerun.getCredited());
+        assertEquals(before + run.getTotalInterest(), total(bank));
+    }
+
+    // A journal cut in the middle of a run, as a crash would leave it: the rerun credits exactly the
+    // accounts that were missed, and a rerun after a clean recovery credits nobody
+    @Test
+    void rerunAfterCrashCompletesTheRun() throws Exception {
+        Path journalFile = dir.resolve("bank.journal");
+        Path snapshotFile = dir.resolve("bank.snapshot");
+        Path crashedFile = dir.resolve("crashed.journal");
+        String[] ids;
+        long[] expected;
+        InterestRun run;
+        long journalBytes;
+        try (BankServiceImpl bank = BankServiceImpl.recover(journalFile, snapshotFile)) {
+            ids = populate(bank.getStore(), 5_000);
+            bank.snapshot(snapshotFile); // the accounts were added behind the journal's back
+            run = bank.accrueInterest(PERIOD, 4);
+            expected = balances(bank, ids);
+            journalBytes = bank.getJournal().appendedLsn();
+        }
+
+        Files.copy(journalFile, crashedFile);
+        try (FileChannel ch = FileChannel.open(crashedFile, StandardOpenOption.WRITE)) {
+            ch.truncate(journalBytes / 2 + 3); // mid-record
+        }
+        try (BankServiceImpl crashed = BankServiceImpl.recover(crashedFile, snapshotFile)) {
+            long survived = crashed.getStore().transactionCount();
+            InterestRun resumed = crashed.accrueInterest(PERIOD, 4);
+            assertArrayEquals(expected, balances(crashed, ids));
+            assertEquals(run.getCredited(), survived + resumed.getCredited());
+        }
+        try (BankServiceImpl recovered = BankServiceImpl.recover(journalFile, snapshotFile)) {
+            assertEquals(0, recovered.accrueInterest(PERIOD, 4).getCredited());
+            assertArrayEquals(expected, balances(recovered, ids));
+        }
+    }
+
+    // Accounts go straight into the store, half savings, half current
+    private static String[] populate(BankStore store, int n) {
+        Customer c = new Customer(IDGenerator.generateCustomerId(), "Interest", "interest@example.com", "9876543210",
+                LocalDate.of(1990, 1, 1));
+        store.addCustomer(c);
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String[] ids = new String[n];
+        for (int i = 0; i < n; i++) {
+            AccountType type = (i & 1) == 0 ? AccountType.SAVINGS : AccountType.CURRENT;
+            Account acc = Account.of(IDGenerator.generateAccountId(), c, type, 1_000_000 + rnd.nextLong(100_000_000));
+            store.addAccount(acc);
+            ids[i] = acc.getAccountId();
+        }
+        return ids;
+    }
+
+    private static long total(BankServiceImpl bank) {
+        long total = 0;
+        for (Account acc : bank.getStore().accounts()) total += acc.getBalance();
+        return total;
+    }
+
+    private static long[] balances(BankServiceImpl bank, String[] ids) {
+        long[] balances = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) balances[i] = bank.getAccount(ids[i]).getBalance();
+        return balances;
+    }
+}
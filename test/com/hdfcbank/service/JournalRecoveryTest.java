@@ -0,0 +1,169 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.persistence.Journal;
+import com.hdfcbank.persistence.JournalRecord;
+import com.hdfcbank.util.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalRecoveryTest {
+    @TempDir
+    Path dir;
+
+    // Durable deposits from many threads share fsyncs, and a restart replays every one of them
+    @Test
+    void groupCommittedDepositsReplay() throws Exception {
+        Path file = dir.resolve("bank.journal");
+        int threads = 32;
+        int perThread = 200;
+        List<String> ids;
+        long[] expected;
+        try (BankServiceImpl bank = BankServiceImpl.recover(file)) {
+            ids = open(bank, 100);
+            long syncsBefore = bank.getJournal().syncCount();
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int t = 0; t < threads; t++) {
+                Thread.ofPlatform().start(() -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    for (int i = 0; i < perThread; i++) bank.deposit(ids.get(rnd.nextInt(ids.size())), 1);
+                    done.countDown();
+                });
+            }
+            done.await();
+            assertTrue(bank.getJournal().syncCount() - syncsBefore < (long) threads * perThread, "no fsync was shared");
+            expected = balances(bank, ids);
+        }
+        try (BankServiceImpl recovered = BankServiceImpl.recover(file)) {
+            assertEquals((long) threads * perThread, recovered.getStore().transactionCount());
+            assertBalances(recovered, ids, expected);
+        }
+    }
+
+    // A snapshot taken while transfers keep running, plus the journal tail it leaves behind, must
+    // rebuild the bank as it was at shutdown, statements and running balances included
+    @Test
+    void snapshotUnderTrafficRestoresTheBank() throws Exception {
+        Path journal = dir.resolve("bank.journal");
+        Path snapshot = dir.resolve("bank.snapshot");
+        List<String> ids;
+        long[] expected;
+        long postings;
+        List<String> statement;
+        try (BankServiceImpl bank = BankServiceImpl.recover(journal, snapshot)) {
+            ids = open(bank, 200);
+            AtomicBoolean running = new AtomicBoolean(true);
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                workers.add(Thread.ofPlatform().start(() -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    while (running.get()) {
+                        int a = rnd.nextInt(ids.size());
+                        int b = rnd.nextInt(ids.size() - 1);
+                        bank.transfer(ids.get(a), ids.get(b >= a ? b + 1 : b), 1);
+                    }
+                }));
+            }
+            Thread.sleep(300);
+            bank.snapshot(snapshot);
+            Thread.sleep(300);
+            running.set(false);
+            for (Thread worker : workers) worker.join();
+            expected = balances(bank, ids);
+            postings = bank.getStore().transactionCount();
+            statement = statement(bank, ids.get(0));
+        }
+        // The journal was rolled past everything the snapshot holds
+        assertThrows(IOException.class, () -> BankServiceImpl.recover(journal));
+        try (BankServiceImpl recovered = BankServiceImpl.recover(journal, snapshot)) {
+            assertBalances(recovered, ids, expected);
+            assertEquals(postings, recovered.getStore().transactionCount());
+            assertEquals(statement, statement(recovered, ids.get(0)));
+        }
+    }
+
+    // Appends racing close() are either refused or made durable: nobody is left parked and a reopen
+    // replays exactly the appends that were accepted
+    @Test
+    void closeDrainsEveryAcceptedAppend() throws Exception {
+        Path file = dir.resolve("bank.journal");
+        AtomicLong accepted = new AtomicLong();
+        for (int round = 0; round < 20; round++) {
+            Journal journal = Journal.open(file, (r, lsn) -> {});
+            CountDownLatch started = new CountDownLatch(8);
+            List<Thread> appenders = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                appenders.add(Thread.ofPlatform().start(() -> {
+                    started.countDown();
+                    JournalRecord record = new JournalRecord.CustomerRegistered("CUST1", "Close", "close@example.com",
+                            "9876543210", LocalDate.of(1990, 1, 1));
+                    while (true) {
+                        long lsn;
+                        try {
+                            lsn = journal.append(record);
+                        } catch (IllegalStateException closed) {
+                            return;
+                        }
+                        accepted.incrementAndGet();
+                        journal.awaitDurable(lsn);
+                    }
+                }));
+            }
+            started.await();
+            Thread.sleep(5);
+            journal.close();
+            for (Thread appender : appenders) {
+                appender.join(10_000);
+                assertFalse(appender.isAlive(), "appender still parked after close");
+            }
+            AtomicLong replayed = new AtomicLong();
+            Journal.open(file, (r, lsn) -> replayed.incrementAndGet()).close();
+            assertEquals(accepted.get(), replayed.get());
+        }
+    }
+
+    private static List<String> open(BankServiceImpl bank, int n) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Customer c = bank.registerCustomer("Journal " + i, "journal@example.com", "9876543210", "1990-01-01");
+            ids.add(bank.createAccount(c.getCustomerId(), AccountType.CURRENT, Money.ofRupees(10_000)).getAccountId());
+        }
+        return ids;
+    }
+
+    private static List<String> statement(BankServiceImpl bank, String accountId) {
+        return bank.getTransactions(accountId).stream()
+                .map(t -> t.getTxnId() + " " + t.getType() + " " + t.getAmount() + " " + t.getDate() + " " + t.getBalanceAfter())
+                .toList();
+    }
+
+    private static long[] balances(BankServiceImpl bank, List<String> ids) {
+        long[] balances = new long[ids.size()];
+        for (int i = 0; i < balances.length; i++) balances[i] = bank.getAccount(ids.get(i)).getBalance();
+        return balances;
+    }
+
+    private static void assertBalances(BankServiceImpl bank, List<String> ids, long[] expected) {
+        for (int i = 0; i < expected.length; i++) {
+            assertNotNull(bank.getAccount(ids.get(i)), ids.get(i));
+            assertEquals(expected[i], bank.getAccount(ids.get(i)).getBalance(), ids.get(i));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.exception.InsufficientBalanceException;
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.Leg;
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.model.enums.AccountType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Threads fire random 2- to 8-leg postings over a few accounts with balances low enough that many
+// are refused. Every ledger must then agree with its balance, every transaction's entries must net
+// to zero with one entry per leg, and a journal replay must rebuild the same bank.
+class MultiLegPostingTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void postingsAreAtomicAndReplayIdentically() throws Exception {
+        Path journal = dir.resolve("bank.journal");
+        int accounts = 12;
+        int threads = 8;
+        long opening = 50_000;
+        String[] ids = new String[accounts];
+        Map<Long, Integer> legCounts = new ConcurrentHashMap<>(); // applied txn number -> legs
+        LongAdder refused = new LongAdder();
+        Map<String, Long> balances = new HashMap<>();
+        Map<String, Integer> entries = new HashMap<>();
+        try (BankServiceImpl bank = BankServiceImpl.recover(journal)) {
+            for (int i = 0; i < accounts; i++) {
+                Customer c = bank.registerCustomer("Leg " + i, "leg" + i + "@example.com", "9876543210", "1990-01-01");
+                ids[i] = bank.createAccount(c.getCustomerId(), AccountType.CURRENT, opening).getAccountId();
+            }
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int t = 0; t < threads; t++) {
+                Thread.ofPlatform().start(() -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    int[] pick = new int[accounts];
+                    for (int i = 0; i < accounts; i++) pick[i] = i;
+                    for (int i = 0; i < 1_000; i++) {
+                        try {
+                            List<Transaction> posted = bank.post(randomLegs(ids, pick, 2 + rnd.nextInt(7), rnd));
+                            legCounts.put(posted.get(0).getTxnNumber(), posted.size());
+                        } catch (InsufficientBalanceException e) {
+                            refused.increment();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            done.await();
+
+            long total = 0;
+            Map<Long, long[]> byTxn = new HashMap<>(); // txn number -> {net amount, entries}
+            for (String id : ids) {
+                Account acc = bank.getAccount(id);
+                total += acc.getBalance();
+                long replayed = opening;
+                List<Transaction> history = bank.getTransactions(id);
+                for (Transaction txn : history) {
+                    long signed = txn.getType().isCredit() ? txn.getAmount() : -txn.getAmount();
+                    replayed += signed;
+                    long[] net = byTxn.computeIfAbsent(txn.getTxnNumber(), n -> new long[2]);
+                    net[0] += signed;
+                    net[1]++;
+                }
+                assertEquals(acc.getBalance(), replayed, id + " ledger against balance");
+                balances.put(id, acc.getBalance());
+                entries.put(id, history.size());
+            }
+            assertEquals(accounts * opening, total);
+            assertTrue(refused.sum() > 0, "no posting was refused");
+            assertEquals(legCounts.size(), byTxn.size());
+            byTxn.forEach((txn, net) -> {
+                assertEquals(0, net[0], "net of txn " + txn);
+                assertEquals(legCounts.get(txn), (int) net[1], "entries of txn " + txn);
+            });
+            assertTrue(bank.verifyAggregates().customersMatch() && bank.verifyAggregates().bankWideMatches());
+        }
+        try (BankServiceImpl bank = BankServiceImpl.recover(journal)) {
+            for (String id : ids) {
+                assertEquals(balances.get(id), bank.getAccount(id).getBalance());
+                assertEquals(entries.get(id), bank.getTransactions(id).size());
+            }
+        }
+    }
+
+    // A random balanced posting: each debit is up to 20,000 paise, and their total is split at random
+    // over the credits, each getting at least 1 paisa
+    private static List<Leg> randomLegs(String[] ids, int[] pick, int legs, ThreadLocalRandom rnd) {
+        int debits = 1 + rnd.nextInt(legs - 1);
+        long[] amounts = new long[legs];
+        long left = 0;
+        for (int i = 0; i < debits; i++) left += amounts[i] = legs + rnd.nextInt(20_000);
+        for (int i = debits; i < legs - 1; i++) {
+            amounts[i] = 1 + rnd.nextLong(left - (legs - 1 - i));
+            left -= amounts[i];
+        }
+        amounts[legs - 1] = left;
+        List<Leg> list = new ArrayList<>(legs);
+        for (int i = 0; i < legs; i++) {
+            int j = i + rnd.nextInt(pick.length - i);
+            int tmp = pick[i];
+            pick[i] = pick[j];
+            pick[j] = tmp;
+            list.add(i < debits ? Leg.debit(ids[pick[i]], amounts[i]) : Leg.credit(ids[pick[i]], amounts[i]));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,33 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.Instruction;
+import com.hdfcbank.model.enums.AccountType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SelfTransferTest {
+    // Refused on every path, leaving the balance and the newest running balance alike
+    @Test
+    void selfTransferIsRefused() {
+        BankServiceImpl bank = new BankServiceImpl();
+        String a = open(bank);
+        bank.deposit(a, 500);
+        assertThrows(IllegalArgumentException.class, () -> bank.transfer(a, a, 100));
+        assertThrows(IllegalArgumentException.class, () -> bank.transfer(a, a, 100, "self-1"));
+        assertEquals(1, bank.submitBatch(List.of(Instruction.transfer(a, a, 100))).stream().filter(r -> !r.isSuccess()).count());
+        bank.withdraw(a, 200);
+
+        assertEquals(10_300, bank.getAccount(a).getBalance());
+        assertEquals(bank.getAccount(a).getBalance(), bank.getTransactions(a).get(0).getBalanceAfter());
+    }
+
+    private static String open(BankServiceImpl bank) {
+        Customer c = bank.registerCustomer("Self", "self@example.com", "9876543210", "1990-01-01");
+        return bank.createAccount(c.getCustomerId(), AccountType.CURRENT, 10_000).getAccountId();
+    }
+}
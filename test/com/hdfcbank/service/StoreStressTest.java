@@ -0,0 +1,125 @@
+package com.hdfcbank.service;
+
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.store.BankStore;
+import com.hdfcbank.util.IDGenerator;
+import com.hdfcbank.util.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+// Hammers BankServiceImpl from many threads at once; no customer, account, transaction or paisa may go missing
+class StoreStressTest {
+    @Test
+    void concurrentOnboardingAndDepositsLoseNothing() throws Exception {
+        int threads = 16;
+        int customersPerThread = 100;
+        int depositsPerAccount = 10;
+        BankServiceImpl bank = new BankServiceImpl();
+        BankStore store = bank.getStore();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Account>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                List<Account> created = new ArrayList<>();
+                for (int i = 0; i < customersPerThread; i++) {
+                    Customer c = bank.registerCustomer("Stress " + i, "stress@example.com", "9876543210", "1990-01-01");
+                    Account acc = bank.createAccount(c.getCustomerId(),
+                            (i & 1) == 0 ? AccountType.SAVINGS : AccountType.CURRENT, Money.ofRupees(1000));
+                    created.add(acc);
+                    for (int d = 0; d < depositsPerAccount; d++) bank.deposit(acc.getAccountId(), 1);
+                }
+                return created;
+            }));
+        }
+        start.countDown();
+        List<Account> created = new ArrayList<>();
+        for (Future<List<Account>> f : futures) created.addAll(f.get());
+        executor.shutdown();
+
+        int accounts = threads * customersPerThread;
+        assertEquals(accounts, store.customerCount());
+        assertEquals(accounts, store.accountCount());
+        assertEquals((long) accounts * depositsPerAccount, store.transactionCount());
+        for (Account acc : created) {
+            assertSame(acc, store.getAccount(acc.getAccountId()));
+            assertEquals(depositsPerAccount, store.getLedger(acc.getAccountId()).size());
+            assertEquals(Money.ofRupees(1000) + depositsPerAccount, acc.getBalance());
+        }
+    }
+
+    // Random pairs over a few accounts, so opposite-direction transfers on one pair are common
+    @Test
+    void contendedTransfersConserveMoney() throws InterruptedException {
+        BankServiceImpl bank = new BankServiceImpl();
+        String[] ids = new String[16];
+        for (int i = 0; i < ids.length; i++) {
+            Customer c = bank.registerCustomer("Bench " + i, "bench@example.com", "9876543210", "1990-01-01");
+            ids[i] = bank.createAccount(c.getCustomerId(), AccountType.CURRENT, 1_000_000_000).getAccountId();
+        }
+        int threads = 16;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    int a = rnd.nextInt(ids.length);
+                    int b = rnd.nextInt(ids.length - 1);
+                    bank.transfer(ids[a], ids[b >= a ? b + 1 : b], 1);
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+
+        long total = 0;
+        for (String id : ids) total += bank.getAccount(id).getBalance();
+        assertEquals(ids.length * 1_000_000_000L, total);
+    }
+
+    // Racing inserts of one account number: exactly one wins, and only its opening balance is counted
+    @Test
+    void duplicateAccountIsAddedOnce() throws InterruptedException {
+        BankStore store = new BankStore();
+        Customer c = new Customer(IDGenerator.generateCustomerId(), "Dup", "dup@example.com", "9876543210",
+                LocalDate.of(1990, 1, 1));
+        store.addCustomer(c);
+        String id = IDGenerator.generateAccountId();
+        int threads = 8;
+        LongAdder added = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    store.addAccount(Account.of(id, c, AccountType.CURRENT, 1_000));
+                    added.increment();
+                } catch (IllegalStateException | InterruptedException ignored) {
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+
+        assertEquals(1, added.sum());
+        assertEquals(1, store.accountCount());
+        assertEquals(1_000, store.aggregates().customerTotal(c.getCustomerNumber()));
+        assertEquals(1, store.accountsOf(c.getCustomerNumber()).size());
+    }
+}
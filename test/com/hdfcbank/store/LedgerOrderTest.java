@@ -0,0 +1,188 @@
+package com.hdfcbank.store;
+
+import com.hdfcbank.exception.InsufficientBalanceException;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.service.ShardedBankEngine;
+import com.hdfcbank.util.Money;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every live posting must reach a ledger in date order and stay findable by number, or the ledger
+// drops to scans, and in the order its balance changed, or its stamps are wrong
+class LedgerOrderTest {
+    private static final int ACCOUNTS = 4;
+
+    // Deposits, withdrawals and transfers race each other on a few hot accounts
+    @Test
+    void concurrentPostingsKeepLedgersOrdered() throws InterruptedException {
+        BankServiceImpl bank = new BankServiceImpl();
+        String[] ids = open(bank);
+        int threads = 8;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread.ofPlatform().start(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int i = 0; i < 100_000; i++) {
+                    int a = rnd.nextInt(ACCOUNTS);
+                    switch (rnd.nextInt(4)) {
+                        case 0, 1 -> bank.deposit(ids[a], 1);
+                        case 2 -> bank.withdraw(ids[a], 1);
+                        default -> {
+                            int b = rnd.nextInt(ACCOUNTS - 1);
+                            bank.transfer(ids[a], ids[b >= a ? b + 1 : b], 1);
+                        }
+                    }
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+
+        assertOrdered(bank, ids);
+    }
+
+    // Cross-shard credits land while their destination keeps posting on its own shard. They carry
+    // their debit's number, so a destination's numbers may go backwards, but every entry must still
+    // be found as a cursor and the dates must still rise.
+    @Test
+    void crossShardCreditsKeepLedgersSearchable() {
+        BankServiceImpl bank = new BankServiceImpl();
+        String[] ids = open(bank);
+        try (ShardedBankEngine engine = new ShardedBankEngine(bank, ACCOUNTS)) {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            List<CompletableFuture<Void>> window = new ArrayList<>();
+            for (int i = 0; i < 200_000; i++) {
+                int a = rnd.nextInt(ACCOUNTS);
+                int b = rnd.nextInt(ACCOUNTS - 1);
+                window.add(rnd.nextBoolean() ? engine.deposit(ids[a], 1) : engine.transfer(ids[a], ids[b >= a ? b + 1 : b], 1));
+                if (window.size() == 1_024) {
+                    CompletableFuture.allOf(window.toArray(new CompletableFuture<?>[0])).join();
+                    window.clear();
+                }
+            }
+            CompletableFuture.allOf(window.toArray(new CompletableFuture<?>[0])).join();
+        }
+
+        Set<Long> debits = new HashSet<>();
+        Set<Long> credits = new HashSet<>();
+        for (String id : ids) {
+            AccountLedger ledger = bank.getStore().getLedger(id);
+            assertTrue(ledger.isChronological(), id + " ledger dates went backwards");
+            List<Transaction> entries = ledger.newestFirst();
+            for (int i = 0; i < entries.size(); i++) {
+                Transaction txn = entries.get(i);
+                List<Transaction> page = ledger.before(txn.getTxnId(), 1);
+                if (i + 1 < entries.size()) assertEquals(entries.get(i + 1).getTxnId(), page.get(0).getTxnId());
+                else assertTrue(page.isEmpty());
+                if (txn.getType() == TransactionType.TRANSFER) debits.add(txn.getTxnNumber());
+                if (txn.getType() == TransactionType.TRANSFER_IN) credits.add(txn.getTxnNumber());
+            }
+        }
+        assertEquals(debits, credits);
+    }
+
+    // Threads, then shards, post near the floors of savings and current accounts, so many debits
+    // are refused. Each entry's stamp must be the one before it plus or minus its amount, never
+    // below the account's floor, and the newest must be the balance.
+    @Test
+    void stampsFollowTheBalanceAndKeepToTheFloor() throws InterruptedException {
+        BankServiceImpl bank = new BankServiceImpl();
+        long savingsFloor = Money.ofRupees(1000);
+        String[] ids = new String[ACCOUNTS];
+        long[] floors = new long[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Customer c = bank.registerCustomer("Floor " + i, "floor" + i + "@example.com", "9876543210", "1990-01-01");
+            AccountType type = i % 2 == 0 ? AccountType.SAVINGS : AccountType.CURRENT;
+            floors[i] = type == AccountType.SAVINGS ? savingsFloor : 0;
+            ids[i] = bank.createAccount(c.getCustomerId(), type, floors[i] + 1_000).getAccountId();
+        }
+        int threads = 8;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread.ofPlatform().start(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int i = 0; i < 50_000; i++) {
+                    int a = rnd.nextInt(ACCOUNTS);
+                    long amt = 1 + rnd.nextInt(300);
+                    try {
+                        switch (rnd.nextInt(3)) {
+                            case 0 -> bank.deposit(ids[a], amt);
+                            case 1 -> bank.withdraw(ids[a], amt);
+                            default -> {
+                                int b = rnd.nextInt(ACCOUNTS - 1);
+                                bank.transfer(ids[a], ids[b >= a ? b + 1 : b], amt);
+                            }
+                        }
+                    } catch (InsufficientBalanceException e) {
+                        // at the floor
+                    }
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        try (ShardedBankEngine engine = new ShardedBankEngine(bank, ACCOUNTS)) {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            List<CompletableFuture<Void>> window = new ArrayList<>();
+            for (int i = 0; i < 200_000; i++) {
+                int a = rnd.nextInt(ACCOUNTS);
+                long amt = 1 + rnd.nextInt(300);
+                int b = rnd.nextInt(ACCOUNTS - 1);
+                CompletableFuture<Void> posted = switch (rnd.nextInt(3)) {
+                    case 0 -> engine.deposit(ids[a], amt);
+                    case 1 -> engine.withdraw(ids[a], amt);
+                    default -> engine.transfer(ids[a], ids[b >= a ? b + 1 : b], amt);
+                };
+                window.add(posted.exceptionally(e -> null));
+                if (window.size() == 1_024) {
+                    CompletableFuture.allOf(window.toArray(new CompletableFuture<?>[0])).join();
+                    window.clear();
+                }
+            }
+            CompletableFuture.allOf(window.toArray(new CompletableFuture<?>[0])).join();
+        }
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            List<Transaction> entries = bank.getStore().getLedger(ids[i]).newestFirst();
+            long balance = floors[i] + 1_000;
+            for (int k = entries.size() - 1; k >= 0; k--) {
+                Transaction txn = entries.get(k);
+                balance += txn.getType().isCredit() ? txn.getAmount() : -txn.getAmount();
+                assertEquals(balance, txn.getBalanceAfter(), txn.toString());
+                assertTrue(txn.getBalanceAfter() >= floors[i], ids[i] + " stamped below its floor: " + txn);
+            }
+            assertEquals(bank.getAccount(ids[i]).getBalance(), balance);
+        }
+    }
+
+    private static void assertOrdered(BankServiceImpl bank, String[] ids) {
+        for (String id : ids) {
+            AccountLedger ledger = bank.getStore().getLedger(id);
+            assertTrue(ledger.isOrdered(), id + " ledger numbers went backwards");
+            assertTrue(ledger.isChronological(), id + " ledger dates went backwards");
+        }
+    }
+
+    private static String[] open(BankServiceImpl bank) {
+        String[] ids = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Customer c = bank.registerCustomer("Order " + i, "order" + i + "@example.com", "9876543210", "1990-01-01");
+            ids[i] = bank.createAccount(c.getCustomerId(), AccountType.CURRENT, 1_000_000_000).getAccountId();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,107 @@
+package com.hdfcbank.store;
+
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.StatementQuery;
+import com.hdfcbank.model.Transaction;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.model.enums.TransactionType;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.util.IDGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LedgerTimeIndexTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final long SPAN_NANOS = 730L * 24 * 3600 * 1_000_000_000L;
+    private static final long DAY_NANOS = 24L * 3600 * 1_000_000_000L;
+    private static final long OPENING = 1_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    // Random as-of balances and one-day statements over two years of entries must equal a full replay
+    @Test
+    void indexMatchesFullReplay() {
+        BankServiceImpl bank = new BankServiceImpl();
+        Customer c = bank.registerCustomer("Hot", "hot@example.com", "9876543210", "1990-01-01");
+        String hot = bank.createAccount(c.getCustomerId(), AccountType.CURRENT, OPENING).getAccountId();
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int rows = 200_000;
+        long step = SPAN_NANOS / rows;
+        long t = TransactionColumns.epochNanos(START);
+        for (int i = 0; i < rows; i++) {
+            t += 1 + rnd.nextLong(2 * step);
+            TransactionType type = rnd.nextInt(3) == 0 ? TransactionType.WITHDRAW : TransactionType.DEPOSIT;
+            bank.getStore().append(new Transaction(IDGenerator.nextTxnNumber(), hot, type, 1 + rnd.nextInt(10_000),
+                    TransactionColumns.dateOf(t)));
+        }
+        AccountLedger ledger = bank.getStore().getLedger(hot);
+
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime at = START.plusNanos(rnd.nextLong(SPAN_NANOS + DAY_NANOS));
+            long from = TransactionColumns.epochNanos(at);
+            assertEquals(replayedBalance(ledger, from), bank.getBalanceAsOf(hot, at), "balance as of " + at);
+            assertEquals(replayedCount(ledger, from, from + DAY_NANOS),
+                    bank.statement(hot, StatementQuery.all().from(at).until(at.plusDays(1))).count(), "entries on " + at);
+        }
+        assertEquals(OPENING, bank.getBalanceAsOf(hot, START));
+        assertEquals(replayedBalance(ledger, Long.MAX_VALUE), bank.getBalanceAsOf(hot, START.plusYears(10)));
+    }
+
+    // Every entry's running balance and every as-of answer must be the same after snapshot + journal recovery
+    @Test
+    void runningBalancesSurviveRestart() throws Exception {
+        Path journal = dir.resolve("bank.journal");
+        Path snapshot = dir.resolve("bank.snapshot");
+        String a;
+        String b;
+        List<Transaction> before;
+        List<Long> asOf = new ArrayList<>();
+        List<LocalDateTime> instants = new ArrayList<>();
+        try (BankServiceImpl bank = BankServiceImpl.recover(journal, snapshot)) {
+            Customer c = bank.registerCustomer("Restart", "restart@example.com", "9876543210", "1990-01-01");
+            a = bank.createAccount(c.getCustomerId(), AccountType.SAVINGS, 500_000).getAccountId();
+            b = bank.createAccount(c.getCustomerId(), AccountType.CURRENT, 0).getAccountId();
+            for (int i = 0; i < 300; i++) {
+                if (i == 150) bank.snapshot(snapshot);
+                if (i % 3 == 0) bank.deposit(a, 1 + i);
+                else bank.transfer(a, b, 1 + i % 50);
+                if (i % 30 == 0) instants.add(LocalDateTime.now());
+            }
+            before = bank.getTransactions(a);
+            for (LocalDateTime t : instants) asOf.add(bank.getBalanceAsOf(a, t));
+        }
+        try (BankServiceImpl bank = BankServiceImpl.recover(journal, snapshot)) {
+            List<Transaction> after = bank.getTransactions(a);
+            assertEquals(before.size(), after.size());
+            for (int i = 0; i < after.size(); i++) assertEquals(before.get(i).getBalanceAfter(), after.get(i).getBalanceAfter());
+            for (int i = 0; i < instants.size(); i++) assertEquals(asOf.get(i), bank.getBalanceAsOf(a, instants.get(i)));
+            assertEquals(bank.getAccount(a).getBalance(), after.get(0).getBalanceAfter());
+            assertEquals(bank.getAccount(b).getBalance(), bank.getTransactions(b).get(0).getBalanceAfter());
+        }
+    }
+
+    private static long replayedBalance(AccountLedger ledger, long before) {
+        long[] balance = {OPENING};
+        ledger.scan(0, ledger.size(), (txn, type, amount, time) -> {
+            if (time < before) balance[0] += type.isCredit() ? amount : -amount;
+        });
+        return balance[0];
+    }
+
+    private static long replayedCount(AccountLedger ledger, long from, long until) {
+        long[] count = {0};
+        ledger.scan(0, ledger.size(), (txn, type, amount, time) -> {
+            if (time >= from && time < until) count[0]++;
+        });
+        return count[0];
+    }
+}
@@ -0,0 +1,146 @@
+package com.hdfcbank.store;
+
+import com.hdfcbank.exception.InsufficientBalanceException;
+import com.hdfcbank.exception.VelocityLimitExceededException;
+import com.hdfcbank.model.Account;
+import com.hdfcbank.model.Customer;
+import com.hdfcbank.model.Leg;
+import com.hdfcbank.model.enums.AccountType;
+import com.hdfcbank.service.BankServiceImpl;
+import com.hdfcbank.util.IDGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VelocityLimiterTest {
+    private static final Customer OWNER = new Customer("CUST0", "Velocity", "velocity@example.com", "9876543210",
+            LocalDate.of(1990, 1, 1));
+
+    // 8 threads fire 500 withdrawals each at one account allowed 100 debits a minute: exactly 100
+    // may post, and the ledger must hold exactly those
+    @Test
+    void burstIsHeldToTheLimit() throws InterruptedException {
+        BankServiceImpl bank = new BankServiceImpl();
+        bank.getStore().limitVelocity(Duration.ofMinutes(1), 100, 0);
+        String acc = open(bank, 1, 1_000_000)[0];
+        int entriesBefore = bank.getTransactions(acc).size();
+        int threads = 8;
+        LongAdder posted = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 500; i++) {
+                    try {
+                        bank.withdraw(acc, 1);
+                        posted.increment();
+                    } catch (VelocityLimitExceededException e) {
+                        // over the limit
+                    }
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+
+        assertEquals(100, posted.sum());
+        assertEquals(100, bank.getTransactions(acc).size() - entriesBefore);
+        assertEquals(1_000_000 - 100, bank.getAccount(acc).getBalance());
+    }
+
+    // Debits refused for lack of funds, or rolled back because another leg of their posting was
+    // limited, must leave the whole amount limit available
+    @Test
+    void refusedDebitsAreNotCounted() {
+        BankServiceImpl bank = new BankServiceImpl();
+        long limit = 10_000;
+        bank.getStore().limitVelocity(Duration.ofMinutes(1), 0, limit);
+        String[] ids = open(bank, 3, 0);
+        bank.deposit(ids[0], 5_000);
+        bank.deposit(ids[1], 2 * limit);
+        for (int i = 0; i < 50; i++) assertThrows(InsufficientBalanceException.class, () -> bank.withdraw(ids[0], 6_000));
+        bank.withdraw(ids[1], limit - 1);
+        // ids[0]'s leg is fine on its own; ids[1] has 1 paisa of its limit left
+        assertThrows(VelocityLimitExceededException.class,
+                () -> bank.post(List.of(Leg.debit(ids[0], 5_000), Leg.debit(ids[1], 2), Leg.credit(ids[2], 5_002))));
+        bank.deposit(ids[0], limit);
+        long taken = 0;
+        try {
+            while (true) {
+                bank.withdraw(ids[0], 1_000);
+                taken += 1_000;
+            }
+        } catch (VelocityLimitExceededException e) {
+            // the limit is reached
+        }
+
+        assertEquals(limit, taken);
+        assertEquals(0, bank.getAccount(ids[2]).getBalance());
+    }
+
+    // Once the window has passed, the account may debit again
+    @Test
+    void windowSlides() throws InterruptedException {
+        BankServiceImpl bank = new BankServiceImpl();
+        bank.getStore().limitVelocity(Duration.ofMillis(400), 20, 0);
+        String acc = open(bank, 1, 1_000_000)[0];
+        assertEquals(20, debitUntilLimited(bank, acc));
+        Thread.sleep(450);
+        assertEquals(20, debitUntilLimited(bank, acc));
+    }
+
+    // Far more distinct accounts than slots debit once each: the table keeps its size, slots are
+    // taken over, and a hot account debiting throughout is still held to its limit
+    @Test
+    void memoryStaysBoundedUnderChurn() {
+        VelocityLimiter limiter = new VelocityLimiter(Duration.ofHours(1), 100, 0, 1 << 12);
+        long footprint = limiter.footprintBytes();
+        Account hot = Account.of(IDGenerator.accountId(1), OWNER, AccountType.CURRENT, 0);
+        int hotAdmitted = 0;
+        int churn = 200_000;
+        for (int i = 0; i < churn; i++) {
+            limiter.admit(Account.of(IDGenerator.accountId(1_000_000 + i), OWNER, AccountType.CURRENT, 0), 1);
+            if (i % 1_000 == 0) {
+                try {
+                    limiter.admit(hot, 1);
+                    hotAdmitted++;
+                } catch (VelocityLimitExceededException e) {
+                    // held to its limit
+                }
+            }
+        }
+
+        assertEquals(footprint, limiter.footprintBytes());
+        assertTrue(limiter.evictions() > 0);
+        assertEquals(100, hotAdmitted);
+    }
+
+    private static int debitUntilLimited(BankServiceImpl bank, String acc) {
+        int n = 0;
+        try {
+            while (n < 1_000) {
+                bank.withdraw(acc, 1);
+                n++;
+            }
+        } catch (VelocityLimitExceededException e) {
+            // the limit is reached
+        }
+        return n;
+    }
+
+    private static String[] open(BankServiceImpl bank, int n, long balance) {
+        String[] ids = new String[n];
+        for (int i = 0; i < n; i++) {
+            Customer c = bank.registerCustomer("Velocity " + i, "velocity" + i + "@example.com", "9876543210", "1990-01-01");
+            ids[i] = bank.createAccount(c.getCustomerId(), AccountType.CURRENT, balance).getAccountId();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,28 @@
+package com.hdfcbank.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IDGeneratorTest {
+    @Test
+    void generatedIdsParseBackToTheirNumber() {
+        String acc = IDGenerator.generateAccountId();
+        assertEquals(acc, IDGenerator.accountId(IDGenerator.accountNumber(acc)));
+        String cust = IDGenerator.generateCustomerId();
+        assertEquals(cust, IDGenerator.customerId(IDGenerator.customerNumber(cust)));
+        String txn = IDGenerator.generateTxnId();
+        assertEquals(txn, IDGenerator.txnId(IDGenerator.txnNumber(txn)));
+        assertEquals(0, IDGenerator.accountNumber("ACC0"));
+    }
+
+    // Each number has one spelling: a zero-padded ID names nothing, so code that compares IDs as
+    // strings (idempotency slots, receipts) agrees with lookups by number
+    @ParameterizedTest
+    @ValueSource(strings = {"ACC02001", "ACC00", "ACC0000000000000002001", "ACC", "ACC20x1", "CUST2001", "acc2001", ""})
+    void malformedAndZeroPaddedIdsAreRefused(String id) {
+        assertEquals(-1, IDGenerator.accountNumber(id));
+    }
+}
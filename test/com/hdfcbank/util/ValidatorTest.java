@@ -0,0 +1,60 @@
+package com.hdfcbank.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The scanners must classify random near-miss inputs exactly as the regexes and LocalDate they replaced
+class ValidatorTest {
+    private static final Pattern EMAIL = Pattern.compile("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$");
+    private static final Pattern PHONE = Pattern.compile("^[6-9]\\d{9}$");
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void emailMatchesRegex() {
+        Random rnd = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            String email = random(rnd, "aZ9_-.@.@x", 1 + rnd.nextInt(14));
+            assertEquals(EMAIL.matcher(email).matches(), Validator.isValidEmail(email), email);
+        }
+    }
+
+    @Test
+    void phoneMatchesRegex() {
+        Random rnd = new Random(43);
+        for (int i = 0; i < SAMPLES; i++) {
+            String phone = random(rnd, "0156789a ", 8 + rnd.nextInt(4));
+            assertEquals(PHONE.matcher(phone).matches(), Validator.isValidPhone(phone), phone);
+        }
+    }
+
+    @Test
+    void dobMatchesLocalDate() {
+        Random rnd = new Random(44);
+        for (int i = 0; i < SAMPLES; i++) {
+            String dob = String.format("%04d-%02d-%02d", 1890 + rnd.nextInt(150), rnd.nextInt(14), rnd.nextInt(33));
+            assertEquals(legacyDob(dob), Validator.isValidDob(dob), dob);
+        }
+    }
+
+    // What registerCustomer accepted before, narrowed to the new rules: parses, past, from 1900 on
+    private static boolean legacyDob(String dob) {
+        try {
+            LocalDate d = LocalDate.parse(dob);
+            return d.getYear() >= 1900 && !d.isAfter(LocalDate.now());
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static String random(Random rnd, String alphabet, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) chars[i] = alphabet.charAt(rnd.nextInt(alphabet.length()));
+        return new String(chars);
+    }
+}